@@ -11,6 +11,10 @@ import com.oracle.controller.AdminRestController;
 import com.oracle.controller.BankingRestController;
 import com.oracle.controller.CustomerLoginRestController;
 import com.oracle.controller.CustomerRestController;
+import com.oracle.controller.OpsRestController;
+import com.oracle.filter.CompressionInterceptor;
+import com.oracle.filter.UnitOfWorkFilter;
+import com.oracle.provider.RowListingWriter;
 
 @ApplicationPath("/api")  // base URI for all REST endpoints
 public class BankingApplication extends Application {
@@ -26,6 +30,12 @@ public class BankingApplication extends Application {
 //        resources.add(BankingViewController.class);
         resources.add(CustomerLoginRestController.class);
         resources.add(CustomerRestController.class);
+        resources.add(OpsRestController.class);
+
+        // Providers
+        resources.add(RowListingWriter.class);
+        resources.add(CompressionInterceptor.class);
+        resources.add(UnitOfWorkFilter.class);
 
         return resources;
     }
@@ -1,42 +1,128 @@
 package com.oracle.beans;
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
+import com.oracle.business.util.ExpiryScheduler;
 import com.oracle.dao.CustomerLoginDAO;
 
+/**
+ * Unlocks accounts when their lock runs out.
+ *
+ * Each lock is scheduled on the ExpiryScheduler under the "account-lock" kind
+ * when it is set; the locks that run out in the same second are lifted with one
+ * bulk update. start() schedules the locks already in force, once.
+ *
+ * A sweep also releases every lock past its deadline with one set-based update,
+ * catching locks this node never scheduled (set by another node, or run out
+ * while it was down). It runs at start and then every
+ * banking.unlock.sweepIntervalSeconds (default 300), give or take
+ * banking.unlock.sweepJitterPercent (default 10) so that nodes do not sweep in
+ * step, on a virtual thread.
+ */
 public class AccountUnlockScheduler {
 
+    private static final Logger logger = Logger.getLogger(AccountUnlockScheduler.class.getName());
+    public static final String EXPIRY_KIND = "account-lock";
+
+    private static final long SWEEP_INTERVAL_MILLIS =
+            TimeUnit.SECONDS.toMillis(Long.getLong("banking.unlock.sweepIntervalSeconds", 300L));
+    private static final int SWEEP_JITTER_PERCENT = Integer.getInteger("banking.unlock.sweepJitterPercent", 10);
+
     private final CustomerLoginDAO customerLoginDAO;
-    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
+    private final ExpiryScheduler expiry;
+    private final ScheduledThreadPoolExecutor sweeper =
+            new ScheduledThreadPoolExecutor(1, Thread.ofVirtual().name("account-unlock-sweep").factory());
 
-    public AccountUnlockScheduler(CustomerLoginDAO customerLoginDAO) {
+    public AccountUnlockScheduler(CustomerLoginDAO customerLoginDAO, ExpiryScheduler expiry) {
         this.customerLoginDAO = customerLoginDAO;
+        this.expiry = expiry;
+        // The next sweep is a one-shot task, which would otherwise still wait out its delay on stop()
+        sweeper.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
     }
 
     public void start() {
-        scheduler.scheduleAtFixedRate(this::unlockExpiredAccounts, 0, 5, TimeUnit.MINUTES);
-    }
-
-    private void unlockExpiredAccounts() {
+        expiry.register(EXPIRY_KIND, this::unlockExpiredAccounts);
         try {
             List<CustomerLogin> lockedAccounts = customerLoginDAO.findAllLockedAccounts();
-            LocalDateTime now = LocalDateTime.now();
-
             for (CustomerLogin cl : lockedAccounts) {
-                if (cl.getLockedUntil() != null && cl.getLockedUntil().isBefore(now)) {
-                    customerLoginDAO.unlockAccount(cl.getCustomerId());
-                    System.out.println("Unlocked account: " + cl.getCustomerId());
+                lockedUntil(cl.getCustomerId(), cl.getLockedUntil());
+            }
+            logger.info("Scheduled unlock of " + lockedAccounts.size() + " locked accounts");
+        } catch (Exception e) {
+            logger.log(Level.SEVERE, "Error loading locked accounts", e);
+        }
+        sweeper.execute(this::sweep);
+    }
+
+    /**
+     * Schedule the unlock of an account locked until the given time
+     */
+    public void lockedUntil(String customerId, LocalDateTime lockedUntil) {
+        if (lockedUntil != null) {
+            expiry.schedule(EXPIRY_KIND, customerId, lockedUntil);
+        }
+    }
+
+    /**
+     * Forget the scheduled unlock of an account unlocked by other means
+     */
+    public void unlocked(String customerId) {
+        expiry.cancel(EXPIRY_KIND, customerId);
+    }
+
+    private void unlockExpiredAccounts(List<String> customerIds) {
+        int unlocked = customerLoginDAO.unlockAccounts(customerIds);
+        if (unlocked > 0) {
+            logger.info("Unlocked " + unlocked + " accounts");
+        }
+    }
+
+    // Release every lock past its deadline, then schedule the next sweep
+    private void sweep() {
+        try {
+            long begin = System.nanoTime();
+            List<String> unlocked = customerLoginDAO.unlockExpiredAccounts();
+            if (!unlocked.isEmpty()) {
+                for (String customerId : unlocked) {
+                    expiry.cancel(EXPIRY_KIND, customerId);
                 }
+                logger.info("Unlock sweep released " + unlocked.size() + " accounts in "
+                        + (System.nanoTime() - begin) / 1_000_000 + " ms: " + unlocked);
             }
         } catch (Exception e) {
-            e.printStackTrace();
+            logger.log(Level.SEVERE, "Error in unlock sweep", e);
+        } finally {
+            try {
+                sweeper.schedule(this::sweep, nextSweepMillis(), TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                // Stopping
+            }
         }
     }
 
+    private static long nextSweepMillis() {
+        long jitter = SWEEP_INTERVAL_MILLIS * SWEEP_JITTER_PERCENT / 100;
+        return SWEEP_INTERVAL_MILLIS + (jitter > 0 ? ThreadLocalRandom.current().nextLong(-jitter, jitter + 1) : 0);
+    }
+
+    /**
+     * Stop the sweep, waiting for one in progress to finish
+     */
     public void stop() {
-        scheduler.shutdown();
+        sweeper.shutdown();
+        try {
+            if (!sweeper.awaitTermination(10, TimeUnit.SECONDS)) {
+                sweeper.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            sweeper.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
     }
 }
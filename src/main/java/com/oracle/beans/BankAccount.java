@@ -9,6 +9,10 @@ import java.time.LocalDateTime;
 @Table(name = "bank_accounts")
 public class BankAccount {
     
+    // Balance an account must keep, by account type
+    public static final BigDecimal MINIMUM_BALANCE_SAVINGS = new BigDecimal("1000");
+    public static final BigDecimal MINIMUM_BALANCE_CURRENT = new BigDecimal("5000");
+    
     @Id
     @Column(name = "account_number", length = 20)
     private String accountNumber;
@@ -50,6 +54,10 @@ public class BankAccount {
         this.balance = balance;
     }
     
+    public static BigDecimal minimumBalance(String accountType) {
+        return "SAVINGS".equals(accountType) ? MINIMUM_BALANCE_SAVINGS : MINIMUM_BALANCE_CURRENT;
+    }
+    
     // Getters and Setters
     public String getAccountNumber() {
         return accountNumber;
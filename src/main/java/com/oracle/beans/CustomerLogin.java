@@ -6,6 +6,7 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "customer_login")
+@NamedQuery(name = "CustomerLogin.findByUserId", query = "SELECT cl FROM CustomerLogin cl WHERE cl.userId = :userId")
 public class CustomerLogin implements Serializable {
 
     @Id
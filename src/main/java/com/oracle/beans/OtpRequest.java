@@ -32,7 +32,7 @@ public class OtpRequest {
     private LocalDateTime expiresAt;
 
     @Column(name = "is_used", length = 1)
-    private String isUsed;  // 'Y' or 'N'
+    private String isUsed;  // 'Y', 'N', or 'E' once expired unused
 
     @Column(name = "verification_attempts")
     private Integer verificationAttempts;
@@ -8,6 +8,9 @@ import java.time.LocalDateTime;
 @Table(name = "sessions")
 public class Session implements Serializable {
 
+    // Idle time after which a session expires
+    public static final long TIMEOUT_MINUTES = Long.getLong("banking.session.timeoutMinutes", 30L);
+
     @Id
     @Column(name = "session_id", length = 50, nullable = false)
     private String sessionId;
@@ -46,10 +49,10 @@ public class Session implements Serializable {
         this.userType = userType;
     }
 
-    // Session timeout check (30 minutes)
+    // Session timeout check (TIMEOUT_MINUTES, 30 by default)
     @Transient
     public boolean isExpired() {
-        return lastActivity.plusMinutes(30).isBefore(LocalDateTime.now());
+        return lastActivity.plusMinutes(TIMEOUT_MINUTES).isBefore(LocalDateTime.now());
     }
 
     @Transient
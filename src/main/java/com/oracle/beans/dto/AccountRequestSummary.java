@@ -0,0 +1,23 @@
+package com.oracle.beans.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Account creation request as shown in the admin queue. The processing admin is
+ * reduced to their id instead of the whole AdminUser.
+ */
+public record AccountRequestSummary(
+        String requestId,
+        String serviceReferenceNo,
+        String fullName,
+        String email,
+        String mobileNumber,
+        String accountType,
+        BigDecimal initialDeposit,
+        String status,
+        LocalDateTime submittedAt,
+        String processedBy,
+        LocalDateTime processedAt,
+        String rejectionReason) {
+}
@@ -0,0 +1,17 @@
+package com.oracle.beans.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Bank account as listed to its owner, without the customer association.
+ */
+public record AccountSummary(
+        String accountNumber,
+        String customerId,
+        String accountType,
+        BigDecimal balance,
+        String isActive,
+        LocalDateTime openedDate,
+        LocalDateTime lastTransactionDate) {
+}
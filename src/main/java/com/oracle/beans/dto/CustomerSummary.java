@@ -0,0 +1,17 @@
+package com.oracle.beans.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Customer as shown in admin listings; identity documents and addresses stay
+ * on the full profile.
+ */
+public record CustomerSummary(
+        String customerId,
+        String serviceReferenceNo,
+        String fullName,
+        String email,
+        String mobileNumber,
+        String status,
+        LocalDateTime createdAt) {
+}
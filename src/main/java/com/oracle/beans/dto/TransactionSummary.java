@@ -0,0 +1,22 @@
+package com.oracle.beans.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Transaction row as listed to customers, selected column by column so no entity is loaded.
+ */
+public record TransactionSummary(
+        String transactionId,
+        String transactionRefNo,
+        String fromAccountNumber,
+        String toAccountNumber,
+        String transactionType,
+        BigDecimal amount,
+        String transferMethod,
+        String status,
+        String description,
+        LocalDateTime transactionDate,
+        LocalDate valueDate) {
+}
@@ -1,6 +1,7 @@
 package com.oracle.business;
 
 import com.oracle.beans.AccountCreationRequest;
+import com.oracle.beans.dto.AccountRequestSummary;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -16,6 +17,7 @@ public interface AccountCreationRequestService {
 
     // Search filters
     List<AccountCreationRequest> getRequestsByStatus(String status);
+    List<AccountRequestSummary> getRequestSummariesByStatus(String status);
     List<AccountCreationRequest> getRequestsByEmail(String email);
     List<AccountCreationRequest> getRequestsByMobile(String mobileNumber);
     List<AccountCreationRequest> getRequestsByAadhar(String aadharNumber);
@@ -5,6 +5,9 @@ import java.util.List;
 
 public interface AdminUserService {
 
+    // Outcome of a login; BUSY when the password could not be checked yet, which is no verdict on it
+    enum AuthStatus { SUCCESS, INVALID_CREDENTIALS, BUSY }
+
     // Basic Admin CRUD Operations
     boolean createAdmin(AdminUser admin);
     AdminUser getAdminById(String adminId);
@@ -13,7 +16,7 @@ public interface AdminUserService {
     boolean deleteAdmin(String adminId);
 
     // Authentication & Status
-    boolean authenticate(String username, String password);
+    AuthStatus authenticate(String username, String password);
     boolean updateLastLogin(String adminId);
     boolean setAdminStatus(String adminId, boolean active);
     
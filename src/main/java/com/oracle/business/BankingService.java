@@ -3,9 +3,14 @@ package com.oracle.business;
 
 import com.oracle.beans.BankAccount;
 import com.oracle.beans.Transaction;
+import com.oracle.beans.TransactionWithType;
+import com.oracle.beans.dto.AccountSummary;
+import com.oracle.beans.dto.TransactionSummary;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface BankingService {
     
@@ -13,6 +18,7 @@ public interface BankingService {
     String createBankAccount(String customerId, String accountType, BigDecimal initialDeposit);
     BankAccount getAccountDetails(String accountNumber);
     List<BankAccount> getCustomerAccounts(String customerId);
+    List<AccountSummary> getCustomerAccountSummaries(String customerId);
     boolean activateAccount(String accountNumber);
     boolean deactivateAccount(String accountNumber);
     BigDecimal getAccountBalance(String accountNumber);
@@ -20,6 +26,9 @@ public interface BankingService {
     // Fund Transfer Operations
     String transferFunds(String fromAccount, String toAccount, BigDecimal amount, 
                         String transferMethod, String remarks);
+    // Same as above, also checking that fromAccount belongs to customerId (NOT_OWNER otherwise)
+    String transferFunds(String fromAccount, String toAccount, BigDecimal amount, 
+                        String transferMethod, String remarks, String customerId);
     boolean validateTransfer(String fromAccount, String toAccount, BigDecimal amount);
     boolean processNEFTTransfer(String fromAccount, String toAccount, BigDecimal amount, String remarks);
     boolean processRTGSTransfer(String fromAccount, String toAccount, BigDecimal amount, String remarks);
@@ -30,7 +39,15 @@ public interface BankingService {
     boolean creditAccount(String accountNumber, BigDecimal amount, String description);
     boolean debitAccount(String accountNumber, BigDecimal amount, String description);
     List<Transaction> getAccountStatement(String accountNumber, LocalDate fromDate, LocalDate toDate);
+    // Statement rows marked DEBIT/CREDIT with their counterparty account
+    List<TransactionWithType> getStatementEntries(String accountNumber, LocalDate fromDate, LocalDate toDate);
+    // Keyset page of a statement, newest first, starting after the given row (nulls for the first page)
+    List<Transaction> getAccountStatementPage(String accountNumber, LocalDate fromDate, LocalDate toDate,
+                                              LocalDateTime afterDate, String afterId, int limit);
+    // Feeds the whole statement to the consumer row by row
+    void streamAccountStatement(String accountNumber, LocalDate fromDate, LocalDate toDate, Consumer<Transaction> consumer);
     List<Transaction> getRecentTransactions(String accountNumber, int limit);
+    List<TransactionSummary> getRecentTransactionSummaries(String accountNumber, int limit);
     Transaction getTransactionDetails(String transactionId);
     
     // Account Validation
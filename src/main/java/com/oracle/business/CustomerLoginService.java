@@ -28,6 +28,10 @@ public interface CustomerLoginService {
      * Implements failed login attempts tracking and account lockout.
      */
     AuthResult authenticate(String userId, String password);
+    /**
+     * As above, throttled by customer and by client IP before the database is touched.
+     */
+    AuthResult authenticate(String userId, String password, String clientIp);
 
     // Manage failed login attempts and locking
     boolean incrementFailedLoginAttempts(String customerId);
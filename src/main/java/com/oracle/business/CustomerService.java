@@ -2,6 +2,7 @@
 package com.oracle.business;
 
 import com.oracle.beans.Customer;
+import com.oracle.beans.dto.CustomerSummary;
 import java.util.List;
 
 public interface CustomerService {
@@ -18,6 +19,7 @@ public interface CustomerService {
     Customer findCustomerByMobile(String mobileNumber);
     Customer findCustomerByAadhar(String aadharNumber);
     List<Customer> getAllCustomers();
+    List<CustomerSummary> getAllCustomerSummaries();
     List<Customer> getActiveCustomers();
     List<Customer> getInactiveCustomers();
     
@@ -0,0 +1,23 @@
+package com.oracle.business;
+
+/**
+ * Issues business identifiers for new accounts and customers.
+ * Implementations must never hand out the same identifier twice.
+ */
+public interface IdentifierService {
+
+    /**
+     * New 13-digit account number: bank code, serial and check digit
+     */
+    String nextAccountNumber();
+
+    /**
+     * New customer id: CUST, serial and check digit
+     */
+    String nextCustomerId();
+
+    /**
+     * Whether the trailing check digit of an identifier matches its digits
+     */
+    boolean isValid(String identifier);
+}
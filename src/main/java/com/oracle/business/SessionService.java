@@ -11,6 +11,8 @@ public interface SessionService {
     boolean saveSession(Session session);
     boolean updateSession(Session session);
     Session getSessionById(String sessionId);
+    // Records activity on a live session; false if it ended or expired
+    boolean touchSession(String sessionId);
     boolean deleteSession(String sessionId);
 
     // Query operations
@@ -4,7 +4,9 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import com.oracle.beans.Transaction;
+import com.oracle.business.util.OutflowCounters;
 
 public interface TransactionService {
     
@@ -56,6 +58,12 @@ public interface TransactionService {
     // Business rule operations
     boolean checkDailyLimit(String accountNumber, BigDecimal amount);
     boolean checkMonthlyLimit(String accountNumber, BigDecimal amount);
+    // Add a committed DEBIT/TRANSFER row to the running daily and monthly totals
+    void recordOutflow(Transaction transaction);
+    // Check the daily and monthly limits and count the amount against them in one step;
+    // null if either limit would be exceeded. Release the reservation if the outflow fails.
+    OutflowCounters.Reservation reserveOutflow(String accountNumber, BigDecimal amount);
+    void releaseOutflow(OutflowCounters.Reservation reservation);
     boolean isAccountEligibleForTransaction(String accountNumber);
     boolean requiresApproval(Transaction transaction);
     
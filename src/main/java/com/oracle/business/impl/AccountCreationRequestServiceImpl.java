@@ -3,15 +3,19 @@ package com.oracle.business.impl;
 import com.oracle.beans.AccountCreationRequest;
 import com.oracle.beans.Customer;
 import com.oracle.beans.CustomerLogin;
+import com.oracle.beans.dto.AccountRequestSummary;
 import com.oracle.business.AccountCreationRequestService;
 import com.oracle.business.BankingService;
 import com.oracle.business.CustomerLoginService;
 import com.oracle.business.CustomerService;
 import com.oracle.dao.AccountCreationRequestDAO;
+import com.oracle.dao.util.UnitOfWork;
 import com.oracle.business.util.EmailUtil;
+import com.oracle.business.util.PasswordHashing;
 import com.oracle.business.util.ServiceFactory;
 import com.oracle.business.OTPService;
 
+import jakarta.mail.MessagingException;
 
 import java.math.BigDecimal;
 import java.security.SecureRandom;
@@ -107,6 +111,16 @@ public class AccountCreationRequestServiceImpl implements AccountCreationRequest
         }
     }
 
+    @Override
+    public List<AccountRequestSummary> getRequestSummariesByStatus(String status) {
+        try {
+            return requestDAO.findSummariesByStatus(status);
+        } catch (Exception e) {
+            logger.log(Level.SEVERE, "Error getting request summaries by status: " + status, e);
+            return Collections.emptyList();
+        }
+    }
+
     @Override
     public List<AccountCreationRequest> getRequestsByEmail(String email) {
         try {
@@ -154,7 +168,7 @@ public class AccountCreationRequestServiceImpl implements AccountCreationRequest
             boolean approved = requestDAO.approveRequest(requestId, username);
             if (!approved) {
                 logger.warning("Failed to approve account creation request: " + requestId);
-                return false;
+                return rollback();
             }
 
             // Create new Customer entity
@@ -176,7 +190,7 @@ public class AccountCreationRequestServiceImpl implements AccountCreationRequest
 
             if (!customerService.registerCustomer(customer).equals("SUCCESS")) {
                 logger.warning("Failed to register customer for request: " + requestId);
-                return false;
+                return rollback();
             }
 
             // Create CustomerLogin entity with generated passwords
@@ -186,13 +200,13 @@ public class AccountCreationRequestServiceImpl implements AccountCreationRequest
             String userId = "user_" + UUID.randomUUID().toString().substring(0, 8);
             customerLogin.setUserId(userId);
 
-            // Generate and hash passwords (use your hash method; here just random base64 string as placeholder)
+            // Generate and hash passwords; the plain ones are only mailed to the customer
             String loginPasswordPlain = generateRandomPassword(12);
             String transactionPasswordPlain = generateRandomPassword(12);
             
-            // You must hash these before saving - here assumed saved in plain (replace with actual hashing logic)
-            customerLogin.setLoginPassword(loginPasswordPlain);
-            customerLogin.setTransactionPassword(transactionPasswordPlain);
+            PasswordHashing hashing = ServiceFactory.getPasswordHashing();
+            customerLogin.setLoginPassword(hashing.hash(loginPasswordPlain));
+            customerLogin.setTransactionPassword(hashing.hash(transactionPasswordPlain));
 
             customerLogin.setInternetBankingEnabled("N");
             customerLogin.setFailedLoginAttempts(0);
@@ -201,17 +215,18 @@ public class AccountCreationRequestServiceImpl implements AccountCreationRequest
 
             if (!customerLoginService.saveCustomerLogin(customerLogin)) {
                 logger.warning("Failed to create login credentials for customer: " + generatedCustomerId);
-                return false;
+                return rollback();
             }
 
             // Create initial bank account for the customer
             String accountType = request.getAccountType() != null ? request.getAccountType() : "SAVINGS";
             BigDecimal initialDeposit = request.getInitialDeposit() != null ? request.getInitialDeposit() : BigDecimal.valueOf(1000);
 
+            // createBankAccount answers with an error code such as CUSTOMER_NOT_FOUND instead of a number
             String accountNumber = bankingService.createBankAccount(generatedCustomerId, accountType, initialDeposit);
-            if (accountNumber == null || accountNumber.isEmpty()) {
-                logger.warning("Failed to create bank account for customer: " + generatedCustomerId);
-                return false;
+            if (!ServiceFactory.getIdentifierService().isValid(accountNumber)) {
+                logger.warning("Failed to create bank account for customer: " + generatedCustomerId + " (" + accountNumber + ")");
+                return rollback();
             }
             String otpSaved = otpService.createAndSaveOtp(
             	    generatedCustomerId,
@@ -242,8 +257,15 @@ public class AccountCreationRequestServiceImpl implements AccountCreationRequest
                     + "Please log in and change your passwords at your earliest convenience.\n\n"
                     + "Thank you for choosing our bank.\n";
 
-            // Send email notification using your EmailUtil or EmailService
-            EmailUtil.sendEmail(customer.getEmail(), emailSubject, emailBody);
+            // The mail carries the credentials, so it only goes out once everything above has committed
+            String email = customer.getEmail();
+            UnitOfWork.afterCommit(() -> {
+                try {
+                    EmailUtil.sendEmail(email, emailSubject, emailBody);
+                } catch (MessagingException e) {
+                    logger.log(Level.SEVERE, "Approval email could not be sent to customer " + generatedCustomerId, e);
+                }
+            });
 
             // TODO: Optionally add SMS notification similarly here
 
@@ -252,8 +274,17 @@ public class AccountCreationRequestServiceImpl implements AccountCreationRequest
 
         }  catch (Exception e) {
             logger.log(Level.SEVERE, "Error during approveRequestAndCreateCustomer", e);
-            return false;
+            return rollback();
+        }
+    }
+
+    // Undo whatever the approval saved so far, when it runs in a request transaction
+    private static boolean rollback() {
+        UnitOfWork unit = UnitOfWork.current();
+        if (unit != null) {
+            unit.setRollbackOnly();
         }
+        return false;
     }
 
     
@@ -268,7 +299,7 @@ public class AccountCreationRequestServiceImpl implements AccountCreationRequest
 
     
     private String generateCustomerId() {
-        return "CUST" + System.currentTimeMillis() + (int) (Math.random() * 1000);
+        return ServiceFactory.getIdentifierService().nextCustomerId();
     }
 
     private String generateRandomPassword(int length) {
@@ -3,6 +3,7 @@ package com.oracle.business.impl;
 import com.oracle.beans.AdminUser;
 import com.oracle.dao.AdminUserDAO;
 import com.oracle.business.AdminUserService;
+import com.oracle.business.util.PasswordHashing;
 import com.oracle.business.util.ServiceFactory;
 
 import java.util.List;
@@ -82,17 +83,33 @@ public class AdminUserServiceImpl implements AdminUserService {
     }
 
     @Override
-    public boolean authenticate(String username, String password) {
+    public AuthStatus authenticate(String username, String password) {
         try {
             if (username == null || password == null) {
                 logger.warning("Username or password is null during authentication");
-                return false;
+                return AuthStatus.INVALID_CREDENTIALS;
+            }
+            AdminUser admin = adminUserDAO.getAdminByUsername(username);
+            if (admin == null || !"Y".equals(admin.getIsActive())) {
+                return AuthStatus.INVALID_CREDENTIALS;
+            }
+            PasswordHashing hashing = ServiceFactory.getPasswordHashing();
+            String stored = admin.getPasswordHash();
+            PasswordHashing.Result result = hashing.verify(password, stored);
+            switch (result) {
+                case BUSY:
+                    return AuthStatus.BUSY;
+                case MATCH_NEEDS_REHASH:
+                    hashing.rehashLater(password, hash -> adminUserDAO.rehashPassword(admin.getAdminId(), stored, hash));
+                    return AuthStatus.SUCCESS;
+                case MATCH:
+                    return AuthStatus.SUCCESS;
+                default:
+                    return AuthStatus.INVALID_CREDENTIALS;
             }
-            // Note: password should be hashed before passing here, depending on your app design
-            return adminUserDAO.validateLogin(username, password);
         } catch (Exception e) {
             logger.log(Level.SEVERE, "Error authenticating admin: " + username, e);
-            return false;
+            return AuthStatus.INVALID_CREDENTIALS;
         }
     }
 
@@ -2,22 +2,27 @@ package com.oracle.business.impl;
 
 import com.oracle.beans.BankAccount;
 import com.oracle.beans.Transaction;
+import com.oracle.beans.TransactionWithType;
+import com.oracle.beans.dto.AccountSummary;
+import com.oracle.beans.dto.TransactionSummary;
 import com.oracle.dao.BankAccountDAO;
 import com.oracle.dao.TransactionDAO;
+import com.oracle.dao.TransferDAO;
 import com.oracle.business.TransactionService;
 import com.oracle.dao.CustomerDAO;
 import com.oracle.business.BankingService;
+import com.oracle.business.util.BalanceLedger;
+import com.oracle.business.util.OutflowCounters;
 import com.oracle.business.util.ServiceFactory;
+import com.oracle.dao.util.TransactionIdGenerator;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
-import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
-import java.util.Random;
 
 public class BankingServiceImpl implements BankingService {
     
@@ -27,6 +32,10 @@ public class BankingServiceImpl implements BankingService {
     private BankAccountDAO bankAccountDAO;
     private TransactionDAO transactionDAO;
     private CustomerDAO customerDAO;
+    private TransferDAO transferDAO;
+    
+    // Optional in-process balance ledger, null unless enabled
+    private BalanceLedger balanceLedger;
     
     // Transfer limits
     private static final BigDecimal NEFT_MIN_AMOUNT = new BigDecimal("1");
@@ -36,14 +45,14 @@ public class BankingServiceImpl implements BankingService {
     private static final BigDecimal IMPS_MIN_AMOUNT = new BigDecimal("1");
     private static final BigDecimal IMPS_MAX_AMOUNT = new BigDecimal("500000");
     private static final BigDecimal DAILY_TRANSFER_LIMIT = new BigDecimal("100000");
-    private static final BigDecimal MINIMUM_BALANCE_SAVINGS = new BigDecimal("1000");
-    private static final BigDecimal MINIMUM_BALANCE_CURRENT = new BigDecimal("5000");
     
     public BankingServiceImpl() {
         // Initialize DAO instances using Factory Pattern
         this.bankAccountDAO = ServiceFactory.getBankAccountDAO();
         this.transactionDAO = ServiceFactory.getTransactionDAO();
         this.customerDAO = ServiceFactory.getCustomerDAO();
+        this.transferDAO = ServiceFactory.getTransferDAO();
+        this.balanceLedger = ServiceFactory.getBalanceLedger();
     }
     
     @Override
@@ -56,7 +65,7 @@ public class BankingServiceImpl implements BankingService {
             }
             
             // Validate initial deposit
-            BigDecimal minDeposit = "SAVINGS".equals(accountType) ? MINIMUM_BALANCE_SAVINGS : MINIMUM_BALANCE_CURRENT;
+            BigDecimal minDeposit = BankAccount.minimumBalance(accountType);
             if (initialDeposit.compareTo(minDeposit) < 0) {
                 logger.warning("Insufficient initial deposit: " + initialDeposit);
                 return "INSUFFICIENT_INITIAL_DEPOSIT";
@@ -130,7 +139,12 @@ public class BankingServiceImpl implements BankingService {
                 return null;
             }
             
-            return bankAccountDAO.findAccountByNumber(accountNumber);
+            BankAccount account = bankAccountDAO.findAccountByNumber(accountNumber);
+            if (account != null && balanceLedger != null) {
+                // The row may not have caught up with the ledger yet
+                account.setBalance(balanceLedger.getBalance(accountNumber));
+            }
+            return account;
             
         } catch (Exception e) {
             logger.severe("Error getting account details: " + e.getMessage());
@@ -153,6 +167,31 @@ public class BankingServiceImpl implements BankingService {
             return null;
         }
     }
+
+    @Override
+    public List<AccountSummary> getCustomerAccountSummaries(String customerId) {
+        try {
+            if (customerId == null || customerId.trim().isEmpty()) {
+                logger.warning("Customer ID is required");
+                return null;
+            }
+
+            List<AccountSummary> accounts = bankAccountDAO.findAccountSummariesByCustomerId(customerId);
+            if (accounts == null || balanceLedger == null) {
+                return accounts;
+            }
+            // Stored balances lag the ledger until its next flush
+            return accounts.stream()
+                    .map(a -> new AccountSummary(a.accountNumber(), a.customerId(), a.accountType(),
+                            balanceLedger.getBalance(a.accountNumber()), a.isActive(),
+                            a.openedDate(), a.lastTransactionDate()))
+                    .collect(Collectors.toList());
+
+        } catch (Exception e) {
+            logger.severe("Error getting customer account summaries: " + e.getMessage());
+            return null;
+        }
+    }
     
     @Override
     public boolean doesAccountBelongToCustomer(String accountNumber, String customerId) {
@@ -189,7 +228,11 @@ public class BankingServiceImpl implements BankingService {
                 return false;
             }
             
-            return bankAccountDAO.activateAccount(accountNumber);
+            boolean changed = bankAccountDAO.activateAccount(accountNumber);
+            if (changed && balanceLedger != null) {
+                balanceLedger.setActive(accountNumber, true);
+            }
+            return changed;
             
         } catch (Exception e) {
             logger.severe("Error activating account: " + e.getMessage());
@@ -205,7 +248,11 @@ public class BankingServiceImpl implements BankingService {
                 return false;
             }
             
-            return bankAccountDAO.deactivateAccount(accountNumber);
+            boolean changed = bankAccountDAO.deactivateAccount(accountNumber);
+            if (changed && balanceLedger != null) {
+                balanceLedger.setActive(accountNumber, false);
+            }
+            return changed;
             
         } catch (Exception e) {
             logger.severe("Error deactivating account: " + e.getMessage());
@@ -216,6 +263,10 @@ public class BankingServiceImpl implements BankingService {
     @Override
     public BigDecimal getAccountBalance(String accountNumber) {
         try {
+            if (balanceLedger != null) {
+                BigDecimal balance = balanceLedger.getBalance(accountNumber);
+                return balance != null ? balance : BigDecimal.ZERO;
+            }
             return bankAccountDAO.getAccountBalance(accountNumber);
         } catch (Exception e) {
             logger.severe("Error getting account balance: " + e.getMessage());
@@ -226,10 +277,17 @@ public class BankingServiceImpl implements BankingService {
     @Override
     public String transferFunds(String fromAccount, String toAccount, BigDecimal amount, 
                                String transferMethod, String remarks) {
+        return transferFunds(fromAccount, toAccount, amount, transferMethod, remarks, null);
+    }
+    
+    @Override
+    public String transferFunds(String fromAccount, String toAccount, BigDecimal amount, 
+                               String transferMethod, String remarks, String customerId) {
         try {
-            // Validate transfer
-            if (!validateTransfer(fromAccount, toAccount, amount)) {
-                return "VALIDATION_FAILED";
+            // Validate transfer, and ownership when a customer is given
+            String validation = checkTransfer(fromAccount, toAccount, amount, customerId);
+            if (validation != null) {
+                return validation;
             }
             
             // Validate transfer method and amount
@@ -237,25 +295,26 @@ public class BankingServiceImpl implements BankingService {
                 return "INVALID_AMOUNT_FOR_METHOD";
             }
             
-            // Check daily transfer limit
-            if (!validateTransactionLimits(fromAccount, amount, transferMethod)) {
+            String method = transferMethod.toUpperCase();
+            if (!isValidTransferMethod(method)) {
+                return "INVALID_TRANSFER_METHOD";
+            }
+            
+            // Count the amount against the daily and monthly limits before moving it, so that
+            // concurrent transfers cannot pass the check together
+            TransactionService transactionService = ServiceFactory.getTransactionService();
+            OutflowCounters.Reservation reservation = transactionService.reserveOutflow(fromAccount, amount);
+            if (reservation == null) {
                 return "DAILY_LIMIT_EXCEEDED";
             }
             
-            // Process transfer based on method
             boolean transferResult = false;
-            switch (transferMethod.toUpperCase()) {
-                case "NEFT":
-                    transferResult = processNEFTTransfer(fromAccount, toAccount, amount, remarks);
-                    break;
-                case "RTGS":
-                    transferResult = processRTGSTransfer(fromAccount, toAccount, amount, remarks);
-                    break;
-                case "IMPS":
-                    transferResult = processIMPSTransfer(fromAccount, toAccount, amount, remarks);
-                    break;
-                default:
-                    return "INVALID_TRANSFER_METHOD";
+            try {
+                transferResult = moveFunds(fromAccount, toAccount, amount, method, remarks) != null;
+            } finally {
+                if (!transferResult) {
+                    transactionService.releaseOutflow(reservation);
+                }
             }
             
             if (transferResult) {
@@ -274,52 +333,90 @@ public class BankingServiceImpl implements BankingService {
     
     @Override
     public boolean validateTransfer(String fromAccount, String toAccount, BigDecimal amount) {
+        return checkTransfer(fromAccount, toAccount, amount, null) == null;
+    }
+    
+    /**
+     * Evaluate every transfer rule against one snapshot of both accounts,
+     * loaded with a single query
+     * @return null if the transfer may proceed, otherwise VALIDATION_FAILED, NOT_OWNER
+     *         or SYSTEM_ERROR if the accounts could not be read
+     */
+    private String checkTransfer(String fromAccount, String toAccount, BigDecimal amount, String customerId) {
         try {
+            if (fromAccount == null || toAccount == null || amount == null) {
+                logger.warning("From account, to account and amount are required");
+                return "VALIDATION_FAILED";
+            }
+            
+            // Check if same account
+            if (fromAccount.equals(toAccount)) {
+                logger.warning("Cannot transfer to same account");
+                return "VALIDATION_FAILED";
+            }
+            
+            // Check minimum amount
+            if (amount.compareTo(new BigDecimal("1")) < 0) {
+                logger.warning("Transfer amount must be at least ₹1");
+                return "VALIDATION_FAILED";
+            }
+            
+            List<BankAccount> accounts = bankAccountDAO.findAccountsByNumbers(List.of(fromAccount, toAccount));
+            if (accounts == null) {
+                // The accounts could not be read, which says nothing about who owns them
+                return "SYSTEM_ERROR";
+            }
+            BankAccount source = null;
+            BankAccount destination = null;
+            for (BankAccount account : accounts) {
+                if (fromAccount.equals(account.getAccountNumber())) {
+                    source = account;
+                } else {
+                    destination = account;
+                }
+            }
+            
             // Check if accounts exist
-            if (!isAccountExists(fromAccount)) {
+            if (source == null) {
                 logger.warning("From account not found: " + fromAccount);
-                return false;
+                return customerId != null ? "NOT_OWNER" : "VALIDATION_FAILED";
             }
             
-            if (!isAccountExists(toAccount)) {
+            // Check ownership before anything else about the source is revealed
+            if (customerId != null && !customerId.equals(source.getCustomerId())) {
+                logger.warning("Account " + fromAccount + " does not belong to customer " + customerId);
+                return "NOT_OWNER";
+            }
+            
+            if (destination == null) {
                 logger.warning("To account not found: " + toAccount);
-                return false;
+                return "VALIDATION_FAILED";
             }
             
             // Check if accounts are active
-            if (!isAccountActive(fromAccount)) {
+            if (!"Y".equals(source.getIsActive())) {
                 logger.warning("From account is not active: " + fromAccount);
-                return false;
+                return "VALIDATION_FAILED";
             }
             
-            if (!isAccountActive(toAccount)) {
+            if (!"Y".equals(destination.getIsActive())) {
                 logger.warning("To account is not active: " + toAccount);
-                return false;
-            }
-            
-            // Check if same account
-            if (fromAccount.equals(toAccount)) {
-                logger.warning("Cannot transfer to same account");
-                return false;
+                return "VALIDATION_FAILED";
             }
             
-            // Check sufficient balance
-            if (!hasSufficientBalance(fromAccount, amount)) {
+            // Check sufficient balance, keeping the minimum balance for the account type
+            BigDecimal balance = balanceLedger != null ? balanceLedger.getBalance(fromAccount) : source.getBalance();
+            BigDecimal minBalance = BankAccount.minimumBalance(source.getAccountType());
+            if (balance == null || balance.subtract(amount).compareTo(minBalance) < 0) {
                 logger.warning("Insufficient balance in account: " + fromAccount);
-                return false;
-            }
-            
-            // Check minimum amount
-            if (amount.compareTo(new BigDecimal("1")) < 0) {
-                logger.warning("Transfer amount must be at least ₹1");
-                return false;
+                return "VALIDATION_FAILED";
             }
             
-            return true;
+            return null;
             
         } catch (Exception e) {
             logger.severe("Error validating transfer: " + e.getMessage());
-            return false;
+            return "SYSTEM_ERROR";
         }
     }
     
@@ -411,71 +508,58 @@ public class BankingServiceImpl implements BankingService {
 //        }
 //    }
     
-    private boolean processTransfer(String fromAccount, String toAccount, BigDecimal amount, 
-            String method, String remarks) {
-try {
-// Get balances
-BigDecimal fromBalance = getAccountBalance(fromAccount);
-BigDecimal toBalance = getAccountBalance(toAccount);
-
-if (fromBalance == null || toBalance == null) {
-logger.severe("Account balance retrieval failed for " + 
-     (fromBalance == null ? fromAccount : toAccount));
-return false;
-}
-
-// Check sufficient balance
-if (fromBalance.compareTo(amount) < 0) {
-logger.warning("Insufficient balance in account: " + fromAccount);
-return false;
-}
-
-// Perform debit
-if (!bankAccountDAO.debitAccount(fromAccount, amount)) {
-logger.severe("Failed to debit from account: " + fromAccount);
-return false;
-}
+    private boolean processTransfer(String fromAccount, String toAccount, BigDecimal amount,
+                                    String method, String remarks) {
+        Transaction debitTransaction = moveFunds(fromAccount, toAccount, amount, method, remarks);
+        if (debitTransaction == null) {
+            return false;
+        }
+        ServiceFactory.getTransactionService().recordOutflow(debitTransaction);
+        return true;
+    }
 
-// Perform credit
-if (!bankAccountDAO.creditAccount(toAccount, amount)) {
-logger.severe("Failed to credit to account: " + toAccount);
-// Rollback debit
-bankAccountDAO.creditAccount(fromAccount, amount);
-return false;
-}
+    /**
+     * Debit, credit and both transaction rows; the caller counts the outflow
+     * @return the debit row, or null if the transfer failed
+     */
+    private Transaction moveFunds(String fromAccount, String toAccount, BigDecimal amount,
+                                  String method, String remarks) {
+        try {
+            // Generate shared details; transaction_ref_no is unique, so each row
+            // carries the reference derived from its own id
+            LocalDateTime now = LocalDateTime.now();
+            String debitId = generateTransactionId();
+            String creditId = generateTransactionId();
 
-// Generate shared details
-LocalDateTime now = LocalDateTime.now();
-String transactionRef = generateTransactionRefNumber();
+            // Balances are filled in by whichever side applies the movement
+            Transaction debitTransaction = buildTransaction(
+                debitId, TransactionIdGenerator.refNoFor(debitId), fromAccount, toAccount,
+                "DEBIT", method, amount, method + " Transfer to " + toAccount,
+                remarks, null, null, now);
 
-// Create transaction records
-Transaction debitTransaction = buildTransaction(
-generateTransactionId(), transactionRef, fromAccount, toAccount,
-"DEBIT", method, amount, method + " Transfer to " + toAccount,
-remarks, fromBalance, fromBalance.subtract(amount), now);
+            Transaction creditTransaction = buildTransaction(
+                creditId, TransactionIdGenerator.refNoFor(creditId), fromAccount, toAccount,
+                "CREDIT", method, amount, method + " Transfer from " + fromAccount,
+                remarks, null, null, now);
 
-Transaction creditTransaction = buildTransaction(
-generateTransactionId(), transactionRef, fromAccount, toAccount,
-"CREDIT", method, amount, method + " Transfer from " + fromAccount,
-remarks, toBalance, toBalance.add(amount), now);
+            // Debit, credit and both ledger rows commit together or not at all
+            boolean transferred = balanceLedger != null
+                ? balanceLedger.transfer(fromAccount, toAccount, amount, debitTransaction, creditTransaction)
+                : transferDAO.executeTransfer(fromAccount, toAccount, amount, debitTransaction, creditTransaction);
+            if (transferred) {
+                logger.info(String.format("Transfer successful: %s from %s to %s, Amount: %s",
+                                          method, fromAccount, toAccount, amount));
+                return debitTransaction;
+            }
 
-// Save both transactions
-if (transactionDAO.createTransaction(debitTransaction) && 
-transactionDAO.createTransaction(creditTransaction)) {
-logger.info(String.format("Transfer successful: %s from %s to %s, Amount: %s", 
-                  method, fromAccount, toAccount, amount));
-return true;
-} else {
-logger.severe("Failed to save transaction records. Manual review required.");
-return false;
-}
+            logger.severe("Transfer failed: " + method + " from " + fromAccount + " to " + toAccount);
+            return null;
 
-} catch (Exception e) {
-logger.severe("Error processing transfer: " + e.getMessage());
-e.printStackTrace();
-return false;
-}
-}
+        } catch (Exception e) {
+            logger.severe("Error processing transfer: " + e.getMessage());
+            return null;
+        }
+    }
 
 /**
 * Helper method to build a Transaction object.
@@ -518,28 +602,36 @@ return txn;
             
             BigDecimal currentBalance = getAccountBalance(accountNumber);
             
-            // Credit the account
-            if (bankAccountDAO.creditAccount(accountNumber, amount)) {
-                // Create transaction record
-                Transaction transaction = new Transaction();
-                transaction.setTransactionId(generateTransactionId());
-                transaction.setTransactionRefNo(generateTransactionRefNumber());
-                transaction.setToAccountNumber(accountNumber);
-                transaction.setTransactionType("CREDIT");
-                transaction.setAmount(amount);
-                transaction.setDescription(description != null ? description : "Credit Transaction");
-                transaction.setStatus("COMPLETED");
-                transaction.setProcessedBy("SYSTEM");
-                transaction.setOpeningBalance(currentBalance);
-                transaction.setClosingBalance(currentBalance.add(amount));
-                transaction.setTransactionDate(LocalDateTime.now());
-                
-                transactionDAO.createTransaction(transaction);
-                logger.info("Account credited successfully: " + accountNumber + " amount: " + amount);
-                return true;
+            // Create transaction record
+            Transaction transaction = new Transaction();
+            transaction.setTransactionId(generateTransactionId());
+            transaction.setTransactionRefNo(generateTransactionRefNumber());
+            transaction.setToAccountNumber(accountNumber);
+            transaction.setTransactionType("CREDIT");
+            transaction.setAmount(amount);
+            transaction.setDescription(description != null ? description : "Credit Transaction");
+            transaction.setStatus("COMPLETED");
+            transaction.setProcessedBy("SYSTEM");
+            transaction.setOpeningBalance(currentBalance);
+            transaction.setClosingBalance(currentBalance.add(amount));
+            transaction.setTransactionDate(LocalDateTime.now());
+            
+            if (balanceLedger != null) {
+                // The ledger sets the balances on the record and writes both behind
+                if (!balanceLedger.credit(accountNumber, amount, transaction)) {
+                    return false;
+                }
+            } else {
+                // Credit the account
+                if (!bankAccountDAO.creditAccount(accountNumber, amount)) {
+                    return false;
+                }
+                // Shares its commit with concurrent credits and debits
+                transactionDAO.createTransactionAsync(transaction).join();
             }
             
-            return false;
+            logger.info("Account credited successfully: " + accountNumber + " amount: " + amount);
+            return true;
             
         } catch (Exception e) {
             logger.severe("Error crediting account: " + e.getMessage());
@@ -567,28 +659,37 @@ return txn;
             
             BigDecimal currentBalance = getAccountBalance(accountNumber);
             
-            // Debit the account
-            if (bankAccountDAO.debitAccount(accountNumber, amount)) {
-                // Create transaction record
-                Transaction transaction = new Transaction();
-                transaction.setTransactionId(generateTransactionId());
-                transaction.setTransactionRefNo(generateTransactionRefNumber());
-                transaction.setFromAccountNumber(accountNumber);
-                transaction.setTransactionType("DEBIT");
-                transaction.setAmount(amount);
-                transaction.setDescription(description != null ? description : "Debit Transaction");
-                transaction.setStatus("COMPLETED");
-                transaction.setProcessedBy("SYSTEM");
-                transaction.setOpeningBalance(currentBalance);
-                transaction.setClosingBalance(currentBalance.subtract(amount));
-                transaction.setTransactionDate(LocalDateTime.now());
-                
-                transactionDAO.createTransaction(transaction);
-                logger.info("Account debited successfully: " + accountNumber + " amount: " + amount);
-                return true;
+            // Create transaction record
+            Transaction transaction = new Transaction();
+            transaction.setTransactionId(generateTransactionId());
+            transaction.setTransactionRefNo(generateTransactionRefNumber());
+            transaction.setFromAccountNumber(accountNumber);
+            transaction.setTransactionType("DEBIT");
+            transaction.setAmount(amount);
+            transaction.setDescription(description != null ? description : "Debit Transaction");
+            transaction.setStatus("COMPLETED");
+            transaction.setProcessedBy("SYSTEM");
+            transaction.setOpeningBalance(currentBalance);
+            transaction.setClosingBalance(currentBalance.subtract(amount));
+            transaction.setTransactionDate(LocalDateTime.now());
+            
+            if (balanceLedger != null) {
+                // The ledger sets the balances on the record and writes both behind
+                if (!balanceLedger.debit(accountNumber, amount, transaction)) {
+                    return false;
+                }
+            } else {
+                // Debit the account
+                if (!bankAccountDAO.debitAccount(accountNumber, amount)) {
+                    return false;
+                }
+                // Shares its commit with concurrent credits and debits
+                transactionDAO.createTransactionAsync(transaction).join();
             }
             
-            return false;
+            ServiceFactory.getTransactionService().recordOutflow(transaction);
+            logger.info("Account debited successfully: " + accountNumber + " amount: " + amount);
+            return true;
             
         } catch (Exception e) {
             logger.severe("Error debiting account: " + e.getMessage());
@@ -611,6 +712,34 @@ return txn;
             return null;
         }
     }
+
+    @Override
+    public List<TransactionWithType> getStatementEntries(String accountNumber, LocalDate fromDate, LocalDate toDate) {
+        try {
+            return transactionDAO.findStatementWithType(accountNumber, fromDate, toDate);
+        } catch (Exception e) {
+            logger.severe("Error getting statement entries: " + e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public List<Transaction> getAccountStatementPage(String accountNumber, LocalDate fromDate, LocalDate toDate,
+                                                     LocalDateTime afterDate, String afterId, int limit) {
+        try {
+            return transactionDAO.findStatementPage(accountNumber, fromDate, toDate, afterDate, afterId, limit);
+        } catch (Exception e) {
+            logger.severe("Error getting account statement page: " + e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public void streamAccountStatement(String accountNumber, LocalDate fromDate, LocalDate toDate,
+                                       Consumer<Transaction> consumer) {
+        // Errors propagate: once rows have gone out the caller can only abort the response
+        transactionDAO.streamStatement(accountNumber, fromDate, toDate, consumer);
+    }
     
     @Override
     public List<Transaction> getRecentTransactions(String accountNumber, int limit) {
@@ -627,6 +756,16 @@ return txn;
             return null;
         }
     }
+
+    @Override
+    public List<TransactionSummary> getRecentTransactionSummaries(String accountNumber, int limit) {
+        try {
+            return transactionDAO.getRecentTransactionSummaries(accountNumber, limit);
+        } catch (Exception e) {
+            logger.severe("Error getting recent transaction summaries: " + e.getMessage());
+            return null;
+        }
+    }
     
     @Override
     public Transaction getTransactionDetails(String transactionId) {
@@ -673,8 +812,7 @@ return txn;
             
             if (account == null) return false;
             
-            BigDecimal minBalance = "SAVINGS".equals(account.getAccountType()) 
-                ? MINIMUM_BALANCE_SAVINGS : MINIMUM_BALANCE_CURRENT;
+            BigDecimal minBalance = BankAccount.minimumBalance(account.getAccountType());
             
             return balance.subtract(amount).compareTo(minBalance) >= 0;
             
@@ -710,10 +848,9 @@ return txn;
     
     @Override
     public boolean validateTransactionLimits(String accountNumber, BigDecimal amount, String transferMethod) {
-        // Create a TransactionService instance if you don't have one
-        TransactionService transactionService = new TransactionServiceImpl(transactionDAO);
-        
-        // Check daily limits using the transaction service
+        // Check daily and monthly limits against the shared running counters
+        TransactionService transactionService = ServiceFactory.getTransactionService();
+
         return transactionService.checkDailyLimit(accountNumber, amount) && 
                transactionService.checkMonthlyLimit(accountNumber, amount);
     }
@@ -747,29 +884,18 @@ return txn;
     
     @Override
     public String generateAccountNumber() {
-        // Generate 12-digit account number starting with bank code
-        String bankCode = "1234";
-        Random random = new Random();
-        StringBuilder accountNumber = new StringBuilder(bankCode);
-        
-        for (int i = 0; i < 8; i++) {
-            accountNumber.append(random.nextInt(10));
-        }
-        
-        return accountNumber.toString();
+        // 13-digit account number: bank code, serial and Luhn check digit
+        return ServiceFactory.getIdentifierService().nextAccountNumber();
     }
     
     @Override
     public String generateTransactionId() {
-        return "TXN" + UUID.randomUUID().toString().replace("-", "").substring(0, 12).toUpperCase();
+        return TransactionIdGenerator.getInstance().nextTransactionId();
     }
     
     @Override
     public String generateTransactionRefNumber() {
-        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
-        Random random = new Random();
-        String randomNum = String.format("%04d", random.nextInt(10000));
-        return "REF" + timestamp + randomNum;
+        return TransactionIdGenerator.getInstance().nextRefNo();
     }
     
     @Override
@@ -848,8 +974,7 @@ return txn;
             if (account == null) return false;
             
             BigDecimal currentBalance = getAccountBalance(accountNumber);
-            BigDecimal minBalance = "SAVINGS".equals(account.getAccountType()) 
-                ? MINIMUM_BALANCE_SAVINGS : MINIMUM_BALANCE_CURRENT;
+            BigDecimal minBalance = BankAccount.minimumBalance(account.getAccountType());
             
             return currentBalance.compareTo(minBalance) >= 0;
             
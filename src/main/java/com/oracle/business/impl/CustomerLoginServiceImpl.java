@@ -8,9 +8,13 @@ import com.oracle.dao.OTPDAO;
 
 import jakarta.ws.rs.core.Response;
 
+import com.oracle.business.util.LoginThrottle;
+import com.oracle.business.util.PasswordHashing;
 import com.oracle.business.util.ServiceFactory;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -24,8 +28,8 @@ public class CustomerLoginServiceImpl implements CustomerLoginService {
     // You may want to use a secure password encoder instead of plain equals checks
     // For example, BCryptPasswordEncoder in Spring Security or similar
 
-    private static final int MAX_FAILED_ATTEMPTS = 3;
-    private static final int LOCK_DURATION_MINUTES = 30;
+    public static final int MAX_FAILED_ATTEMPTS = 3;
+    public static final int LOCK_DURATION_MINUTES = 30;
 
     public CustomerLoginServiceImpl() {
         this.customerLoginDAO = ServiceFactory.getCustomerLoginDAO();
@@ -104,6 +108,8 @@ public class CustomerLoginServiceImpl implements CustomerLoginService {
         private boolean success;
         private boolean locked;
         private LocalDateTime lockedUntil;
+        private boolean throttled;
+        private long retryAfterSeconds;
         private String message;
 		public boolean isSuccess() {
 			return success;
@@ -123,6 +129,18 @@ public class CustomerLoginServiceImpl implements CustomerLoginService {
 		public void setLockedUntil(LocalDateTime lockedUntil) {
 			this.lockedUntil = lockedUntil;
 		}
+		public boolean isThrottled() {
+			return throttled;
+		}
+		public void setThrottled(boolean throttled) {
+			this.throttled = throttled;
+		}
+		public long getRetryAfterSeconds() {
+			return retryAfterSeconds;
+		}
+		public void setRetryAfterSeconds(long retryAfterSeconds) {
+			this.retryAfterSeconds = retryAfterSeconds;
+		}
 		public String getMessage() {
 			return message;
 		}
@@ -135,6 +153,11 @@ public class CustomerLoginServiceImpl implements CustomerLoginService {
 
     @Override
     public AuthResult authenticate(String customerId, String password) {
+        return authenticate(customerId, password, null);
+    }
+
+    @Override
+    public AuthResult authenticate(String customerId, String password, String clientIp) {
         AuthResult result = new AuthResult();
         try {
             if (customerId == null || password == null) {
@@ -144,9 +167,17 @@ public class CustomerLoginServiceImpl implements CustomerLoginService {
                 return result;
             }
 
+            // 🚦 Throttle before any database work
+            LoginThrottle throttle = ServiceFactory.getLoginThrottle();
+            LoginThrottle.Decision decision = throttle.check(customerId, clientIp);
+            if (!decision.allowed()) {
+                return rejected(result, decision);
+            }
+
             CustomerLogin cl = customerLoginDAO.findByCustomerId(customerId);
             if (cl == null) {
                 logger.info("Authentication failed: customerId not found - " + customerId);
+                throttle.recordFailure(null, clientIp);
                 result.setSuccess(false);
                 result.setMessage("Customer ID not found");
                 return result;
@@ -157,6 +188,8 @@ public class CustomerLoginServiceImpl implements CustomerLoginService {
                 LocalDateTime lockedUntil = cl.getLockedUntil();
                 if (lockedUntil != null && lockedUntil.isAfter(LocalDateTime.now())) {
                     logger.warning("Account is locked for customerId: " + customerId);
+                    // Locked by another node: turn further attempts away before they reach the database
+                    throttle.blockCustomer(customerId, toMillis(lockedUntil));
                     result.setSuccess(false);
                     result.setLocked(true);
                     result.setLockedUntil(lockedUntil);
@@ -165,35 +198,53 @@ public class CustomerLoginServiceImpl implements CustomerLoginService {
                 } else {
                     // Lock expired -> unlock
                     customerLoginDAO.unlockAccount(cl.getCustomerId());
+                    ServiceFactory.getAccountUnlockScheduler().unlocked(cl.getCustomerId());
                     cl.setIsLocked("N");
                     cl.setLockedUntil(null);
+                    cl.setFailedLoginAttempts(0);
                 }
             }
-
-            // 🔑 Check password
-            boolean passwordMatches = password.equals(cl.getLoginPassword());
+            throttle.known(cl.getCustomerId(), cl.getFailedLoginAttempts());
+
+            // 🔑 Check password, on the bounded hashing pool
+            PasswordHashing hashing = ServiceFactory.getPasswordHashing();
+            String stored = cl.getLoginPassword();
+            PasswordHashing.Result verification = hashing.verify(password, stored);
+            if (verification == PasswordHashing.Result.BUSY) {
+                // Not the customer's fault: neither a failure nor a success
+                result.setSuccess(false);
+                result.setThrottled(true);
+                result.setRetryAfterSeconds(1);
+                result.setMessage("Too many login attempts, try again later");
+                return result;
+            }
+            boolean passwordMatches = verification == PasswordHashing.Result.MATCH
+                    || verification == PasswordHashing.Result.MATCH_NEEDS_REHASH;
 
             if (passwordMatches) {
-                customerLoginDAO.resetFailedLoginAttempts(cl.getCustomerId());
+                if (verification == PasswordHashing.Result.MATCH_NEEDS_REHASH) {
+                    String id = cl.getCustomerId();
+                    hashing.rehashLater(password, hash -> customerLoginDAO.rehashLoginPassword(id, stored, hash));
+                }
+                // The failure count is cleared with the throttle's next flush
+                throttle.recordSuccess(cl.getCustomerId());
                 customerLoginDAO.updateLastLogin(cl.getCustomerId(), LocalDateTime.now());
 
                 result.setSuccess(true);
                 result.setMessage("Login successful");
                 return result;
             } else {
-                customerLoginDAO.incrementFailedLoginAttempts(cl.getCustomerId());
-                int attempts = cl.getFailedLoginAttempts() != null ? cl.getFailedLoginAttempts() + 1 : 1;
+                LoginThrottle.Decision failure = throttle.recordFailure(cl.getCustomerId(), clientIp);
 
-                if (attempts >= MAX_FAILED_ATTEMPTS) {
-                    LocalDateTime lockUntil = LocalDateTime.now().plusMinutes(LOCK_DURATION_MINUTES);
-                    customerLoginDAO.lockAccount(cl.getCustomerId(), lockUntil);
+                if (failure.locking()) {
+                    LocalDateTime lockUntil = toLocalDateTime(failure.lockedUntilMillis());
+                    if (customerLoginDAO.lockAccount(cl.getCustomerId(), lockUntil)) {
+                        ServiceFactory.getAccountUnlockScheduler().lockedUntil(cl.getCustomerId(), lockUntil);
+                    }
                     logger.warning("Account locked due to too many failed login attempts: " + customerId);
-
-                    result.setSuccess(false);
-                    result.setLocked(true);
-                    result.setLockedUntil(lockUntil);
-                    result.setMessage("Account locked until " + lockUntil);
-                    return result;
+                }
+                if (failure.customerLocked()) {
+                    return rejected(result, failure);
                 }
 
                 result.setSuccess(false);
@@ -209,6 +260,34 @@ public class CustomerLoginServiceImpl implements CustomerLoginService {
         }
     }
 
+    private static boolean matches(String password, String stored) {
+        PasswordHashing.Result result = ServiceFactory.getPasswordHashing().verify(password, stored);
+        return result == PasswordHashing.Result.MATCH || result == PasswordHashing.Result.MATCH_NEEDS_REHASH;
+    }
+
+    private static AuthResult rejected(AuthResult result, LoginThrottle.Decision decision) {
+        result.setSuccess(false);
+        result.setRetryAfterSeconds(decision.retryAfterSeconds());
+        if (decision.customerLocked()) {
+            LocalDateTime lockedUntil = toLocalDateTime(decision.lockedUntilMillis());
+            result.setLocked(true);
+            result.setLockedUntil(lockedUntil);
+            result.setMessage("Account locked until " + lockedUntil);
+        } else {
+            result.setThrottled(true);
+            result.setMessage("Too many login attempts, try again later");
+        }
+        return result;
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime toLocalDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+
 
 
     @Override
@@ -234,7 +313,11 @@ public class CustomerLoginServiceImpl implements CustomerLoginService {
     @Override
     public boolean lockAccount(String customerId, LocalDateTime lockedUntil) {
         try {
-            return customerLoginDAO.lockAccount(customerId, lockedUntil);
+            boolean locked = customerLoginDAO.lockAccount(customerId, lockedUntil);
+            if (locked) {
+                ServiceFactory.getAccountUnlockScheduler().lockedUntil(customerId, lockedUntil);
+            }
+            return locked;
         } catch (Exception e) {
             logger.log(Level.SEVERE, "Error locking account for: " + customerId, e);
             return false;
@@ -244,7 +327,12 @@ public class CustomerLoginServiceImpl implements CustomerLoginService {
     @Override
     public boolean unlockAccount(String customerId) {
         try {
-            return customerLoginDAO.unlockAccount(customerId);
+            boolean unlocked = customerLoginDAO.unlockAccount(customerId);
+            if (unlocked) {
+                ServiceFactory.getAccountUnlockScheduler().unlocked(customerId);
+                ServiceFactory.getLoginThrottle().clearCustomer(customerId);
+            }
+            return unlocked;
         } catch (Exception e) {
             logger.log(Level.SEVERE, "Error unlocking account for: " + customerId, e);
             return false;
@@ -279,12 +367,11 @@ public class CustomerLoginServiceImpl implements CustomerLoginService {
                 logger.warning("CustomerLogin not found for password change: " + customerId);
                 return false;
             }
-            // Check old password match, again apply secure hashing in real apps
-            if (!oldPassword.equals(cl.getLoginPassword())) {
+            if (!matches(oldPassword, cl.getLoginPassword())) {
                 logger.warning("Old password does not match for: " + customerId);
                 return false;
             }
-            return customerLoginDAO.updateLoginPassword(customerId, newPassword);
+            return customerLoginDAO.updateLoginPassword(customerId, ServiceFactory.getPasswordHashing().hash(newPassword));
         } catch (Exception e) {
             logger.log(Level.SEVERE, "Error changing login password for: " + customerId, e);
             return false;
@@ -299,11 +386,12 @@ public class CustomerLoginServiceImpl implements CustomerLoginService {
                 logger.warning("CustomerLogin not found for transaction password change: " + customerId);
                 return false;
             }
-            if (!oldPassword.equals(cl.getTransactionPassword())) {
+            if (!matches(oldPassword, cl.getTransactionPassword())) {
                 logger.warning("Old transaction password does not match for: " + customerId);
                 return false;
             }
-            return customerLoginDAO.updateTransactionPassword(customerId, newPassword);
+            return customerLoginDAO.updateTransactionPassword(customerId,
+                    ServiceFactory.getPasswordHashing().hash(newPassword));
         } catch (Exception e) {
             logger.log(Level.SEVERE, "Error changing transaction password for: " + customerId, e);
             return false;
@@ -348,7 +436,7 @@ public class CustomerLoginServiceImpl implements CustomerLoginService {
                 logger.warning("CustomerLogin not found for update password: " + customerId);
                 return false;
             }
-            return customerLoginDAO.updateLoginPassword(customerId, newPassword);
+            return customerLoginDAO.updateLoginPassword(customerId, ServiceFactory.getPasswordHashing().hash(newPassword));
         } catch (Exception e) {
             logger.log(Level.SEVERE, "Error updating login password for: " + customerId, e);
             return false;
@@ -363,7 +451,8 @@ public class CustomerLoginServiceImpl implements CustomerLoginService {
                 logger.warning("CustomerLogin not found for update password: " + customerId);
                 return false;
             }
-            return customerLoginDAO.updateTransactionPassword(customerId, newPassword);
+            return customerLoginDAO.updateTransactionPassword(customerId,
+                    ServiceFactory.getPasswordHashing().hash(newPassword));
         } catch (Exception e) {
             logger.log(Level.SEVERE, "Error updating login password for: " + customerId, e);
             return false;
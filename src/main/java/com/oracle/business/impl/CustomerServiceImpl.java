@@ -2,6 +2,7 @@
 package com.oracle.business.impl;
 
 import com.oracle.beans.Customer;
+import com.oracle.beans.dto.CustomerSummary;
 import com.oracle.dao.CustomerDAO;
 import com.oracle.business.CustomerService;
 import com.oracle.business.util.ServiceFactory;
@@ -245,6 +246,16 @@ public class CustomerServiceImpl implements CustomerService {
             return null;
         }
     }
+
+    @Override
+    public List<CustomerSummary> getAllCustomerSummaries() {
+        try {
+            return customerDAO.findAllCustomerSummaries();
+        } catch (Exception e) {
+            logger.severe("Error getting customer summaries: " + e.getMessage());
+            return null;
+        }
+    }
     
     @Override
     public List<Customer> getActiveCustomers() {
@@ -316,8 +327,8 @@ public class CustomerServiceImpl implements CustomerService {
     
     @Override
     public String generateCustomerId() {
-        // Generate customer ID with format: CUST + timestamp + random
-        return "CUST" + System.currentTimeMillis() + (int)(Math.random() * 1000);
+        // Generate customer ID with format: CUST + serial + check digit
+        return ServiceFactory.getIdentifierService().nextCustomerId();
     }
     
     @Override
@@ -0,0 +1,138 @@
+package com.oracle.business.impl;
+
+import com.oracle.business.IdentifierService;
+import com.oracle.dao.SequenceDAO;
+
+import java.util.logging.Logger;
+
+/**
+ * Hi/lo identifier service.
+ *
+ * Each call to a database sequence (the "hi" value) reserves a block of
+ * BLOCK_SIZE serials; a thread hands serials out of its own block without any
+ * locking and only goes back to the database when the block is used up. Serials
+ * are therefore unique across threads and nodes sharing the sequence, and bulk
+ * onboarding costs one round trip per block rather than per identifier.
+ *
+ * Expects ACCOUNT_NUMBER_SEQ and CUSTOMER_ID_SEQ to exist, each starting at 1
+ * with an increment of 1 (see db/identifier_sequences.sql). Serials left in a
+ * block when a thread or node stops are skipped, never reused.
+ *
+ * Identifiers issued before this service were random, so new ones are kept out
+ * of their space by length rather than by value: legacy account numbers are 12
+ * digits (1234 and 8 random digits) and new ones 13, legacy customer ids have at
+ * least 14 digits after CUST and new ones 11.
+ *
+ * Each kind has a fixed range of serials, 10^8 account numbers and 10^10
+ * customer ids. A warning is logged for each block past 90% of the range, and
+ * asking for an identifier past its end fails with IllegalStateException rather
+ * than widening the format.
+ */
+public class IdentifierServiceImpl implements IdentifierService {
+
+    private static final Logger logger = Logger.getLogger(IdentifierServiceImpl.class.getName());
+
+    static final String ACCOUNT_NUMBER_SEQUENCE = "ACCOUNT_NUMBER_SEQ";
+    static final String CUSTOMER_ID_SEQUENCE = "CUSTOMER_ID_SEQ";
+
+    private static final int BLOCK_SIZE = Integer.getInteger("banking.identifier.blockSize", 100);
+
+    private static final String BANK_CODE = "1234";
+    private static final int ACCOUNT_SERIAL_DIGITS = 8;
+    private static final int CUSTOMER_SERIAL_DIGITS = 10;
+
+    private final SequenceDAO sequenceDAO;
+    private final ThreadLocal<Block> accountBlocks = ThreadLocal.withInitial(Block::new);
+    private final ThreadLocal<Block> customerBlocks = ThreadLocal.withInitial(Block::new);
+
+    // Serials [next, end) reserved for the owning thread
+    private static class Block {
+        long next;
+        long end;
+    }
+
+    public IdentifierServiceImpl(SequenceDAO sequenceDAO) {
+        this.sequenceDAO = sequenceDAO;
+    }
+
+    @Override
+    public String nextAccountNumber() {
+        long serial = nextSerial(accountBlocks.get(), ACCOUNT_NUMBER_SEQUENCE, ACCOUNT_SERIAL_DIGITS);
+        return withCheckDigit(BANK_CODE + pad(serial, ACCOUNT_SERIAL_DIGITS));
+    }
+
+    @Override
+    public String nextCustomerId() {
+        long serial = nextSerial(customerBlocks.get(), CUSTOMER_ID_SEQUENCE, CUSTOMER_SERIAL_DIGITS);
+        return "CUST" + withCheckDigit(pad(serial, CUSTOMER_SERIAL_DIGITS));
+    }
+
+    @Override
+    public boolean isValid(String identifier) {
+        if (identifier == null) {
+            return false;
+        }
+        String digits = identifier.startsWith("CUST") ? identifier.substring(4) : identifier;
+        if (digits.length() < 2 || !digits.chars().allMatch(Character::isDigit)) {
+            return false;
+        }
+        String payload = digits.substring(0, digits.length() - 1);
+        return luhnCheckDigit(payload) == digits.charAt(digits.length() - 1) - '0';
+    }
+
+    private long nextSerial(Block block, String sequenceName, int digits) {
+        if (block.next >= block.end) {
+            // Sequence value n owns serials [(n - 1) * BLOCK_SIZE, n * BLOCK_SIZE)
+            long hi = sequenceDAO.nextValue(sequenceName);
+            block.next = (hi - 1) * BLOCK_SIZE;
+            block.end = block.next + BLOCK_SIZE;
+            // Serial 0 is never issued so an all-zero identifier cannot appear
+            if (block.next == 0) {
+                block.next = 1;
+            }
+            if (block.next >= pow10(digits) / 10 * 9 && block.next < pow10(digits)) {
+                logger.warning(sequenceName + " has used over 90% of its " + digits + "-digit serial range");
+            }
+        }
+        long serial = block.next++;
+        if (serial >= pow10(digits)) {
+            logger.severe("Identifier range exhausted for " + sequenceName);
+            throw new IllegalStateException("Identifier range exhausted for " + sequenceName);
+        }
+        return serial;
+    }
+
+    private static String withCheckDigit(String payload) {
+        return payload + luhnCheckDigit(payload);
+    }
+
+    /**
+     * Luhn check digit: doubling every second digit from the right catches any
+     * single mistyped digit and most swaps of adjacent digits
+     */
+    static int luhnCheckDigit(String payload) {
+        int sum = 0;
+        boolean doubled = true;
+        for (int i = payload.length() - 1; i >= 0; i--) {
+            int digit = payload.charAt(i) - '0';
+            if (doubled) {
+                digit *= 2;
+                if (digit > 9) digit -= 9;
+            }
+            sum += digit;
+            doubled = !doubled;
+        }
+        return (10 - sum % 10) % 10;
+    }
+
+    private static String pad(long serial, int digits) {
+        String value = Long.toString(serial);
+        return "0".repeat(digits - value.length()) + value;
+    }
+
+    private static long pow10(int digits) {
+        long value = 1;
+        for (int i = 0; i < digits; i++) value *= 10;
+        return value;
+    }
+}
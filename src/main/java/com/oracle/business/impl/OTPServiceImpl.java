@@ -3,6 +3,7 @@ package com.oracle.business.impl;
 import com.oracle.beans.OtpRequest;
 import com.oracle.business.OTPService;
 import com.oracle.dao.OTPDAO;
+import com.oracle.business.util.ExpiryScheduler;
 import com.oracle.business.util.ServiceFactory;
 
 import java.time.LocalDateTime;
@@ -15,10 +16,17 @@ import java.util.logging.Level;
 public class OTPServiceImpl implements OTPService {
 
     private static final Logger logger = Logger.getLogger(OTPServiceImpl.class.getName());
+    static final String EXPIRY_KIND = "otp";
+    // How long an OTP stays valid, -Dbanking.otp.validityMinutes
+    private static final long VALIDITY_MINUTES = Long.getLong("banking.otp.validityMinutes", 100000000L);
     private OTPDAO otpDAO;
+    private ExpiryScheduler expiry;
 
     public OTPServiceImpl() {
         this.otpDAO = ServiceFactory.getOTPDAO();
+        this.expiry = ServiceFactory.getExpiryScheduler();
+        // Unused OTPs are marked expired in bulk when they run out; verification checks expiresAt itself
+        expiry.register(EXPIRY_KIND, otpIds -> otpDAO.expireOTPs(otpIds));
     }
 
     @Override
@@ -41,13 +49,14 @@ public class OTPServiceImpl implements OTPService {
         otpRequest.setOtpCode(otpCode);
         otpRequest.setPurpose(purpose);
         otpRequest.setGeneratedAt(LocalDateTime.now());
-        otpRequest.setExpiresAt(LocalDateTime.now().plusMinutes(100000000));
+        otpRequest.setExpiresAt(LocalDateTime.now().plusMinutes(VALIDITY_MINUTES));
         otpRequest.setIsUsed("N");
         otpRequest.setVerificationAttempts(0);
         otpRequest.setIpAddress(ipAddress);
 
         boolean saved = otpDAO.saveOTP(otpRequest);
         if (saved) {
+            expiry.schedule(EXPIRY_KIND, otpRequest.getOtpId(), otpRequest.getExpiresAt());
             return otpCode;  // return the generated OTP
         } else {
             return null;  // or throw exception
@@ -4,6 +4,7 @@ import com.oracle.beans.Session;
 import com.oracle.business.SessionService;
 import com.oracle.dao.SessionDAO;
 import com.oracle.business.util.ServiceFactory;
+import com.oracle.business.util.SessionStore;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
@@ -15,9 +16,12 @@ public class SessionServiceImpl implements SessionService {
 
     private static final Logger logger = Logger.getLogger(SessionServiceImpl.class.getName());
     private SessionDAO sessionDAO;
+    // Live sessions; the DAO is only used directly for admin queries
+    private SessionStore sessionStore;
 
     public SessionServiceImpl() {
         this.sessionDAO = ServiceFactory.getSessionDAO();
+        this.sessionStore = ServiceFactory.getSessionStore();
     }
 
     @Override
@@ -27,7 +31,7 @@ public class SessionServiceImpl implements SessionService {
                 logger.warning("Attempted to save null session");
                 return false;
             }
-            return sessionDAO.saveSession(session);
+            return sessionStore.create(session);
         } catch (Exception e) {
             logger.log(Level.SEVERE, "Error saving session", e);
             return false;
@@ -41,7 +45,7 @@ public class SessionServiceImpl implements SessionService {
                 logger.warning("Attempted to update null session");
                 return false;
             }
-            return sessionDAO.updateSession(session);
+            return sessionStore.update(session);
         } catch (Exception e) {
             logger.log(Level.SEVERE, "Error updating session", e);
             return false;
@@ -55,13 +59,27 @@ public class SessionServiceImpl implements SessionService {
                 logger.warning("Session ID is null or empty");
                 return null;
             }
-            return sessionDAO.getSession(sessionId);
+            return sessionStore.get(sessionId);
         } catch (Exception e) {
             logger.log(Level.SEVERE, "Error retrieving session by id: " + sessionId, e);
             return null;
         }
     }
 
+    @Override
+    public boolean touchSession(String sessionId) {
+        try {
+            if (sessionId == null || sessionId.isEmpty()) {
+                logger.warning("Session ID is null or empty");
+                return false;
+            }
+            return sessionStore.touch(sessionId);
+        } catch (Exception e) {
+            logger.log(Level.SEVERE, "Error touching session: " + sessionId, e);
+            return false;
+        }
+    }
+
     @Override
     public boolean deleteSession(String sessionId) {
         try {
@@ -69,7 +87,7 @@ public class SessionServiceImpl implements SessionService {
                 logger.warning("Session ID is null or empty");
                 return false;
             }
-            return sessionDAO.deleteSession(sessionId);
+            return sessionStore.delete(sessionId);
         } catch (Exception e) {
             logger.log(Level.SEVERE, "Error deleting session with id: " + sessionId, e);
             return false;
@@ -119,7 +137,7 @@ public class SessionServiceImpl implements SessionService {
                 logger.warning("User ID is null or empty");
                 return false;
             }
-            return sessionDAO.deleteAllUserSessions(customerId);
+            return sessionStore.deleteAllForUser(customerId);
         } catch (Exception e) {
             logger.log(Level.SEVERE, "Error deleting all sessions for user: " + customerId, e);
             return false;
@@ -129,7 +147,7 @@ public class SessionServiceImpl implements SessionService {
     @Override
     public long getActiveSessionCount() {
         try {
-            return sessionDAO.getActiveSessionCount();
+            return sessionStore.activeCount();
         } catch (Exception e) {
             logger.log(Level.SEVERE, "Error retrieving active session count", e);
             return 0L;
@@ -3,16 +3,18 @@ package com.oracle.business.impl;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.Collections;
+import java.time.YearMonth;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import com.oracle.beans.BankAccount;
 import com.oracle.beans.Transaction;
 import com.oracle.dao.TransactionDAO;
+import com.oracle.dao.util.TransactionIdGenerator;
 import com.oracle.business.TransactionService;
+import com.oracle.business.util.OutflowCounters;
+import com.oracle.business.util.ServiceFactory;
 
 public class TransactionServiceImpl implements TransactionService {
     
@@ -38,11 +40,18 @@ public class TransactionServiceImpl implements TransactionService {
                 return false;
             }
             
-            // Check business rules
-            if (!verifyTransactionLimits(transaction.getFromAccountNumber(), transaction.getAmount())) {
+            // Check business rules; an outflow also reserves its amount against the limits
+            OutflowCounters.Reservation reservation = null;
+            if (isOutflow(transaction) && transaction.getFromAccountNumber() != null
+                    && !transaction.getFromAccountNumber().isEmpty()) {
+                reservation = reserveOutflow(transaction.getFromAccountNumber(), transaction.getAmount());
+                if (reservation == null) {
+                    System.out.println("Transaction limit exceeded for account: " + transaction.getFromAccountNumber());
+                    return false;
+                }
+            } else if (!verifyTransactionLimits(transaction.getFromAccountNumber(), transaction.getAmount())) {
                 return false;
             }
-
             
             // Generate transaction reference if not present
             if (transaction.getTransactionRefNo() == null || transaction.getTransactionRefNo().isEmpty()) {
@@ -53,7 +62,15 @@ public class TransactionServiceImpl implements TransactionService {
             transaction.setTransactionDate(LocalDateTime.now());
             
             // Process the transaction
-            return transactionDAO.createTransaction(transaction);
+            boolean created = false;
+            try {
+                created = transactionDAO.createTransactionAsync(transaction).join();
+            } finally {
+                if (!created && reservation != null) {
+                    releaseOutflow(reservation);
+                }
+            }
+            return created;
             
         } catch (Exception e) {
             System.err.println("Error processing transaction: " + e.getMessage());
@@ -243,80 +260,63 @@ public class TransactionServiceImpl implements TransactionService {
    
     @Override
     public BigDecimal calculateDailyTransactionTotal(String accountNumber, LocalDate date) {
-        LocalDateTime startOfDay = date.atStartOfDay();
-        LocalDateTime endOfDay = date.atTime(23, 59, 59);
+        // The running counters cover today; any other day is a single SUM query
+        if (date.equals(LocalDate.now())) {
+            return outflowCounters().getDailyTotal(accountNumber, date);
+        }
+        return transactionDAO.sumOutflows(accountNumber, date.atStartOfDay(), date.plusDays(1).atStartOfDay());
+    }
 
-        // Get all transactions for the date range first
-        List<Transaction> allTransactions = transactionDAO.findTransactionsByDateRange(startOfDay, endOfDay);
-        if (allTransactions == null) {
-            allTransactions = Collections.emptyList();
+    
+    @Override
+    public BigDecimal calculateMonthlyTransactionTotal(String accountNumber, int month, int year) {
+        YearMonth yearMonth = YearMonth.of(year, month);
+        if (yearMonth.equals(YearMonth.now())) {
+            return outflowCounters().getMonthlyTotal(accountNumber, yearMonth);
+        }
+        LocalDateTime startOfMonth = yearMonth.atDay(1).atStartOfDay();
+        return transactionDAO.sumOutflows(accountNumber, startOfMonth, startOfMonth.plusMonths(1));
+    }
+    
+    @Override
+    public void recordOutflow(Transaction transaction) {
+        if (isOutflow(transaction)) {
+            outflowCounters().record(transaction.getFromAccountNumber(), transaction.getAmount(),
+                                     transaction.getTransactionDate());
         }
+    }
 
-        System.out.println("DEBUG: Found " + allTransactions.size() + " transactions for date " + date);
+    @Override
+    public OutflowCounters.Reservation reserveOutflow(String accountNumber, BigDecimal amount) {
+        OutflowCounters.Reservation reservation = outflowCounters().reserve(accountNumber, amount, LocalDate.now(),
+                DAILY_TRANSACTION_LIMIT, MONTHLY_TRANSACTION_LIMIT);
+        if (reservation == null) {
+            System.out.println("LIMIT EXCEEDED: " + amount + " from " + accountNumber
+                    + " would exceed the daily limit of " + DAILY_TRANSACTION_LIMIT
+                    + " or the monthly limit of " + MONTHLY_TRANSACTION_LIMIT);
+        }
+        return reservation;
+    }
 
-        // Filter for outgoing transactions from the specific account
-        BigDecimal dailyTotal = allTransactions.stream()
-            .filter(t -> {
-                // Check if this is an outgoing transaction from the account
-                boolean isFromAccount = (t.getFromAccountNumber() != null && accountNumber.equals(t.getFromAccountNumber())) ||
-                                       (t.getFromAccount() != null && accountNumber.equals(t.getFromAccount().getAccountNumber()));
-                
-                // Check transaction type - count TRANSFER, DEBIT, and outgoing transactions
-                boolean isOutgoingTransaction = "TRANSFER".equalsIgnoreCase(t.getTransactionType()) || 
-                                              "DEBIT".equalsIgnoreCase(t.getTransactionType()) ||
-                                              "NEFT".equalsIgnoreCase(t.getTransferMethod()) ||
-                                              "RTGS".equalsIgnoreCase(t.getTransferMethod()) ||
-                                              "IMPS".equalsIgnoreCase(t.getTransferMethod());
-                
-                // Check status - only count successful/completed transactions
-                boolean isSuccessful = "SUCCESS".equalsIgnoreCase(t.getStatus()) || 
-                                     "COMPLETED".equalsIgnoreCase(t.getStatus());
-                
-                boolean shouldCount = isFromAccount && isOutgoingTransaction && isSuccessful;
-                
-                if (shouldCount) {
-                    System.out.println("DEBUG: Counting transaction: " + t.getTransactionId() + 
-                                     " Amount: " + t.getAmount() + 
-                                     " Type: " + t.getTransactionType() + 
-                                     " Status: " + t.getStatus());
-                }
-                
-                return shouldCount;
-            })
-            .map(Transaction::getAmount)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
+    @Override
+    public void releaseOutflow(OutflowCounters.Reservation reservation) {
+        if (reservation != null) {
+            outflowCounters().release(reservation);
+        }
+    }
 
-        System.out.println("DEBUG: Daily total for account " + accountNumber + " on " + date + " is " + dailyTotal);
-        return dailyTotal;
+    // Whether the row counts towards the account's outgoing totals
+    private static boolean isOutflow(Transaction transaction) {
+        return TransactionDAO.OUTFLOW_TYPES.contains(upper(transaction.getTransactionType()))
+                && TransactionDAO.COMPLETED_STATUSES.contains(upper(transaction.getStatus()));
     }
 
+    private static String upper(String value) {
+        return value != null ? value.toUpperCase() : null;
+    }
     
-    @Override
-    public BigDecimal calculateMonthlyTransactionTotal(String accountNumber, int month, int year) {
-        LocalDateTime startOfMonth = LocalDateTime.of(year, month, 1, 0, 0, 0);
-        LocalDateTime endOfMonth = startOfMonth.plusMonths(1).minusSeconds(1);
-        
-        List<Transaction> allTransactions = transactionDAO.findTransactionsByDateRange(startOfMonth, endOfMonth);
-        if (allTransactions == null) {
-            allTransactions = Collections.emptyList();
-        }
-        
-        return allTransactions.stream()
-            .filter(t -> {
-                // Check if this is an outgoing transaction from the account
-                boolean isFromAccount = (t.getFromAccountNumber() != null && accountNumber.equals(t.getFromAccountNumber())) ||
-                                       (t.getFromAccount() != null && accountNumber.equals(t.getFromAccount().getAccountNumber()));
-                
-                // Check transaction type and status
-                boolean isOutgoingTransaction = "TRANSFER".equalsIgnoreCase(t.getTransactionType()) || 
-                                              "DEBIT".equalsIgnoreCase(t.getTransactionType());
-                boolean isSuccessful = "SUCCESS".equalsIgnoreCase(t.getStatus()) || 
-                                     "COMPLETED".equalsIgnoreCase(t.getStatus());
-                
-                return isFromAccount && isOutgoingTransaction && isSuccessful;
-            })
-            .map(Transaction::getAmount)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
+    private OutflowCounters outflowCounters() {
+        return ServiceFactory.getOutflowCounters();
     }
     
     // Validation and verification operations
@@ -386,12 +386,6 @@ public class TransactionServiceImpl implements TransactionService {
         BigDecimal dailyTotal = calculateDailyTransactionTotal(accountNumber, LocalDate.now());
         BigDecimal newTotal = dailyTotal.add(amount);
         
-        System.out.println("DEBUG: Account: " + accountNumber + 
-                          " Current daily total: " + dailyTotal + 
-                          " Transaction amount: " + amount + 
-                          " New total: " + newTotal + 
-                          " Limit: " + DAILY_TRANSACTION_LIMIT);
-        
         boolean withinLimit = newTotal.compareTo(DAILY_TRANSACTION_LIMIT) <= 0;
         
         if (!withinLimit) {
@@ -447,9 +441,7 @@ public class TransactionServiceImpl implements TransactionService {
     
     @Override
     public String generateTransactionReference() {
-        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
-        String uuid = UUID.randomUUID().toString().substring(0, 8).toUpperCase();
-        return "TXN" + timestamp + uuid;
+        return TransactionIdGenerator.getInstance().nextRefNo();
     }
     
     // Reporting operations
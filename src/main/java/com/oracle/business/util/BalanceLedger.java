@@ -0,0 +1,435 @@
+package com.oracle.business.util;
+
+import com.oracle.beans.BankAccount;
+import com.oracle.beans.Transaction;
+import com.oracle.dao.BankAccountDAO;
+import com.oracle.dao.TransactionDAO;
+import com.oracle.dao.TransferDAO;
+import com.oracle.dao.util.TransactionIdGenerator;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * In-process account balance ledger.
+ *
+ * Balances are held in memory and guarded by a fixed set of lock stripes keyed by
+ * account number. Debits and credits are journalled, applied in memory and then
+ * written to bank_accounts and transactions by a background write-behind flush,
+ * one database transaction per batch.
+ *
+ * The ledger is authoritative for the accounts it holds, so it must only be enabled
+ * on the single node that owns writes for those accounts.
+ *
+ * Each held balance carries the account type and active flag, so that a movement is
+ * checked against the minimum balance and the account status while its stripes are
+ * held; status changes made through the service are passed in with setActive.
+ *
+ * At most banking.ledger.maxBalances balances (default 100000) are kept once
+ * written: after a flush, balances with nothing pending are dropped until a quarter
+ * of the room is free again, and are read from the database when next used.
+ */
+public class BalanceLedger {
+
+    private static final Logger logger = Logger.getLogger(BalanceLedger.class.getName());
+    private static final int STRIPES = 64;
+
+    private final BankAccountDAO bankAccountDAO;
+    private final TransferDAO transferDAO;
+    private final TransactionDAO transactionDAO;
+    private final TransferJournal journal;
+
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+    private final Map<String, Held> balances = new ConcurrentHashMap<>();
+    private final int maxBalances = Integer.getInteger("banking.ledger.maxBalances", 100000);
+
+    // Guarded by pendingLock, which is taken after any stripe locks. Movements on different
+    // stripes add to them at the same time; the flush also holds every stripe while it takes
+    // them, so that a batch and the journal segment it rolls hold the same movements.
+    private final ReentrantLock pendingLock = new ReentrantLock();
+    private final List<Transaction> pendingEntries = new ArrayList<>();
+    private final Set<String> dirtyAccounts = new LinkedHashSet<>();
+
+    // Only touched by the flush thread
+    private final List<Path> unflushedSegments = new ArrayList<>();
+
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "balance-ledger-flush");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public BalanceLedger(BankAccountDAO bankAccountDAO, TransferDAO transferDAO, TransactionDAO transactionDAO,
+                         Path journalDirectory, long flushIntervalMillis) throws IOException {
+        this.bankAccountDAO = bankAccountDAO;
+        this.transferDAO = transferDAO;
+        this.transactionDAO = transactionDAO;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.journal = new TransferJournal(journalDirectory);
+        recover();
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Current balance of an account, loaded from the database on first use
+     * @return the balance, or null if the account does not exist
+     */
+    public BigDecimal getBalance(String accountNumber) {
+        Held held = balances.get(accountNumber);
+        if (held != null) {
+            return held.balance();
+        }
+        ReentrantLock lock = stripes[stripeIndex(accountNumber)];
+        lock.lock();
+        try {
+            held = load(accountNumber);
+            return held != null ? held.balance() : null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Record an account's new status; movements on an inactive account are refused
+     */
+    public void setActive(String accountNumber, boolean active) {
+        ReentrantLock lock = stripes[stripeIndex(accountNumber)];
+        lock.lock();
+        try {
+            // An account not held is read with its current status when next used
+            balances.computeIfPresent(accountNumber, (number, held) -> held.withActive(active));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Move funds between two accounts
+     * @return true if the transfer was journalled and applied
+     */
+    public boolean transfer(String fromAccount, String toAccount, BigDecimal amount,
+                            Transaction debitTransaction, Transaction creditTransaction) {
+        TransferJournal.Entry entry = new TransferJournal.Entry(TransferJournal.Entry.TRANSFER,
+                debitTransaction.getTransactionId(), creditTransaction.getTransactionId(),
+                debitTransaction.getTransactionRefNo(), fromAccount, toAccount, amount,
+                debitTransaction.getTransferMethod(), debitTransaction.getRemarks(), now());
+        return apply(entry, debitTransaction, creditTransaction, true);
+    }
+
+    /**
+     * Credit a single account
+     */
+    public boolean credit(String accountNumber, BigDecimal amount, Transaction creditTransaction) {
+        TransferJournal.Entry entry = new TransferJournal.Entry(TransferJournal.Entry.CREDIT,
+                null, creditTransaction.getTransactionId(), creditTransaction.getTransactionRefNo(),
+                null, accountNumber, amount, creditTransaction.getTransferMethod(),
+                creditTransaction.getRemarks(), now());
+        return apply(entry, null, creditTransaction, true);
+    }
+
+    /**
+     * Debit a single account
+     */
+    public boolean debit(String accountNumber, BigDecimal amount, Transaction debitTransaction) {
+        TransferJournal.Entry entry = new TransferJournal.Entry(TransferJournal.Entry.DEBIT,
+                debitTransaction.getTransactionId(), null, debitTransaction.getTransactionRefNo(),
+                accountNumber, null, amount, debitTransaction.getTransferMethod(),
+                debitTransaction.getRemarks(), now());
+        return apply(entry, debitTransaction, null, true);
+    }
+
+    /**
+     * Write every pending balance change and ledger row to the database in one transaction
+     * @return true if nothing was pending or the batch committed
+     */
+    public synchronized boolean flush() throws IOException {
+        List<Transaction> entries;
+        Map<String, BigDecimal> snapshot = new HashMap<>();
+
+        lockAll();
+        pendingLock.lock();
+        try {
+            if (pendingEntries.isEmpty() && dirtyAccounts.isEmpty()) {
+                evictCleanBalances();
+                return true;
+            }
+            entries = new ArrayList<>(pendingEntries);
+            pendingEntries.clear();
+            for (String accountNumber : dirtyAccounts) {
+                snapshot.put(accountNumber, balances.get(accountNumber).balance());
+            }
+            dirtyAccounts.clear();
+            // Everything journalled so far is in this batch, so the segment can go once it commits
+            unflushedSegments.add(journal.roll());
+        } finally {
+            pendingLock.unlock();
+            unlockAll();
+        }
+
+        if (transferDAO.applyLedgerBatch(snapshot, entries)) {
+            for (Path segment : unflushedSegments) {
+                journal.discard(segment);
+            }
+            unflushedSegments.clear();
+            evictCleanBalances();
+            return true;
+        }
+
+        // Put the batch back in front of anything applied meanwhile and retry on the next tick
+        pendingLock.lock();
+        try {
+            pendingEntries.addAll(0, entries);
+            dirtyAccounts.addAll(snapshot.keySet());
+        } finally {
+            pendingLock.unlock();
+        }
+        logger.warning("Balance ledger flush failed, " + entries.size() + " entries will be retried");
+        return false;
+    }
+
+    /**
+     * Stop the write-behind thread after a final flush
+     */
+    public void shutdown() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(10, TimeUnit.SECONDS);
+            flush();
+            journal.close();
+        } catch (Exception e) {
+            logger.log(Level.SEVERE, "Error shutting down balance ledger", e);
+        }
+    }
+
+    // checkRules is false when replaying the journal: those movements were accepted
+    // before the crash, and only a shortfall of funds drops one
+    private boolean apply(TransferJournal.Entry entry, Transaction debitTransaction,
+                          Transaction creditTransaction, boolean checkRules) {
+        String from = entry.getFromAccount();
+        String to = entry.getToAccount();
+        BigDecimal amount = entry.getAmount();
+
+        // Take the stripes in index order so two transfers can never deadlock
+        int a = stripeIndex(from != null ? from : to);
+        int b = stripeIndex(to != null ? to : from);
+        ReentrantLock first = stripes[Math.min(a, b)];
+        ReentrantLock second = stripes[Math.max(a, b)];
+        first.lock();
+        if (second != first) second.lock();
+        try {
+            Held source = from != null ? load(from) : null;
+            Held destination = to != null ? load(to) : null;
+            if ((from != null && source == null) || (to != null && destination == null)) {
+                logger.warning("Account not found in ledger: " + (from != null && source == null ? from : to));
+                return false;
+            }
+            if (checkRules && ((source != null && !source.active()) || (destination != null && !destination.active()))) {
+                logger.warning("Account not active in ledger: "
+                        + (source != null && !source.active() ? from : to));
+                return false;
+            }
+            if (source != null) {
+                BigDecimal floor = checkRules ? BankAccount.minimumBalance(source.accountType()) : BigDecimal.ZERO;
+                if (source.balance().subtract(amount).compareTo(floor) < 0) {
+                    logger.warning("Insufficient balance in ledger: " + from);
+                    return false;
+                }
+            }
+            BigDecimal fromBalance = source != null ? source.balance() : null;
+            BigDecimal toBalance = destination != null ? destination.balance() : null;
+
+            journal.append(entry);
+
+            if (from != null) {
+                balances.put(from, source.withBalance(fromBalance.subtract(amount)));
+                debitTransaction.setOpeningBalance(fromBalance);
+                debitTransaction.setClosingBalance(fromBalance.subtract(amount));
+            }
+            if (to != null) {
+                balances.put(to, destination.withBalance(toBalance.add(amount)));
+                creditTransaction.setOpeningBalance(toBalance);
+                creditTransaction.setClosingBalance(toBalance.add(amount));
+            }
+            pendingLock.lock();
+            try {
+                if (from != null) {
+                    dirtyAccounts.add(from);
+                    pendingEntries.add(debitTransaction);
+                }
+                if (to != null) {
+                    dirtyAccounts.add(to);
+                    pendingEntries.add(creditTransaction);
+                }
+            } finally {
+                pendingLock.unlock();
+            }
+            return true;
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Could not journal movement " + entry.getTransactionRefNo(), e);
+            return false;
+        } finally {
+            if (second != first) second.unlock();
+            first.unlock();
+        }
+    }
+
+    /**
+     * Re-apply journalled movements whose ledger rows never reached the database
+     */
+    private void recover() throws IOException {
+        List<Path> leftovers = journal.closedSegments();
+        if (leftovers.isEmpty()) {
+            return;
+        }
+        int replayed = 0;
+        for (Path segment : leftovers) {
+            for (TransferJournal.Entry entry : journal.read(segment)) {
+                if (transactionDAO.transactionExists(entry.getPrimaryTransactionId())) {
+                    continue;
+                }
+                Transaction debit = entry.getDebitTransactionId() != null ? rebuild(entry, "DEBIT") : null;
+                Transaction credit = entry.getCreditTransactionId() != null ? rebuild(entry, "CREDIT") : null;
+                if (apply(entry, debit, credit, false)) {
+                    replayed++;
+                } else {
+                    // Never reached the database and no longer valid, so it is dropped rather than finished
+                    logger.severe("Journalled movement rolled back on recovery: " + entry.getTransactionRefNo());
+                }
+            }
+        }
+        if (!flush()) {
+            throw new IOException("Could not write recovered journal entries to the database");
+        }
+        for (Path segment : leftovers) {
+            journal.discard(segment);
+        }
+        logger.info("Balance ledger recovered " + replayed + " journalled movements");
+    }
+
+    private Transaction rebuild(TransferJournal.Entry entry, String type) {
+        boolean debit = "DEBIT".equals(type);
+        Transaction txn = new Transaction();
+        txn.setTransactionId(debit ? entry.getDebitTransactionId() : entry.getCreditTransactionId());
+        // Each transfer row carries the reference derived from its own id
+        txn.setTransactionRefNo(entry.getKind() == TransferJournal.Entry.TRANSFER
+                ? TransactionIdGenerator.refNoFor(txn.getTransactionId()) : entry.getTransactionRefNo());
+        txn.setFromAccountNumber(entry.getFromAccount());
+        txn.setToAccountNumber(entry.getToAccount());
+        txn.setTransactionType(type);
+        txn.setTransferMethod(entry.getTransferMethod());
+        txn.setAmount(entry.getAmount());
+        txn.setRemarks(entry.getRemarks());
+        if (entry.getKind() == TransferJournal.Entry.TRANSFER) {
+            txn.setDescription(debit ? entry.getTransferMethod() + " Transfer to " + entry.getToAccount()
+                                     : entry.getTransferMethod() + " Transfer from " + entry.getFromAccount());
+        } else {
+            txn.setDescription(debit ? "Debit Transaction" : "Credit Transaction");
+        }
+        txn.setStatus("COMPLETED");
+        txn.setProcessedBy("SYSTEM");
+        LocalDateTime date = LocalDateTime.ofInstant(Instant.ofEpochMilli(entry.getTimestamp()), ZoneId.systemDefault());
+        txn.setTransactionDate(date);
+        txn.setValueDate(date.toLocalDate());
+        return txn;
+    }
+
+    // Caller holds the stripe of accountNumber
+    private Held load(String accountNumber) {
+        Held held = balances.get(accountNumber);
+        if (held == null) {
+            BankAccount account = bankAccountDAO.findAccountByNumber(accountNumber);
+            if (account == null) {
+                return null;
+            }
+            held = new Held(account.getBalance(), account.getAccountType(), "Y".equals(account.getIsActive()));
+            balances.put(accountNumber, held);
+        }
+        return held;
+    }
+
+    // Flush thread only, after a commit: the database now holds every balance that is not
+    // dirty, so those can be dropped and loaded again when used
+    private void evictCleanBalances() {
+        if (balances.size() <= maxBalances) {
+            return;
+        }
+        int target = maxBalances - maxBalances / 4;
+        int evicted = 0;
+        for (String accountNumber : balances.keySet()) {
+            if (balances.size() <= target) {
+                break;
+            }
+            ReentrantLock lock = stripes[stripeIndex(accountNumber)];
+            lock.lock();
+            pendingLock.lock();
+            try {
+                if (!dirtyAccounts.contains(accountNumber) && balances.remove(accountNumber) != null) {
+                    evicted++;
+                }
+            } finally {
+                pendingLock.unlock();
+                lock.unlock();
+            }
+        }
+        logger.fine("Balance ledger evicted " + evicted + " clean balances");
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            logger.log(Level.SEVERE, "Error flushing balance ledger", e);
+        }
+    }
+
+    private int stripeIndex(String accountNumber) {
+        return Math.floorMod(accountNumber.hashCode(), STRIPES);
+    }
+
+    private void lockAll() {
+        for (ReentrantLock lock : stripes) {
+            lock.lock();
+        }
+    }
+
+    private void unlockAll() {
+        for (int i = STRIPES - 1; i >= 0; i--) {
+            stripes[i].unlock();
+        }
+    }
+
+    private static long now() {
+        return System.currentTimeMillis();
+    }
+
+    // Replaced rather than changed, so readers outside the stripe locks see a whole value
+    private record Held(BigDecimal balance, String accountType, boolean active) {
+
+        Held withBalance(BigDecimal newBalance) {
+            return new Held(newBalance, accountType, active);
+        }
+
+        Held withActive(boolean newActive) {
+            return new Held(balance, accountType, newActive);
+        }
+    }
+}
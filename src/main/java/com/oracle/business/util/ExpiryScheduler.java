@@ -0,0 +1,202 @@
+package com.oracle.business.util;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Deadline scheduler for sessions, OTPs and account locks.
+ *
+ * Deadlines are kept in a hierarchical timing wheel of four levels of 64 slots:
+ * one-second slots, then 64-second, 4096-second and 262144-second slots, which
+ * together cover about 194 days; later deadlines wait in the top level and are
+ * filed again as it turns. Scheduling is O(1) and each deadline is visited once
+ * per level on its way down, never polled.
+ *
+ * Every deadline belongs to a kind ("session", "otp", "account-lock") with one
+ * registered action. Once a second the wheel advances and each kind's action is
+ * called once with all of its ids that fell due, in chunks of at most 500, so an
+ * action can expire them with a single bulk statement.
+ *
+ * Scheduling an id again replaces its previous deadline; cancelled and replaced
+ * deadlines are skipped when their slot comes up. Deadlines are held in memory
+ * only; owners seed what they need again after a restart.
+ */
+public class ExpiryScheduler {
+
+    private static final Logger logger = Logger.getLogger(ExpiryScheduler.class.getName());
+
+    private static final int LEVELS = 4;
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final long HORIZON_SECONDS = 1L << (SLOT_BITS * LEVELS);
+    private static final int ACTION_CHUNK = 500;
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    private final Map<String, Consumer<List<String>>> actions = new ConcurrentHashMap<>();
+    // The live deadline of each kind/id; a timer found in the wheel but not here is stale
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    // Guarded by this
+    private final List<List<Timer>> wheel = new ArrayList<>(LEVELS * SLOTS);
+    private long currentSecond;
+
+    private final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "expiry-scheduler");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private record Timer(String kind, String id, long deadlineSecond) {
+    }
+
+    public ExpiryScheduler() {
+        for (int i = 0; i < LEVELS * SLOTS; i++) {
+            wheel.add(new ArrayList<>());
+        }
+        currentSecond = System.currentTimeMillis() / 1000;
+        ticker.scheduleAtFixedRate(this::tickQuietly, 1, 1, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Set the action run for ids of this kind that fall due
+     */
+    public void register(String kind, Consumer<List<String>> action) {
+        actions.put(kind, action);
+    }
+
+    /**
+     * Schedule (or move) the deadline of an id
+     */
+    public void schedule(String kind, String id, LocalDateTime deadline) {
+        schedule(kind, id, deadline.atZone(ZONE).toInstant().toEpochMilli());
+    }
+
+    /**
+     * Schedule (or move) the deadline of an id, in epoch milliseconds
+     */
+    public void schedule(String kind, String id, long deadlineMillis) {
+        // Round up, so nothing fires before its deadline
+        Timer timer = new Timer(kind, id, Math.floorDiv(deadlineMillis + 999, 1000));
+        timers.put(key(kind, id), timer);
+        synchronized (this) {
+            // The current second's slot has been drained already
+            insert(timer, currentSecond + 1);
+        }
+    }
+
+    public void cancel(String kind, String id) {
+        timers.remove(key(kind, id));
+    }
+
+    /**
+     * Number of deadlines waiting
+     */
+    public int pending() {
+        return timers.size();
+    }
+
+    /**
+     * Stop the ticker; pending deadlines are dropped
+     */
+    public void shutdown() {
+        ticker.shutdown();
+    }
+
+    // Advance to the current second, then hand each kind its due ids
+    private void tick() {
+        long now = System.currentTimeMillis() / 1000;
+        Map<String, List<String>> due = new LinkedHashMap<>();
+        synchronized (this) {
+            while (currentSecond < now) {
+                currentSecond++;
+                // Higher levels first, so what they release can still land in this second's slot
+                for (int level = LEVELS - 1; level > 0; level--) {
+                    if ((currentSecond & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                        List<Timer> cascading = takeSlot(level, currentSecond);
+                        for (Timer timer : cascading) {
+                            insert(timer, currentSecond);
+                        }
+                    }
+                }
+                for (Timer timer : takeSlot(0, currentSecond)) {
+                    if (timer.deadlineSecond() <= currentSecond && timers.remove(key(timer.kind(), timer.id()), timer)) {
+                        due.computeIfAbsent(timer.kind(), k -> new ArrayList<>()).add(timer.id());
+                    }
+                }
+            }
+        }
+        for (Map.Entry<String, List<String>> entry : due.entrySet()) {
+            fire(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private void fire(String kind, List<String> ids) {
+        Consumer<List<String>> action = actions.get(kind);
+        if (action == null) {
+            logger.warning("No expiry action for " + kind + ", dropping " + ids.size() + " deadlines");
+            return;
+        }
+        for (int i = 0; i < ids.size(); i += ACTION_CHUNK) {
+            List<String> chunk = ids.subList(i, Math.min(ids.size(), i + ACTION_CHUNK));
+            try {
+                action.accept(chunk);
+            } catch (Exception e) {
+                logger.log(Level.SEVERE, "Expiry action for " + kind + " failed on " + chunk.size() + " ids", e);
+            }
+        }
+    }
+
+    // File a timer in the lowest level whose span reaches its deadline, due ones in the slot of
+    // the earliest second still to be drained; callers hold the lock
+    private void insert(Timer timer, long earliestSecond) {
+        if (timer.deadlineSecond() <= earliestSecond) {
+            slot(0, earliestSecond).add(timer);
+            return;
+        }
+        long delta = Math.min(timer.deadlineSecond() - currentSecond, HORIZON_SECONDS - 1);
+        long placement = currentSecond + delta;
+        int level = 0;
+        while (delta >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        slot(level, placement).add(timer);
+    }
+
+    private List<Timer> slot(int level, long second) {
+        int index = (int) ((second >>> (SLOT_BITS * level)) & (SLOTS - 1));
+        return wheel.get(level * SLOTS + index);
+    }
+
+    private List<Timer> takeSlot(int level, long second) {
+        List<Timer> slot = slot(level, second);
+        if (slot.isEmpty()) {
+            return slot;
+        }
+        List<Timer> taken = new ArrayList<>(slot);
+        slot.clear();
+        return taken;
+    }
+
+    private void tickQuietly() {
+        try {
+            tick();
+        } catch (Exception e) {
+            logger.log(Level.SEVERE, "Expiry tick failed", e);
+        }
+    }
+
+    private static String key(String kind, String id) {
+        return kind + ':' + id;
+    }
+}
@@ -0,0 +1,392 @@
+package com.oracle.business.util;
+
+import com.oracle.dao.CustomerLoginDAO;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * In-memory login throttling and failed-attempt counting.
+ *
+ * Every login attempt is checked here before any database work. Counters are
+ * kept per customer id and per client IP, over a sliding window of
+ * banking.login.windowSeconds (default 300):
+ *
+ *   banking.login.maxAttemptsPerIp   attempts from one IP per window (100)
+ *   banking.login.maxFailuresPerIp   failed attempts from one IP per window before it is blocked (20)
+ *   banking.login.ipBlockSeconds     how long a blocked IP stays blocked (900)
+ *
+ * A customer is locked after maxFailures consecutive failures; the lock is
+ * written to the database at once, so that other nodes see it. Failures are
+ * written in batches every banking.login.flushIntervalMs (default 5000) instead
+ * of once per failed attempt, as increments to the stored count so that
+ * failures counted by other nodes are not overwritten. A success or a lock
+ * zeroes the stored count with the same flush. IP counters are not persisted.
+ *
+ * Counters live in 64 shards, each a bounded LRU map under its own lock, so
+ * concurrent attempts on one key are counted exactly and a flood of distinct keys
+ * cannot grow memory past banking.login.maxEntries (default 200000). Eviction
+ * skips counters with unwritten changes and blocked keys, so neither a pending
+ * failure nor a block is ever lost; a shard holding nothing else evictable may
+ * go over its share until the next flush.
+ */
+public class LoginThrottle {
+
+    private static final Logger logger = Logger.getLogger(LoginThrottle.class.getName());
+
+    private static final int SHARDS = 64;
+    // Entries looked at, from the least recently used, to find one that can be evicted
+    private static final int EVICTION_SCAN = 16;
+
+    /**
+     * Outcome of a check or a recorded failure. retryAfterSeconds is set when not
+     * allowed, lockedUntilMillis when the customer is locked, and locking only for
+     * the one failure that locked it.
+     */
+    public record Decision(boolean allowed, boolean customerLocked, boolean locking, long lockedUntilMillis,
+                           long retryAfterSeconds) {
+        static final Decision ALLOW = new Decision(true, false, false, 0, 0);
+    }
+
+    private final CustomerLoginDAO customerLoginDAO;
+    private final int maxFailures;
+    private final long lockMillis;
+    private final long windowMillis = TimeUnit.SECONDS.toMillis(Long.getLong("banking.login.windowSeconds", 300L));
+    private final int maxAttemptsPerIp = Integer.getInteger("banking.login.maxAttemptsPerIp", 100);
+    private final int maxFailuresPerIp = Integer.getInteger("banking.login.maxFailuresPerIp", 20);
+    private final long ipBlockMillis = TimeUnit.SECONDS.toMillis(Long.getLong("banking.login.ipBlockSeconds", 900L));
+
+    private final Shard[] shards = new Shard[SHARDS];
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "login-throttle");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Sliding-window counter: the previous window's count weighted by how much of it still overlaps
+    private static class Window {
+        private long start;
+        private int previous;
+        private int current;
+
+        void add(long now, long length) {
+            roll(now, length);
+            current++;
+        }
+
+        double count(long now, long length) {
+            roll(now, length);
+            double overlap = 1.0 - (double) (now - start) / length;
+            return previous * overlap + current;
+        }
+
+        private void roll(long now, long length) {
+            long elapsed = now - start;
+            if (elapsed >= 2 * length) {
+                previous = 0;
+                current = 0;
+                start = now - now % length;
+            } else if (elapsed >= length) {
+                previous = current;
+                current = 0;
+                start += length;
+            }
+        }
+    }
+
+    // Counters of one customer id or client IP; guarded by its shard
+    private static class Counter {
+        final Window attempts = new Window();
+        final Window failures = new Window();
+        int consecutiveFailures = -1;  // -1 until known, from the database or a first failure
+        long blockedUntil;
+        // Not yet written: whether the stored count is to be zeroed, then how many failures to add to it
+        boolean resetUnwritten;
+        int failuresUnwritten;
+
+        boolean dirty() {
+            return resetUnwritten || failuresUnwritten > 0;
+        }
+
+        void reset() {
+            consecutiveFailures = 0;
+            resetUnwritten = true;
+            failuresUnwritten = 0;
+        }
+    }
+
+    private static class Shard {
+        final LinkedHashMap<String, Counter> counters;
+
+        Shard(int capacity) {
+            counters = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Counter> eldest) {
+                    if (size() > capacity) {
+                        evictOne();
+                    }
+                    return false;
+                }
+            };
+        }
+
+        // Remove the least recently used counter that has nothing unwritten and no block. The
+        // newest is left alone: it is the one being added, and its caller is about to change it.
+        private void evictOne() {
+            long now = System.currentTimeMillis();
+            int candidates = Math.min(EVICTION_SCAN, counters.size() - 1);
+            Iterator<Counter> it = counters.values().iterator();
+            for (int scanned = 0; scanned < candidates; scanned++) {
+                Counter counter = it.next();
+                if (!counter.dirty() && counter.blockedUntil <= now) {
+                    it.remove();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * @param maxFailures consecutive failures after which a customer is locked
+     * @param lockMinutes how long the lock lasts
+     */
+    public LoginThrottle(CustomerLoginDAO customerLoginDAO, int maxFailures, long lockMinutes, long flushIntervalMillis) {
+        this.customerLoginDAO = customerLoginDAO;
+        this.maxFailures = maxFailures;
+        this.lockMillis = TimeUnit.MINUTES.toMillis(lockMinutes);
+        int capacity = Math.max(1, Integer.getInteger("banking.login.maxEntries", 200000) / SHARDS);
+        for (int i = 0; i < SHARDS; i++) {
+            shards[i] = new Shard(capacity);
+        }
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMillis, flushIntervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Count an attempt and decide whether it may go ahead. Call before touching the database.
+     */
+    public Decision check(String customerId, String clientIp) {
+        long now = System.currentTimeMillis();
+        if (clientIp != null) {
+            String key = ipKey(clientIp);
+            Shard shard = shard(key);
+            synchronized (shard) {
+                Counter ip = shard.counters.computeIfAbsent(key, k -> new Counter());
+                if (ip.blockedUntil > now) {
+                    return new Decision(false, false, false, 0, secondsUntil(ip.blockedUntil, now));
+                }
+                if (ip.attempts.count(now, windowMillis) >= maxAttemptsPerIp) {
+                    return new Decision(false, false, false, 0, secondsUntil(now + windowMillis / 2, now));
+                }
+                ip.attempts.add(now, windowMillis);
+            }
+        }
+        if (customerId != null) {
+            String key = customerKey(customerId);
+            Shard shard = shard(key);
+            synchronized (shard) {
+                Counter customer = shard.counters.get(key);
+                if (customer != null && customer.blockedUntil > now) {
+                    return locked(customer.blockedUntil, now);
+                }
+            }
+        }
+        return Decision.ALLOW;
+    }
+
+    /**
+     * Seed a customer's failure count from the database, unless it is already known here
+     */
+    public void known(String customerId, Integer failedLoginAttempts) {
+        String key = customerKey(customerId);
+        Shard shard = shard(key);
+        synchronized (shard) {
+            Counter customer = shard.counters.computeIfAbsent(key, k -> new Counter());
+            if (customer.consecutiveFailures < 0) {
+                customer.consecutiveFailures = failedLoginAttempts != null ? failedLoginAttempts : 0;
+            }
+        }
+    }
+
+    /**
+     * Reject further attempts on a customer until the given time (a lock seen in the database)
+     */
+    public void blockCustomer(String customerId, long untilMillis) {
+        String key = customerKey(customerId);
+        Shard shard = shard(key);
+        synchronized (shard) {
+            Counter customer = shard.counters.computeIfAbsent(key, k -> new Counter());
+            customer.blockedUntil = Math.max(customer.blockedUntil, untilMillis);
+        }
+    }
+
+    /**
+     * Record a failed attempt. Of any number of concurrent failures, exactly one
+     * gets the decision marked locking, and its caller writes the lock.
+     * @param customerId null if the customer does not exist
+     */
+    public Decision recordFailure(String customerId, String clientIp) {
+        long now = System.currentTimeMillis();
+        if (clientIp != null) {
+            String key = ipKey(clientIp);
+            Shard shard = shard(key);
+            synchronized (shard) {
+                Counter ip = shard.counters.computeIfAbsent(key, k -> new Counter());
+                ip.failures.add(now, windowMillis);
+                if (ip.failures.count(now, windowMillis) >= maxFailuresPerIp && ip.blockedUntil <= now) {
+                    ip.blockedUntil = now + ipBlockMillis;
+                    logger.warning("Blocked login attempts from " + clientIp + " for " + ipBlockMillis / 1000 + " s");
+                }
+            }
+        }
+        if (customerId == null) {
+            return Decision.ALLOW;
+        }
+        long lockUntil;
+        String key = customerKey(customerId);
+        Shard shard = shard(key);
+        synchronized (shard) {
+            Counter customer = shard.counters.computeIfAbsent(key, k -> new Counter());
+            if (customer.blockedUntil > now) {
+                // Raced with the failure that locked it
+                return locked(customer.blockedUntil, now);
+            }
+            customer.consecutiveFailures = Math.max(customer.consecutiveFailures, 0) + 1;
+            customer.failuresUnwritten++;
+            if (customer.consecutiveFailures < maxFailures) {
+                return Decision.ALLOW;
+            }
+            lockUntil = now + lockMillis;
+            customer.blockedUntil = lockUntil;
+            customer.reset();
+        }
+        return new Decision(false, true, true, lockUntil, secondsUntil(lockUntil, now));
+    }
+
+    /**
+     * Record a successful login: the customer's failure count starts again
+     * @return true if there were failures to clear
+     */
+    public boolean recordSuccess(String customerId) {
+        String key = customerKey(customerId);
+        Shard shard = shard(key);
+        synchronized (shard) {
+            Counter customer = shard.counters.get(key);
+            if (customer == null || customer.consecutiveFailures == 0) {
+                return false;
+            }
+            customer.reset();
+            return true;
+        }
+    }
+
+    /**
+     * Forget a customer's failures and block, for an account unlocked by an admin
+     */
+    public void clearCustomer(String customerId) {
+        String key = customerKey(customerId);
+        Shard shard = shard(key);
+        synchronized (shard) {
+            shard.counters.remove(key);
+        }
+    }
+
+    /**
+     * Write unwritten resets and failures to the login table
+     */
+    public void flush() {
+        Set<String> resets = new HashSet<>();
+        Map<String, Integer> increments = new HashMap<>();
+        for (Shard shard : shards) {
+            synchronized (shard) {
+                for (Map.Entry<String, Counter> entry : shard.counters.entrySet()) {
+                    Counter counter = entry.getValue();
+                    if (counter.dirty()) {
+                        String customerId = entry.getKey().substring(2);
+                        if (counter.resetUnwritten) {
+                            resets.add(customerId);
+                        }
+                        if (counter.failuresUnwritten > 0) {
+                            increments.put(customerId, counter.failuresUnwritten);
+                        }
+                        counter.resetUnwritten = false;
+                        counter.failuresUnwritten = 0;
+                    }
+                }
+            }
+        }
+        if ((!resets.isEmpty() || !increments.isEmpty())
+                && !customerLoginDAO.addFailedLoginAttempts(resets, increments)) {
+            restore(resets, increments);
+            logger.warning("Failure counts of " + (resets.size() + increments.size())
+                    + " customers were not written, they will be retried");
+        }
+    }
+
+    public void shutdown() {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    // Put back changes a failed flush took, behind any reset made since
+    private void restore(Set<String> resets, Map<String, Integer> increments) {
+        Set<String> customerIds = new HashSet<>(resets);
+        customerIds.addAll(increments.keySet());
+        for (String customerId : customerIds) {
+            String key = customerKey(customerId);
+            Shard shard = shard(key);
+            synchronized (shard) {
+                Counter counter = shard.counters.get(key);
+                if (counter == null || counter.resetUnwritten) {
+                    // Cleared by an admin, or zeroed again since
+                    continue;
+                }
+                counter.resetUnwritten = resets.contains(customerId);
+                counter.failuresUnwritten += increments.getOrDefault(customerId, 0);
+            }
+        }
+    }
+
+    private Shard shard(String key) {
+        return shards[(key.hashCode() & 0x7fffffff) % SHARDS];
+    }
+
+    private static Decision locked(long lockedUntil, long now) {
+        return new Decision(false, true, false, lockedUntil, secondsUntil(lockedUntil, now));
+    }
+
+    private static long secondsUntil(long untilMillis, long now) {
+        return Math.max(1, (untilMillis - now + 999) / 1000);
+    }
+
+    private static String customerKey(String customerId) {
+        return "c:" + customerId;
+    }
+
+    private static String ipKey(String clientIp) {
+        return "i:" + clientIp;
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            logger.log(Level.SEVERE, "Login throttle flush failed", e);
+        }
+    }
+}
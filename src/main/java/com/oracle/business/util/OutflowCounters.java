@@ -0,0 +1,174 @@
+package com.oracle.business.util;
+
+import com.oracle.dao.TransactionDAO;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * Running per-account outflow totals for the current day and month.
+ *
+ * Totals are seeded from the transactions table with two grouped queries when
+ * the store is created and are then kept current by recording each outflow as
+ * it commits, so a limit check is a map lookup instead of a query. Buckets roll
+ * over by themselves when the date moves on.
+ *
+ * A limited outflow reserves its amount before it is written: the limits are
+ * checked and the amount added under the account's lock, so concurrent outflows
+ * cannot together exceed a limit. The reservation is released if the outflow
+ * fails.
+ *
+ * Only outflows committed through this node are recorded; with several nodes
+ * writing the same accounts the totals lag behind until the next restart.
+ */
+public class OutflowCounters {
+
+    private static final Logger logger = Logger.getLogger(OutflowCounters.class.getName());
+
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    /**
+     * An amount counted against an account's limits on a given day, until released
+     */
+    public record Reservation(String accountNumber, BigDecimal amount, LocalDate date) {
+    }
+
+    // Day and month bucket for one account; all access is synchronized on the counter
+    private static class Counter {
+        private LocalDate day;
+        private BigDecimal dayTotal = BigDecimal.ZERO;
+        private YearMonth month;
+        private BigDecimal monthTotal = BigDecimal.ZERO;
+
+        synchronized void add(LocalDate date, BigDecimal amount) {
+            roll(date);
+            if (date.equals(day)) {
+                dayTotal = dayTotal.add(amount);
+            }
+            if (YearMonth.from(date).equals(month)) {
+                monthTotal = monthTotal.add(amount);
+            }
+        }
+
+        // Add the amount only if neither total would then exceed its limit
+        synchronized boolean addWithin(LocalDate date, BigDecimal amount, BigDecimal dayLimit, BigDecimal monthLimit) {
+            roll(date);
+            if (!date.equals(day) || !YearMonth.from(date).equals(month)) {
+                return false;
+            }
+            if (dayTotal.add(amount).compareTo(dayLimit) > 0 || monthTotal.add(amount).compareTo(monthLimit) > 0) {
+                return false;
+            }
+            dayTotal = dayTotal.add(amount);
+            monthTotal = monthTotal.add(amount);
+            return true;
+        }
+
+        synchronized void subtract(LocalDate date, BigDecimal amount) {
+            if (date.equals(day)) {
+                dayTotal = dayTotal.subtract(amount);
+            }
+            if (YearMonth.from(date).equals(month)) {
+                monthTotal = monthTotal.subtract(amount);
+            }
+        }
+
+        synchronized BigDecimal dayTotal(LocalDate date) {
+            roll(date);
+            return date.equals(day) ? dayTotal : BigDecimal.ZERO;
+        }
+
+        synchronized BigDecimal monthTotal(YearMonth yearMonth) {
+            roll(yearMonth.atDay(1));
+            return yearMonth.equals(month) ? monthTotal : BigDecimal.ZERO;
+        }
+
+        // Move the buckets forward, never back, so late outflows for a past day are ignored
+        private void roll(LocalDate date) {
+            if (day == null || date.isAfter(day)) {
+                day = date;
+                dayTotal = BigDecimal.ZERO;
+            }
+            YearMonth yearMonth = YearMonth.from(date);
+            if (month == null || yearMonth.isAfter(month)) {
+                month = yearMonth;
+                monthTotal = BigDecimal.ZERO;
+            }
+        }
+    }
+
+    public OutflowCounters(TransactionDAO transactionDAO) {
+        rebuild(transactionDAO);
+    }
+
+    /**
+     * Record a committed outflow from an account
+     */
+    public void record(String accountNumber, BigDecimal amount, LocalDateTime when) {
+        if (accountNumber == null || amount == null) {
+            return;
+        }
+        counters.computeIfAbsent(accountNumber, k -> new Counter()).add(when.toLocalDate(), amount);
+    }
+
+    /**
+     * Count an outflow against the account's day and month totals if both stay
+     * within their limits
+     * @return the reservation, or null if a limit would be exceeded
+     */
+    public Reservation reserve(String accountNumber, BigDecimal amount, LocalDate date,
+                               BigDecimal dailyLimit, BigDecimal monthlyLimit) {
+        Counter counter = counters.computeIfAbsent(accountNumber, k -> new Counter());
+        return counter.addWithin(date, amount, dailyLimit, monthlyLimit)
+                ? new Reservation(accountNumber, amount, date) : null;
+    }
+
+    /**
+     * Take back a reservation whose outflow was not written; a no-op once its day has passed
+     */
+    public void release(Reservation reservation) {
+        Counter counter = counters.get(reservation.accountNumber());
+        if (counter != null) {
+            counter.subtract(reservation.date(), reservation.amount());
+        }
+    }
+
+    /**
+     * Total outflow of an account on the given day, zero if it is not the current day
+     */
+    public BigDecimal getDailyTotal(String accountNumber, LocalDate date) {
+        Counter counter = counters.get(accountNumber);
+        return counter != null ? counter.dayTotal(date) : BigDecimal.ZERO;
+    }
+
+    /**
+     * Total outflow of an account in the given month, zero if it is not the current month
+     */
+    public BigDecimal getMonthlyTotal(String accountNumber, YearMonth month) {
+        Counter counter = counters.get(accountNumber);
+        return counter != null ? counter.monthTotal(month) : BigDecimal.ZERO;
+    }
+
+    private void rebuild(TransactionDAO transactionDAO) {
+        LocalDate today = LocalDate.now();
+        LocalDateTime startOfMonth = today.withDayOfMonth(1).atStartOfDay();
+        LocalDateTime startOfDay = today.atStartOfDay();
+        LocalDateTime end = today.plusDays(1).atStartOfDay();
+
+        Map<String, BigDecimal> monthTotals = transactionDAO.sumOutflowsByAccount(startOfMonth, end);
+        Map<String, BigDecimal> dayTotals = transactionDAO.sumOutflowsByAccount(startOfDay, end);
+        for (Map.Entry<String, BigDecimal> entry : monthTotals.entrySet()) {
+            Counter counter = new Counter();
+            counter.roll(today);
+            counter.monthTotal = entry.getValue();
+            counter.dayTotal = dayTotals.getOrDefault(entry.getKey(), BigDecimal.ZERO);
+            counters.put(entry.getKey(), counter);
+        }
+        logger.info("Outflow counters rebuilt for " + counters.size() + " accounts");
+    }
+}
@@ -0,0 +1,29 @@
+package com.oracle.business.util;
+
+/**
+ * One password hashing scheme. Encoded hashes carry the scheme id and its
+ * parameters, so a hash made under older settings can still be verified and
+ * recognised as due for rehashing.
+ */
+public interface PasswordHasher {
+
+    /**
+     * Scheme id, the first field of every hash this hasher encodes ($id$...)
+     */
+    String id();
+
+    /**
+     * Hash a password with a fresh salt and the current parameters
+     */
+    String hash(String password);
+
+    /**
+     * Check a password against a hash encoded by this scheme
+     */
+    boolean verify(String password, String encoded);
+
+    /**
+     * True if the hash was made with other parameters than the current ones
+     */
+    boolean needsRehash(String encoded);
+}
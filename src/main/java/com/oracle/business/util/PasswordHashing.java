@@ -0,0 +1,299 @@
+package com.oracle.business.util;
+
+import com.oracle.dao.util.LocalCache;
+import com.oracle.util.PasswordUtil;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Password hashing and verification for customer and admin logins.
+ *
+ * New hashes use the current scheme, banking.password.scheme (default
+ * pbkdf2-sha256) at banking.password.pbkdf2.iterations (default 600000). Stored
+ * hashes are verified by the scheme named in them, so the cost can be raised at
+ * any time: a login whose hash was made under other settings is reported as due
+ * for rehashing, and the caller stores a new hash. Values stored before this
+ * existed (plain text, PasswordUtil's SHA-256 hex and PasswordUtils' salted
+ * SHA-256) are still accepted and are always due for rehashing.
+ *
+ * Hashing runs on a bounded pool of banking.password.threads threads (default:
+ * one per core) with banking.password.queueSize waiting jobs (default 64 per
+ * thread), so key derivation can never take more CPU than that, however many
+ * logins arrive. When the queue is full, or a job waits longer than
+ * banking.password.timeoutMillis (default 5000), the caller is told the engine
+ * is busy instead of waiting.
+ *
+ * With banking.password.verifyCache.ttlSeconds above 0 (default 0, off),
+ * successful verifications are remembered under a keyed HMAC of the stored hash
+ * and password, so a client that logs in again within the TTL skips the key
+ * derivation. That HMAC is fast to compute, so leave it off unless login CPU
+ * matters more than the cost of a heap dump being brute-forced.
+ *
+ * The cost of one hash at the current settings is measured when the engine is
+ * created, logged as logins per second per core, and reported in stats() next
+ * to the running average, so the iteration count can be tuned per machine.
+ */
+public class PasswordHashing {
+
+    private static final Logger logger = Logger.getLogger(PasswordHashing.class.getName());
+
+    private static final HexFormat HEX = HexFormat.of();
+    private static final int LEGACY_SALT_LENGTH = 16;
+    private static final int LEGACY_SALTED_LENGTH = LEGACY_SALT_LENGTH + 32;
+
+    public enum Result { MATCH, MATCH_NEEDS_REHASH, MISMATCH, BUSY }
+
+    /**
+     * Engine statistics; hashMillis is the measured cost of one hash at the current settings
+     */
+    public record Stats(String scheme, int iterations, int threads, int active, int queued, long hashes,
+                        double averageMillis, long busyRejections, long rehashes, double hashMillis,
+                        double hashesPerSecondPerCore, LocalCache.Stats verifyCache) {
+    }
+
+    private final Map<String, PasswordHasher> hashers = new ConcurrentHashMap<>();
+    private final PasswordHasher current;
+    private final int iterations;
+    private final long timeoutMillis;
+    private final ThreadPoolExecutor executor;
+    private final LocalCache<String, Boolean> verified;
+    private final byte[] cacheKey = new byte[32];
+
+    private final LongAdder hashes = new LongAdder();
+    private final LongAdder hashNanos = new LongAdder();
+    private final LongAdder busy = new LongAdder();
+    private final LongAdder rehashes = new LongAdder();
+    private volatile double calibratedMillis;
+
+    public PasswordHashing() {
+        iterations = Integer.getInteger("banking.password.pbkdf2.iterations", 600000);
+        register(new Pbkdf2PasswordHasher("sha256", iterations));
+        register(new Pbkdf2PasswordHasher("sha512", iterations));
+        String scheme = System.getProperty("banking.password.scheme", "pbkdf2-sha256");
+        current = hashers.get(scheme);
+        if (current == null) {
+            throw new IllegalArgumentException("Unknown password scheme: " + scheme);
+        }
+
+        int threads = Integer.getInteger("banking.password.threads", Runtime.getRuntime().availableProcessors());
+        AtomicInteger count = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Integer.getInteger("banking.password.queueSize", 64 * threads)),
+                r -> {
+                    Thread t = new Thread(r, "password-hash-" + count.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+        timeoutMillis = Long.getLong("banking.password.timeoutMillis", 5000L);
+
+        long ttl = Long.getLong("banking.password.verifyCache.ttlSeconds", 0L);
+        if (ttl > 0) {
+            new SecureRandom().nextBytes(cacheKey);
+            verified = new LocalCache<>("password-verifications",
+                    Integer.getInteger("banking.password.verifyCache.maxSize", 10000), ttl, TimeUnit.SECONDS);
+        } else {
+            verified = null;
+        }
+        calibrate();
+    }
+
+    /**
+     * Make another scheme available for verification, by the id in its hashes
+     */
+    public void register(PasswordHasher hasher) {
+        hashers.put(hasher.id(), hasher);
+    }
+
+    /**
+     * Hash a new password with the current scheme
+     * @throws RejectedExecutionException if the engine is busy
+     */
+    public String hash(String password) {
+        return run(() -> timed(() -> current.hash(password)));
+    }
+
+    /**
+     * Check a password against its stored value
+     */
+    public Result verify(String password, String stored) {
+        if (password == null || stored == null) {
+            return Result.MISMATCH;
+        }
+        PasswordHasher hasher = hasherOf(stored);
+        if (hasher == null) {
+            return verifyLegacy(password, stored) ? Result.MATCH_NEEDS_REHASH : Result.MISMATCH;
+        }
+        boolean rehash = hasher != current || current.needsRehash(stored);
+        String cacheEntry = verified != null ? cacheEntry(password, stored) : null;
+        if (cacheEntry != null && verified.getIfPresent(cacheEntry) != null) {
+            return rehash ? Result.MATCH_NEEDS_REHASH : Result.MATCH;
+        }
+        boolean matches;
+        try {
+            matches = run(() -> timed(() -> hasher.verify(password, stored)));
+        } catch (RejectedExecutionException e) {
+            return Result.BUSY;
+        } catch (IllegalArgumentException e) {
+            logger.warning("Malformed " + hasher.id() + " password hash");
+            return Result.MISMATCH;
+        }
+        if (!matches) {
+            return Result.MISMATCH;
+        }
+        if (cacheEntry != null) {
+            verified.get(cacheEntry, k -> Boolean.TRUE);
+        }
+        return rehash ? Result.MATCH_NEEDS_REHASH : Result.MATCH;
+    }
+
+    /**
+     * Hash the password with the current scheme in the background and hand the
+     * result to store; skipped if the engine is busy, to be tried on a later login
+     */
+    public void rehashLater(String password, Consumer<String> store) {
+        try {
+            executor.execute(() -> {
+                try {
+                    store.accept(timed(() -> current.hash(password)));
+                    rehashes.increment();
+                } catch (Exception e) {
+                    logger.log(Level.WARNING, "Password rehash failed", e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            busy.increment();
+        }
+    }
+
+    public Stats stats() {
+        long count = hashes.sum();
+        return new Stats(current.id(), iterations, executor.getMaximumPoolSize(), executor.getActiveCount(),
+                executor.getQueue().size(), count,
+                count == 0 ? 0.0 : hashNanos.sum() / 1e6 / count,
+                busy.sum(), rehashes.sum(), calibratedMillis,
+                calibratedMillis > 0 ? 1000.0 / calibratedMillis : 0.0,
+                verified != null ? verified.stats() : null);
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    // Time a hash at the current settings, to report what a login costs; the first run
+    // loads the provider and compiles the hot loop, so only the later ones count
+    private void calibrate() {
+        current.hash("calibration");
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 2; i++) {
+            long begin = System.nanoTime();
+            current.hash("calibration");
+            best = Math.min(best, System.nanoTime() - begin);
+        }
+        calibratedMillis = best / 1e6;
+        logger.info(String.format("Password hashing: %s at %d iterations takes %.1f ms, about %.1f logins/s per core",
+                current.id(), iterations, calibratedMillis, 1000.0 / calibratedMillis));
+    }
+
+    private PasswordHasher hasherOf(String stored) {
+        if (!stored.startsWith("$")) {
+            return null;
+        }
+        int end = stored.indexOf('$', 1);
+        return end > 0 ? hashers.get(stored.substring(1, end)) : null;
+    }
+
+    // Values stored before hashing schemes were encoded: PasswordUtil hex, PasswordUtils salted Base64, or plain
+    private static boolean verifyLegacy(String password, String stored) {
+        if (stored.length() == 64 && stored.chars().allMatch(HexFormat::isHexDigit)) {
+            return equal(PasswordUtil.hashPassword(password), stored);
+        }
+        byte[] salted = decodeBase64(stored);
+        if (salted != null && salted.length == LEGACY_SALTED_LENGTH) {
+            return PasswordUtils.verifyPassword(password, stored);
+        }
+        return equal(password, stored);
+    }
+
+    private static byte[] decodeBase64(String value) {
+        try {
+            return Base64.getDecoder().decode(value);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static boolean equal(String a, String b) {
+        return MessageDigest.isEqual(a.getBytes(StandardCharsets.UTF_8), b.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String cacheEntry(String password, String stored) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(cacheKey, "HmacSHA256"));
+            mac.update(stored.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            return HEX.formatHex(mac.doFinal(password.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            return null;
+        }
+    }
+
+    private <T> T timed(Callable<T> work) throws Exception {
+        long begin = System.nanoTime();
+        try {
+            return work.call();
+        } finally {
+            hashes.increment();
+            hashNanos.add(System.nanoTime() - begin);
+        }
+    }
+
+    // Run on the hashing pool and wait for the result
+    private <T> T run(Callable<T> work) {
+        Future<T> future;
+        try {
+            future = executor.submit(work);
+        } catch (RejectedExecutionException e) {
+            busy.increment();
+            throw e;
+        }
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            busy.increment();
+            throw new RejectedExecutionException("Password hashing timed out", e);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+}
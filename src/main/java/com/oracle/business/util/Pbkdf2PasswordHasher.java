@@ -0,0 +1,130 @@
+package com.oracle.business.util;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * PBKDF2 with HMAC-SHA256 or HMAC-SHA512, from the JDK's own provider.
+ *
+ * Hashes are encoded as $pbkdf2-sha256$i=600000$salt$hash, with salt and hash in
+ * unpadded Base64. The work a stored hash asks for is bounded: a hash with more
+ * than banking.password.pbkdf2.maxIterations iterations (default 10,000,000, and
+ * never below the configured count) or a key longer than 512 bits is rejected as
+ * malformed instead of tying up a hashing thread.
+ */
+public class Pbkdf2PasswordHasher implements PasswordHasher {
+
+    private static final int SALT_LENGTH = 16;
+    private static final int MAX_ITERATIONS = Integer.getInteger("banking.password.pbkdf2.maxIterations", 10_000_000);
+    private static final int MAX_KEY_BYTES = 64;
+    private static final Base64.Encoder ENCODER = Base64.getEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getDecoder();
+
+    private final String id;
+    private final String algorithm;
+    private final int keyLength;
+    private final int iterations;
+    private final int maxIterations;
+    private final SecureRandom random = new SecureRandom();
+
+    /**
+     * @param digest "sha256" or "sha512"
+     * @param iterations work factor for new hashes
+     */
+    public Pbkdf2PasswordHasher(String digest, int iterations) {
+        switch (digest) {
+            case "sha256" -> {
+                algorithm = "PBKDF2WithHmacSHA256";
+                keyLength = 256;
+            }
+            case "sha512" -> {
+                algorithm = "PBKDF2WithHmacSHA512";
+                keyLength = 512;
+            }
+            default -> throw new IllegalArgumentException("Unsupported PBKDF2 digest: " + digest);
+        }
+        if (iterations < 1) {
+            throw new IllegalArgumentException("iterations must be positive");
+        }
+        this.id = "pbkdf2-" + digest;
+        this.iterations = iterations;
+        this.maxIterations = Math.max(iterations, MAX_ITERATIONS);
+    }
+
+    @Override
+    public String id() {
+        return id;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    @Override
+    public String hash(String password) {
+        byte[] salt = new byte[SALT_LENGTH];
+        random.nextBytes(salt);
+        byte[] hash = derive(password, salt, iterations, keyLength);
+        return "$" + id + "$i=" + iterations + "$" + ENCODER.encodeToString(salt) + "$" + ENCODER.encodeToString(hash);
+    }
+
+    @Override
+    public boolean verify(String password, String encoded) {
+        String[] fields = fields(encoded);
+        if (fields == null) {
+            return false;
+        }
+        int storedIterations = iterations(fields);
+        byte[] salt = DECODER.decode(fields[3]);
+        byte[] expected = DECODER.decode(fields[4]);
+        if (storedIterations < 1 || expected.length == 0 || expected.length > MAX_KEY_BYTES) {
+            throw new IllegalArgumentException("PBKDF2 parameters out of range");
+        }
+        byte[] actual = derive(password, salt, storedIterations, expected.length * 8);
+        return MessageDigest.isEqual(expected, actual);
+    }
+
+    @Override
+    public boolean needsRehash(String encoded) {
+        String[] fields = fields(encoded);
+        return fields == null || iterations(fields) != iterations
+                || DECODER.decode(fields[4]).length * 8 != keyLength;
+    }
+
+    // "", id, "i=N", salt, hash; null if not a hash of this scheme
+    private String[] fields(String encoded) {
+        if (encoded == null) {
+            return null;
+        }
+        String[] fields = encoded.split("\\$");
+        if (fields.length != 5 || !id.equals(fields[1]) || !fields[2].startsWith("i=")) {
+            return null;
+        }
+        return fields;
+    }
+
+    // The stored iteration count, or -1 if it is not a number in [1, maxIterations]
+    private int iterations(String[] fields) {
+        try {
+            int value = Integer.parseInt(fields[2].substring(2));
+            return value >= 1 && value <= maxIterations ? value : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private byte[] derive(String password, byte[] salt, int iterations, int keyLength) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, keyLength);
+        try {
+            return SecretKeyFactory.getInstance(algorithm).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Error hashing password with " + algorithm, e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+}
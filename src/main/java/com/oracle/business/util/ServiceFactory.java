@@ -17,6 +17,9 @@ import com.oracle.business.impl.AccountCreationRequestServiceImpl;
 import com.oracle.business.impl.AdminUserServiceImpl;
 import com.oracle.business.impl.BankingServiceImpl;
 import com.oracle.business.impl.CustomerLoginServiceImpl;
+import com.oracle.business.IdentifierService;
+import com.oracle.business.impl.IdentifierServiceImpl;
+import com.oracle.beans.AccountUnlockScheduler;
 import com.oracle.dao.CustomerDAO;
 import com.oracle.dao.CustomerLoginDAO;
 import com.oracle.dao.OTPDAO;
@@ -29,8 +32,18 @@ import com.oracle.dao.impl.AccountCreationRequestJPAImpl;
 import com.oracle.dao.impl.AdminUserJPAImpl;
 import com.oracle.dao.impl.BankAccountJPAImpl;
 import com.oracle.dao.TransactionDAO;
+import com.oracle.dao.TransferDAO;
 import com.oracle.dao.impl.TransactionJPAImpl;
+import com.oracle.dao.impl.TransferJPAImpl;
+import com.oracle.dao.SequenceDAO;
+import com.oracle.dao.impl.SequenceJPAImpl;
+import com.oracle.dao.util.JPAUtil;
+import com.oracle.dao.util.TransactionBatchWriter;
 
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Logger;
 
 /**
@@ -43,25 +56,45 @@ public class ServiceFactory {
     private static final Logger logger = Logger.getLogger(ServiceFactory.class.getName());
     
     // Service instances (Singleton pattern)
-    private static CustomerService customerService;
-    private static BankingService bankingService;
-    private static AdminUserService adminService;
-    private static AccountCreationRequestService accreqService;
-    private static CustomerLoginService loginService;
-    private static TransactionService transactionService;
-    private static OTPService otpService;
-    private static SessionService sessionService;
+    private static volatile CustomerService customerService;
+    private static volatile BankingService bankingService;
+    private static volatile AdminUserService adminService;
+    private static volatile AccountCreationRequestService accreqService;
+    private static volatile CustomerLoginService loginService;
+    private static volatile TransactionService transactionService;
+    private static volatile OTPService otpService;
+    private static volatile SessionService sessionService;
+    private static volatile IdentifierService identifierService;
 
     
     // DAO instances (Singleton pattern)
-    private static CustomerDAO customerDAO;
-    private static BankAccountDAO bankAccountDAO;
-    private static TransactionDAO transactionDAO;
-    private static AdminUserDAO adminDAO;
-    private static AccountCreationRequestDAO accreqDAO;
-    private static CustomerLoginDAO loginDAO;
-    private static OTPDAO otpDAO;
-    private static SessionDAO sessionDAO;
+    private static volatile CustomerDAO customerDAO;
+    private static volatile BankAccountDAO bankAccountDAO;
+    private static volatile TransactionDAO transactionDAO;
+    private static volatile AdminUserDAO adminDAO;
+    private static volatile AccountCreationRequestDAO accreqDAO;
+    private static volatile CustomerLoginDAO loginDAO;
+    private static volatile OTPDAO otpDAO;
+    private static volatile SessionDAO sessionDAO;
+    private static volatile TransferDAO transferDAO;
+    private static volatile SequenceDAO sequenceDAO;
+    
+    // Read-through caches in front of the account and customer DAOs, off unless -Dbanking.cache.enabled=true
+    private static final boolean CACHE_ENABLED = Boolean.getBoolean("banking.cache.enabled");
+    private static final int CACHE_MAX_SIZE = Integer.getInteger("banking.cache.maxSize", 10000);
+    private static final long CACHE_TTL_SECONDS = Long.getLong("banking.cache.ttlSeconds", 60L);
+
+    // Optional components
+    private static volatile BalanceLedger balanceLedger;
+    private static volatile OutflowCounters outflowCounters;
+    private static volatile SessionStore sessionStore;
+    private static volatile ExpiryScheduler expiryScheduler;
+    private static volatile AccountUnlockScheduler accountUnlockScheduler;
+    private static volatile LoginThrottle loginThrottle;
+    private static volatile PasswordHashing passwordHashing;
+
+    // One lock per instance, so that building one (say OutflowCounters, which queries) never holds up the others
+    private static final Map<String, Object> locks = new ConcurrentHashMap<>();
     
     // Private constructor to prevent instantiation
     private ServiceFactory() {
@@ -76,7 +109,7 @@ public class ServiceFactory {
      */
     public static CustomerService getCustomerService() {
         if (customerService == null) {
-            synchronized (ServiceFactory.class) {
+            synchronized (lock("customerService")) {
                 if (customerService == null) {
                     customerService = new CustomerServiceImpl();
                     logger.info("CustomerService instance created");
@@ -92,7 +125,7 @@ public class ServiceFactory {
      */
     public static BankingService getBankingService() {
         if (bankingService == null) {
-            synchronized (ServiceFactory.class) {
+            synchronized (lock("bankingService")) {
                 if (bankingService == null) {
                     bankingService = new BankingServiceImpl();
                     logger.info("BankingService instance created");
@@ -104,7 +137,7 @@ public class ServiceFactory {
     
     public static TransactionService getTransactionService() {
         if (transactionService == null) {
-            synchronized (ServiceFactory.class) {
+            synchronized (lock("transactionService")) {
                 if (transactionService == null) {
                     transactionService = new TransactionServiceImpl(getTransactionDAO());
                     logger.info("TransactionService instance created");
@@ -116,7 +149,7 @@ public class ServiceFactory {
     
     public static AdminUserService getAdminUserService() {
         if (adminService == null) {
-            synchronized (ServiceFactory.class) {
+            synchronized (lock("adminService")) {
                 if (adminService == null) {
                     adminService = new AdminUserServiceImpl();
                     logger.info("AdminService instance created");
@@ -128,7 +161,7 @@ public class ServiceFactory {
     
     public static AccountCreationRequestService getAccountCreationRequestService() {
         if (accreqService == null) {
-            synchronized (ServiceFactory.class) {
+            synchronized (lock("accreqService")) {
                 if (accreqService == null) {
                     accreqService = new AccountCreationRequestServiceImpl();
                     logger.info("AccountCreationRequestService instance created");
@@ -140,7 +173,7 @@ public class ServiceFactory {
     
     public static CustomerLoginService getCustomerLoginService() {
         if (loginService == null) {
-            synchronized (ServiceFactory.class) {
+            synchronized (lock("loginService")) {
                 if (loginService == null) {
                     loginService = new CustomerLoginServiceImpl();
                     logger.info("CustomerLoginService instance created");
@@ -152,7 +185,7 @@ public class ServiceFactory {
     
     public static OTPService getOTPService() {
         if (otpService == null) {
-            synchronized (ServiceFactory.class) {
+            synchronized (lock("otpService")) {
                 if (otpService == null) {
                     otpService = new OTPServiceImpl();
                     logger.info("OTPService instance created");
@@ -164,7 +197,7 @@ public class ServiceFactory {
     
     public static SessionService getSessionService() {
         if (sessionService == null) {
-            synchronized (ServiceFactory.class) {
+            synchronized (lock("sessionService")) {
                 if (sessionService == null) {
                     sessionService = new SessionServiceImpl();
                     logger.info("SessionService instance created");
@@ -174,6 +207,148 @@ public class ServiceFactory {
         return sessionService;
     }
     
+    /**
+     * Get IdentifierService instance using Factory Pattern
+     * @return IdentifierService implementation
+     */
+    public static IdentifierService getIdentifierService() {
+        if (identifierService == null) {
+            synchronized (lock("identifierService")) {
+                if (identifierService == null) {
+                    identifierService = new IdentifierServiceImpl(getSequenceDAO());
+                    logger.info("IdentifierService instance created");
+                }
+            }
+        }
+        return identifierService;
+    }
+    
+    /**
+     * Get the in-process BalanceLedger, enabled with -Dbanking.ledger.enabled=true
+     * @return BalanceLedger instance, or null when the ledger is disabled
+     */
+    public static BalanceLedger getBalanceLedger() {
+        if (!Boolean.getBoolean("banking.ledger.enabled")) {
+            return null;
+        }
+        if (balanceLedger == null) {
+            synchronized (lock("balanceLedger")) {
+                if (balanceLedger == null) {
+                    try {
+                        balanceLedger = new BalanceLedger(getBankAccountDAO(), getTransferDAO(), getTransactionDAO(),
+                                Paths.get(System.getProperty("banking.ledger.journalDir", "ledger-journal")),
+                                Long.getLong("banking.ledger.flushIntervalMs", 50L));
+                        logger.info("BalanceLedger instance created");
+                    } catch (IOException e) {
+                        throw new IllegalStateException("Balance ledger could not be started", e);
+                    }
+                }
+            }
+        }
+        return balanceLedger;
+    }
+    
+    /**
+     * Get the shared OutflowCounters, rebuilt from the transactions table on first use
+     * @return OutflowCounters instance
+     */
+    public static OutflowCounters getOutflowCounters() {
+        if (outflowCounters == null) {
+            synchronized (lock("outflowCounters")) {
+                if (outflowCounters == null) {
+                    outflowCounters = new OutflowCounters(getTransactionDAO());
+                    logger.info("OutflowCounters instance created");
+                }
+            }
+        }
+        return outflowCounters;
+    }
+    
+    /**
+     * Get the shared in-memory SessionStore
+     * @return SessionStore instance
+     */
+    public static SessionStore getSessionStore() {
+        if (sessionStore == null) {
+            synchronized (lock("sessionStore")) {
+                if (sessionStore == null) {
+                    sessionStore = new SessionStore(getSessionDAO(), getExpiryScheduler(), Long.getLong("banking.session.flushIntervalMs", 5000L),
+                            Long.getLong("banking.session.recheckIntervalMs", 60000L));
+                    logger.info("SessionStore instance created");
+                }
+            }
+        }
+        return sessionStore;
+    }
+    
+    /**
+     * Get the shared ExpiryScheduler for session, OTP and account lock deadlines
+     * @return ExpiryScheduler instance
+     */
+    public static ExpiryScheduler getExpiryScheduler() {
+        if (expiryScheduler == null) {
+            synchronized (lock("expiryScheduler")) {
+                if (expiryScheduler == null) {
+                    expiryScheduler = new ExpiryScheduler();
+                    logger.info("ExpiryScheduler instance created");
+                }
+            }
+        }
+        return expiryScheduler;
+    }
+    
+    /**
+     * Get the AccountUnlockScheduler, started with the locks already in force
+     * @return AccountUnlockScheduler instance
+     */
+    public static AccountUnlockScheduler getAccountUnlockScheduler() {
+        if (accountUnlockScheduler == null) {
+            synchronized (lock("accountUnlockScheduler")) {
+                if (accountUnlockScheduler == null) {
+                    AccountUnlockScheduler unlocks = new AccountUnlockScheduler(getCustomerLoginDAO(), getExpiryScheduler());
+                    unlocks.start();
+                    accountUnlockScheduler = unlocks;
+                    logger.info("AccountUnlockScheduler instance created");
+                }
+            }
+        }
+        return accountUnlockScheduler;
+    }
+    
+    /**
+     * Get the shared LoginThrottle
+     * @return LoginThrottle instance
+     */
+    public static LoginThrottle getLoginThrottle() {
+        if (loginThrottle == null) {
+            synchronized (lock("loginThrottle")) {
+                if (loginThrottle == null) {
+                    loginThrottle = new LoginThrottle(getCustomerLoginDAO(), CustomerLoginServiceImpl.MAX_FAILED_ATTEMPTS,
+                            CustomerLoginServiceImpl.LOCK_DURATION_MINUTES,
+                            Long.getLong("banking.login.flushIntervalMs", 5000L));
+                    logger.info("LoginThrottle instance created");
+                }
+            }
+        }
+        return loginThrottle;
+    }
+    
+    /**
+     * Get the shared PasswordHashing engine
+     * @return PasswordHashing instance
+     */
+    public static PasswordHashing getPasswordHashing() {
+        if (passwordHashing == null) {
+            synchronized (lock("passwordHashing")) {
+                if (passwordHashing == null) {
+                    passwordHashing = new PasswordHashing();
+                    logger.info("PasswordHashing instance created");
+                }
+            }
+        }
+        return passwordHashing;
+    }
+    
     // ===== DAO FACTORY METHODS =====
     
     /**
@@ -182,10 +357,12 @@ public class ServiceFactory {
      */
     public static CustomerDAO getCustomerDAO() {
         if (customerDAO == null) {
-            synchronized (ServiceFactory.class) {
+            synchronized (lock("customerDAO")) {
                 if (customerDAO == null) {
-                    customerDAO = new CustomerJPAImpl();
-                    logger.info("CustomerDAO instance created");
+                    customerDAO = CACHE_ENABLED
+                            ? new CachingCustomerDAO(new CustomerJPAImpl(), CACHE_MAX_SIZE, CACHE_TTL_SECONDS)
+                            : new CustomerJPAImpl();
+                    logger.info("CustomerDAO instance created" + (CACHE_ENABLED ? " (cached)" : ""));
                 }
             }
         }
@@ -198,10 +375,12 @@ public class ServiceFactory {
      */
     public static BankAccountDAO getBankAccountDAO() {
         if (bankAccountDAO == null) {
-            synchronized (ServiceFactory.class) {
+            synchronized (lock("bankAccountDAO")) {
                 if (bankAccountDAO == null) {
-                    bankAccountDAO = new BankAccountJPAImpl();
-                    logger.info("BankAccountDAO instance created");
+                    bankAccountDAO = CACHE_ENABLED
+                            ? new CachingBankAccountDAO(new BankAccountJPAImpl(), CACHE_MAX_SIZE, CACHE_TTL_SECONDS)
+                            : new BankAccountJPAImpl();
+                    logger.info("BankAccountDAO instance created" + (CACHE_ENABLED ? " (cached)" : ""));
                 }
             }
         }
@@ -214,7 +393,7 @@ public class ServiceFactory {
      */
     public static TransactionDAO getTransactionDAO() {
         if (transactionDAO == null) {
-            synchronized (ServiceFactory.class) {
+            synchronized (lock("transactionDAO")) {
                 if (transactionDAO == null) {
                     transactionDAO = new TransactionJPAImpl();
                     logger.info("TransactionDAO instance created");
@@ -224,8 +403,8 @@ public class ServiceFactory {
         return transactionDAO;
     }
     public static AdminUserDAO getAdminUserDAO() {
-        if (transactionDAO == null) {
-            synchronized (ServiceFactory.class) {
+        if (adminDAO == null) {
+            synchronized (lock("adminDAO")) {
                 if (adminDAO == null) {
                     adminDAO = new AdminUserJPAImpl();
                     logger.info("AdminUserDAO instance created");
@@ -237,7 +416,7 @@ public class ServiceFactory {
     
     public static AccountCreationRequestDAO getAccountCreationRequestDAO() {
         if (accreqDAO == null) {
-            synchronized (ServiceFactory.class) {
+            synchronized (lock("accreqDAO")) {
                 if (accreqDAO == null) {
                 	accreqDAO = new AccountCreationRequestJPAImpl();
                     logger.info("AccountCreationRequestDAO instance created");
@@ -249,7 +428,7 @@ public class ServiceFactory {
     
     public static CustomerLoginDAO getCustomerLoginDAO() {
         if (loginDAO == null) {
-            synchronized (ServiceFactory.class) {
+            synchronized (lock("loginDAO")) {
                 if (loginDAO == null) {
                 	loginDAO = new CustomerLoginJPAImpl();
                     logger.info("CustomerLoginDAO instance created");
@@ -261,7 +440,7 @@ public class ServiceFactory {
     
     public static OTPDAO getOTPDAO() {
         if (otpDAO == null) {
-            synchronized (ServiceFactory.class) {
+            synchronized (lock("otpDAO")) {
                 if (otpDAO == null) {
                 	otpDAO = new OTPJPAImpl();
                     logger.info("OTPDAO instance created");
@@ -274,7 +453,7 @@ public class ServiceFactory {
     
     public static SessionDAO getSessionDAO() {
         if (sessionDAO == null) {
-            synchronized (ServiceFactory.class) {
+            synchronized (lock("sessionDAO")) {
                 if (sessionDAO == null) {
                 	sessionDAO = new SessionJPAImpl();
                     logger.info("SessionDAO instance created");
@@ -284,18 +463,78 @@ public class ServiceFactory {
         return sessionDAO;
     }
     
-
-
-
-
-
-
-
-
-
-}
+    /**
+     * Get TransferDAO instance using Factory Pattern
+     * @return TransferDAO implementation
+     */
+    public static TransferDAO getTransferDAO() {
+        if (transferDAO == null) {
+            synchronized (lock("transferDAO")) {
+                if (transferDAO == null) {
+                    TransferDAO transfers = new TransferJPAImpl();
+                    // Balances written by transfers must drop out of the account cache
+                    if (getBankAccountDAO() instanceof CachingBankAccountDAO cachingAccounts) {
+                        transfers = cachingAccounts.invalidating(transfers);
+                    }
+                    transferDAO = transfers;
+                    logger.info("TransferDAO instance created");
+                }
+            }
+        }
+        return transferDAO;
+    }
     
+    /**
+     * Get SequenceDAO instance using Factory Pattern
+     * @return SequenceDAO implementation
+     */
+    public static SequenceDAO getSequenceDAO() {
+        if (sequenceDAO == null) {
+            synchronized (lock("sequenceDAO")) {
+                if (sequenceDAO == null) {
+                    sequenceDAO = new SequenceJPAImpl();
+                    logger.info("SequenceDAO instance created");
+                }
+            }
+        }
+        return sequenceDAO;
+    }
 
+    /**
+     * Stop the background writers that were started, flushing what they still hold,
+     * then close the EntityManagerFactory
+     */
+    public static void shutdown() {
+        BalanceLedger ledger = balanceLedger;
+        if (ledger != null) {
+            ledger.shutdown();
+        }
+        SessionStore sessions = sessionStore;
+        if (sessions != null) {
+            sessions.shutdown();
+        }
+        LoginThrottle throttle = loginThrottle;
+        if (throttle != null) {
+            throttle.shutdown();
+        }
+        PasswordHashing hashing = passwordHashing;
+        if (hashing != null) {
+            hashing.shutdown();
+        }
+        AccountUnlockScheduler unlocks = accountUnlockScheduler;
+        if (unlocks != null) {
+            unlocks.stop();
+        }
+        ExpiryScheduler expiry = expiryScheduler;
+        if (expiry != null) {
+            expiry.shutdown();
+        }
+        TransactionBatchWriter.shutdownIfStarted();
+        JPAUtil.closeEntityManagerFactory();
+        logger.info("ServiceFactory shut down");
+    }
 
-    
-   
\ No newline at end of file
+    private static Object lock(String name) {
+        return locks.computeIfAbsent(name, k -> new Object());
+    }
+}
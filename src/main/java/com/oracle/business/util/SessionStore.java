@@ -0,0 +1,392 @@
+package com.oracle.business.util;
+
+import com.oracle.beans.Session;
+import com.oracle.dao.SessionDAO;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * In-memory session store with sliding expiry.
+ *
+ * Live sessions are held in a concurrent map, so validating a session and
+ * touching its last activity never reach the database. Sessions are written to
+ * the sessions table when they start and end, and when their client details
+ * change. Last-activity touches are coalesced and written in batches every
+ * banking.session.flushIntervalMs (default 5000), so a busy session costs one
+ * row update per interval instead of one per request. A flush only updates
+ * rows that are still active; a session whose row was ended or deleted
+ * elsewhere is dropped from the store instead of being written back.
+ *
+ * Expiry runs on the shared ExpiryScheduler under the "session" kind. A touch
+ * only moves the session's deadline in memory; when the scheduled deadline comes
+ * up the session is either expired or scheduled again at its new deadline.
+ * Expired sessions are marked inactive with one statement per tick.
+ *
+ * Sessions started on another node, or before a restart, are loaded from the
+ * table on first use. Every banking.session.recheckIntervalMs (default 60000)
+ * the held ids are checked against the table, so a session ended by another
+ * node stops validating here too. The table stays the source for admin
+ * queries, and lags the store by at most one flush interval.
+ */
+public class SessionStore {
+
+    private static final Logger logger = Logger.getLogger(SessionStore.class.getName());
+
+    static final String EXPIRY_KIND = "session";
+    private static final int FLUSH_CHUNK = 500;
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    private final SessionDAO sessionDAO;
+    private final ExpiryScheduler expiry;
+    private final long timeoutMillis;
+
+    private final Map<String, Entry> sessions = new ConcurrentHashMap<>();
+    // Sessions with changes not yet written to the table
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "session-flush");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // A session as held in memory; all access to its fields is synchronized on the entry
+    private static class Entry {
+        private final Session session;
+        private long lastActivityMillis;
+        private boolean ended;
+
+        Entry(Session session) {
+            this.session = copyOf(session);
+            this.lastActivityMillis = session.getLastActivity() != null
+                    ? toMillis(session.getLastActivity()) : System.currentTimeMillis();
+        }
+
+        synchronized long deadline(long timeoutMillis) {
+            return lastActivityMillis + timeoutMillis;
+        }
+
+        synchronized Session snapshot() {
+            Session copy = copyOf(session);
+            copy.setLastActivity(toLocalDateTime(lastActivityMillis));
+            return copy;
+        }
+    }
+
+    public SessionStore(SessionDAO sessionDAO, ExpiryScheduler expiry, long flushIntervalMillis,
+                        long recheckIntervalMillis) {
+        this.sessionDAO = sessionDAO;
+        this.expiry = expiry;
+        this.timeoutMillis = TimeUnit.MINUTES.toMillis(Session.TIMEOUT_MINUTES);
+        expiry.register(EXPIRY_KIND, this::expire);
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMillis, flushIntervalMillis,
+                TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::recheckQuietly, recheckIntervalMillis, recheckIntervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Start a session: written to the table right away, then held in memory
+     * @return true if the row was stored
+     */
+    public boolean create(Session session) {
+        if (!sessionDAO.saveSession(session)) {
+            return false;
+        }
+        if ("Y".equals(session.getIsActive())) {
+            Entry entry = new Entry(session);
+            sessions.put(session.getSessionId(), entry);
+            schedule(session.getSessionId(), entry.deadline(timeoutMillis));
+        }
+        return true;
+    }
+
+    /**
+     * The live session with this id, or null if it does not exist, ended or expired
+     */
+    public Session get(String sessionId) {
+        Entry entry = live(sessionId);
+        return entry != null ? entry.snapshot() : null;
+    }
+
+    /**
+     * Record activity on a live session
+     * @return false if the session does not exist, ended or expired
+     */
+    public boolean touch(String sessionId) {
+        Entry entry = live(sessionId);
+        if (entry == null) {
+            return false;
+        }
+        synchronized (entry) {
+            entry.lastActivityMillis = Math.max(entry.lastActivityMillis, System.currentTimeMillis());
+        }
+        dirty.add(sessionId);
+        return true;
+    }
+
+    /**
+     * Apply a changed session. Ending it (isActive 'N') or changing its client
+     * details is written right away, a later last activity with the next flush.
+     * @return false if the session is not live, or the write failed
+     */
+    public boolean update(Session session) {
+        String sessionId = session.getSessionId();
+        Entry entry = live(sessionId);
+        if (entry == null) {
+            return false;
+        }
+        boolean ending = !"Y".equals(session.getIsActive());
+        boolean clientChanged;
+        synchronized (entry) {
+            clientChanged = !Objects.equals(entry.session.getIpAddress(), session.getIpAddress())
+                    || !Objects.equals(entry.session.getUserAgent(), session.getUserAgent());
+            entry.session.setIpAddress(session.getIpAddress());
+            entry.session.setUserAgent(session.getUserAgent());
+            if (session.getLastActivity() != null) {
+                entry.lastActivityMillis = Math.max(entry.lastActivityMillis, toMillis(session.getLastActivity()));
+            }
+            if (ending) {
+                entry.session.setIsActive("N");
+                entry.ended = true;
+            }
+        }
+        if (ending) {
+            sessions.remove(sessionId, entry);
+            dirty.remove(sessionId);
+            expiry.cancel(EXPIRY_KIND, sessionId);
+            return sessionDAO.updateSession(entry.snapshot());
+        }
+        dirty.add(sessionId);
+        return !clientChanged || sessionDAO.updateSession(entry.snapshot());
+    }
+
+    /**
+     * Forget a session and delete its row
+     */
+    public boolean delete(String sessionId) {
+        end(sessions.remove(sessionId));
+        expiry.cancel(EXPIRY_KIND, sessionId);
+        dirty.remove(sessionId);
+        return sessionDAO.deleteSession(sessionId);
+    }
+
+    /**
+     * Forget every session of a user and delete their rows
+     */
+    public boolean deleteAllForUser(String userId) {
+        for (Iterator<Entry> it = sessions.values().iterator(); it.hasNext(); ) {
+            Entry entry = it.next();
+            if (userId.equals(entry.session.getCustomerId())) {
+                it.remove();
+                end(entry);
+                dirty.remove(entry.session.getSessionId());
+                expiry.cancel(EXPIRY_KIND, entry.session.getSessionId());
+            }
+        }
+        return sessionDAO.deleteAllUserSessions(userId);
+    }
+
+    /**
+     * Number of live sessions held by this node
+     */
+    public long activeCount() {
+        return sessions.size();
+    }
+
+    /**
+     * Write every pending last activity to the table
+     */
+    public void flush() {
+        Map<String, LocalDateTime> batch = new HashMap<>();
+        for (Iterator<String> it = dirty.iterator(); it.hasNext(); ) {
+            String sessionId = it.next();
+            it.remove();
+            Entry entry = sessions.get(sessionId);
+            if (entry != null) {
+                batch.put(sessionId, entry.snapshot().getLastActivity());
+            }
+            if (batch.size() == FLUSH_CHUNK) {
+                write(batch);
+                batch = new HashMap<>();
+            }
+        }
+        write(batch);
+    }
+
+    /**
+     * Drop the held sessions whose row was ended or deleted elsewhere
+     */
+    public void recheck() {
+        List<String> held = new ArrayList<>(sessions.keySet());
+        for (int from = 0; from < held.size(); from += FLUSH_CHUNK) {
+            List<String> chunk = held.subList(from, Math.min(from + FLUSH_CHUNK, held.size()));
+            Set<String> active = sessionDAO.findActiveSessionIds(chunk);
+            if (active == null) {
+                // Keep them until the table can be read
+                return;
+            }
+            for (String sessionId : chunk) {
+                if (!active.contains(sessionId)) {
+                    evict(sessionId);
+                }
+            }
+        }
+    }
+
+    /**
+     * Stop the flush thread after a final flush
+     */
+    public void shutdown() {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    // Entry of a live session, loading it from the table if this node does not hold it
+    private Entry live(String sessionId) {
+        Entry entry = sessions.get(sessionId);
+        if (entry == null) {
+            Session stored = sessionDAO.getSession(sessionId);
+            if (stored == null || !"Y".equals(stored.getIsActive()) || stored.getLastActivity() == null) {
+                return null;
+            }
+            Entry loaded = new Entry(stored);
+            entry = sessions.putIfAbsent(sessionId, loaded);
+            if (entry == null) {
+                entry = loaded;
+                schedule(sessionId, entry.deadline(timeoutMillis));
+            }
+        }
+        synchronized (entry) {
+            if (entry.ended) {
+                return null;
+            }
+        }
+        if (entry.deadline(timeoutMillis) <= System.currentTimeMillis()) {
+            // Expired but not yet reached by the scheduler
+            return null;
+        }
+        return entry;
+    }
+
+    private void schedule(String sessionId, long deadlineMillis) {
+        expiry.schedule(EXPIRY_KIND, sessionId, deadlineMillis);
+    }
+
+    // Forget a session without writing it
+    private void evict(String sessionId) {
+        Entry entry = sessions.remove(sessionId);
+        if (entry != null) {
+            end(entry);
+            dirty.remove(sessionId);
+            expiry.cancel(EXPIRY_KIND, sessionId);
+            logger.fine("Session " + sessionId + " is no longer active in the table, dropped");
+        }
+    }
+
+    private void end(Entry entry) {
+        if (entry != null) {
+            synchronized (entry) {
+                entry.ended = true;
+            }
+        }
+    }
+
+    // Sessions whose scheduled deadline came up: expire the idle ones, reschedule those touched since
+    private void expire(List<String> sessionIds) {
+        long now = System.currentTimeMillis();
+        List<String> expired = new ArrayList<>();
+        for (String sessionId : sessionIds) {
+            Entry entry = sessions.get(sessionId);
+            if (entry == null) {
+                continue;
+            }
+            long deadline = entry.deadline(timeoutMillis);
+            if (deadline > now) {
+                schedule(sessionId, deadline);
+            } else if (sessions.remove(sessionId, entry)) {
+                end(entry);
+                dirty.remove(sessionId);
+                expired.add(sessionId);
+            }
+        }
+        if (!expired.isEmpty()) {
+            sessionDAO.deactivateSessions(expired);
+            logger.fine("Expired " + expired.size() + " sessions");
+        }
+    }
+
+    private void write(Map<String, LocalDateTime> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        Set<String> missing = sessionDAO.updateLastActivity(batch);
+        if (missing == null) {
+            // Keep them for the next flush
+            for (String sessionId : batch.keySet()) {
+                if (sessions.containsKey(sessionId)) {
+                    dirty.add(sessionId);
+                }
+            }
+            logger.warning("Session flush failed, " + batch.size() + " sessions will be retried");
+            return;
+        }
+        for (String sessionId : missing) {
+            evict(sessionId);
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            logger.log(Level.SEVERE, "Session flush failed", e);
+        }
+    }
+
+    private void recheckQuietly() {
+        try {
+            recheck();
+        } catch (Exception e) {
+            logger.log(Level.SEVERE, "Session recheck failed", e);
+        }
+    }
+
+    private static Session copyOf(Session session) {
+        Session copy = new Session(session.getSessionId(), session.getCustomerId(), session.getUserType());
+        copy.setLoginTime(session.getLoginTime());
+        copy.setLastActivity(session.getLastActivity());
+        copy.setIsActive(session.getIsActive());
+        copy.setIpAddress(session.getIpAddress());
+        copy.setUserAgent(session.getUserAgent());
+        return copy;
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZONE).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime toLocalDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZONE);
+    }
+}
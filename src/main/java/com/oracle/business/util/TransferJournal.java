@@ -0,0 +1,339 @@
+package com.oracle.business.util;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only write-ahead journal of money movements.
+ *
+ * The journal is split into numbered, fixed-size segments that are memory-mapped
+ * and filled with fixed-layout binary records. A writer copies its record into the
+ * mapping and then waits for the record to be durable; whichever writer finds no
+ * sync in progress forces the mapping for everyone written so far (group commit),
+ * so concurrent movements share one fsync.
+ *
+ * A segment is deleted once every entry in it has been committed to the database.
+ * Segments left behind by a crash are read back on startup and replayed.
+ */
+public class TransferJournal {
+
+    private static final Logger logger = Logger.getLogger(TransferJournal.class.getName());
+    private static final String SEGMENT_PREFIX = "transfer-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+
+    // Record layout: crc32 of the payload, format version, then the payload from PAYLOAD_OFFSET
+    static final int RECORD_SIZE = 512;
+    private static final int PAYLOAD_OFFSET = 8;
+    private static final byte FORMAT_VERSION = 1;
+
+    // Fixed field widths in bytes, sized from the transactions table columns
+    private static final int ID_BYTES = 25;
+    private static final int REF_BYTES = 30;
+    private static final int ACCOUNT_BYTES = 20;
+    private static final int METHOD_BYTES = 10;
+    private static final int REMARKS_BYTES = 320;
+
+    private static final int SEGMENT_RECORDS = Integer.getInteger("banking.journal.segmentRecords", 8192);
+
+    /**
+     * One journalled money movement
+     */
+    public static class Entry {
+        public static final char TRANSFER = 'T';
+        public static final char CREDIT = 'C';
+        public static final char DEBIT = 'D';
+
+        private final char kind;
+        private final String debitTransactionId;
+        private final String creditTransactionId;
+        private final String transactionRefNo;
+        private final String fromAccount;
+        private final String toAccount;
+        private final BigDecimal amount;
+        private final String transferMethod;
+        private final String remarks;
+        private final long timestamp;
+
+        public Entry(char kind, String debitTransactionId, String creditTransactionId, String transactionRefNo,
+                     String fromAccount, String toAccount, BigDecimal amount, String transferMethod,
+                     String remarks, long timestamp) {
+            this.kind = kind;
+            this.debitTransactionId = debitTransactionId;
+            this.creditTransactionId = creditTransactionId;
+            this.transactionRefNo = transactionRefNo;
+            this.fromAccount = fromAccount;
+            this.toAccount = toAccount;
+            this.amount = amount;
+            this.transferMethod = transferMethod;
+            this.remarks = remarks;
+            this.timestamp = timestamp;
+        }
+
+        public char getKind() { return kind; }
+        public String getDebitTransactionId() { return debitTransactionId; }
+        public String getCreditTransactionId() { return creditTransactionId; }
+        public String getTransactionRefNo() { return transactionRefNo; }
+        public String getFromAccount() { return fromAccount; }
+        public String getToAccount() { return toAccount; }
+        public BigDecimal getAmount() { return amount; }
+        public String getTransferMethod() { return transferMethod; }
+        public String getRemarks() { return remarks; }
+        public long getTimestamp() { return timestamp; }
+
+        /**
+         * Id of the first ledger row this entry produces, used to detect entries already in the database
+         */
+        public String getPrimaryTransactionId() {
+            return kind == CREDIT ? creditTransactionId : debitTransactionId;
+        }
+
+        private void encode(ByteBuffer record) {
+            record.put(PAYLOAD_OFFSET - 4, FORMAT_VERSION);
+            record.position(PAYLOAD_OFFSET);
+            record.put((byte) kind);
+            record.putLong(timestamp);
+            // Amounts are kept in minor units (paise); anything finer than two places is rejected
+            record.putLong(amount.setScale(2, RoundingMode.UNNECESSARY).unscaledValue().longValueExact());
+            putField(record, debitTransactionId, ID_BYTES, false);
+            putField(record, creditTransactionId, ID_BYTES, false);
+            putField(record, transactionRefNo, REF_BYTES, false);
+            putField(record, fromAccount, ACCOUNT_BYTES, false);
+            putField(record, toAccount, ACCOUNT_BYTES, false);
+            putField(record, transferMethod, METHOD_BYTES, false);
+            // Remarks are only needed to rebuild ledger rows after a crash, so they may be cut short
+            putField(record, remarks, REMARKS_BYTES, true);
+            record.putInt(0, checksum(record));
+        }
+
+        private static Entry decode(ByteBuffer record) {
+            record.position(PAYLOAD_OFFSET);
+            char kind = (char) record.get();
+            long timestamp = record.getLong();
+            BigDecimal amount = BigDecimal.valueOf(record.getLong(), 2);
+            String debitId = getField(record, ID_BYTES);
+            String creditId = getField(record, ID_BYTES);
+            String refNo = getField(record, REF_BYTES);
+            String from = getField(record, ACCOUNT_BYTES);
+            String to = getField(record, ACCOUNT_BYTES);
+            String method = getField(record, METHOD_BYTES);
+            String remarks = getField(record, REMARKS_BYTES);
+            return new Entry(kind, debitId, creditId, refNo, from, to, amount, method, remarks, timestamp);
+        }
+    }
+
+    private final Path directory;
+    private long segmentNumber;
+    private Path activeSegment;
+    private FileChannel channel;
+    private MappedByteBuffer mapping;
+    private final ByteBuffer scratch = ByteBuffer.allocate(RECORD_SIZE);
+
+    // Guarded by this: records copied into the active mapping so far, across all segments
+    private long writtenSequence;
+
+    // Guarded by syncLock: records known to be on disk, and whether a writer is forcing right now
+    private final Object syncLock = new Object();
+    private long durableSequence;
+    private boolean syncing;
+
+    public TransferJournal(Path directory) throws IOException {
+        this.directory = directory;
+        Files.createDirectories(directory);
+        List<Path> existing = segments();
+        this.segmentNumber = existing.isEmpty() ? 0 : segmentNumberOf(existing.get(existing.size() - 1));
+        openNextSegment();
+    }
+
+    /**
+     * Append an entry and return once it is on disk
+     */
+    public void append(Entry entry) throws IOException {
+        long sequence;
+        synchronized (this) {
+            if (!mapping.hasRemaining()) {
+                // A full segment is forced before it is closed, so earlier writers stay covered
+                mapping.force();
+                closeActiveSegment();
+                openNextSegment();
+            }
+            Arrays.fill(scratch.array(), (byte) 0);
+            scratch.clear();
+            entry.encode(scratch);
+            scratch.clear();
+            mapping.put(scratch);
+            sequence = ++writtenSequence;
+        }
+        awaitDurable(sequence);
+    }
+
+    /**
+     * Close the active segment and start a new one
+     * @return the closed segment, to be discarded once its entries are committed
+     */
+    public synchronized Path roll() throws IOException {
+        Path closed = activeSegment;
+        mapping.force();
+        closeActiveSegment();
+        openNextSegment();
+        return closed;
+    }
+
+    /**
+     * Delete a closed segment whose entries are all in the database
+     */
+    public void discard(Path segment) throws IOException {
+        Files.deleteIfExists(segment);
+    }
+
+    /**
+     * All closed segments left over from a previous run, oldest first
+     */
+    public synchronized List<Path> closedSegments() throws IOException {
+        List<Path> closed = segments();
+        closed.remove(activeSegment);
+        return closed;
+    }
+
+    /**
+     * Read every complete entry of the given segment
+     */
+    public List<Entry> read(Path segment) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        try (FileChannel in = FileChannel.open(segment, StandardOpenOption.READ)) {
+            MappedByteBuffer data = in.map(FileChannel.MapMode.READ_ONLY, 0, in.size());
+            ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+            while (data.remaining() >= RECORD_SIZE) {
+                record.clear();
+                data.get(record.array());
+                // Unused space is zero-filled and a torn record fails its checksum; either way nothing
+                // after it was ever acknowledged
+                if (record.get(PAYLOAD_OFFSET - 4) != FORMAT_VERSION || record.getInt(0) != checksum(record)) {
+                    break;
+                }
+                entries.add(Entry.decode(record));
+            }
+        }
+        return entries;
+    }
+
+    public synchronized void close() throws IOException {
+        mapping.force();
+        closeActiveSegment();
+    }
+
+    private void awaitDurable(long sequence) throws IOException {
+        synchronized (syncLock) {
+            while (durableSequence < sequence && syncing) {
+                try {
+                    syncLock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted waiting for journal sync", e);
+                }
+            }
+            if (durableSequence >= sequence) {
+                return;
+            }
+            syncing = true;
+        }
+
+        // This writer leads the next group: everything written up to now goes out in one force
+        long target = 0;
+        try {
+            long written;
+            MappedByteBuffer toForce;
+            synchronized (this) {
+                written = writtenSequence;
+                toForce = mapping;
+            }
+            toForce.force();
+            target = written;
+        } finally {
+            synchronized (syncLock) {
+                syncing = false;
+                durableSequence = Math.max(durableSequence, target);
+                syncLock.notifyAll();
+            }
+        }
+    }
+
+    private void openNextSegment() throws IOException {
+        segmentNumber++;
+        activeSegment = directory.resolve(String.format("%s%012d%s", SEGMENT_PREFIX, segmentNumber, SEGMENT_SUFFIX));
+        channel = FileChannel.open(activeSegment, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        mapping = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) SEGMENT_RECORDS * RECORD_SIZE);
+    }
+
+    private void closeActiveSegment() throws IOException {
+        channel.close();
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(p -> {
+                        String name = p.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted()
+                    .collect(Collectors.toCollection(ArrayList::new));
+        }
+    }
+
+    private static long segmentNumberOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static int checksum(ByteBuffer record) {
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), record.arrayOffset() + PAYLOAD_OFFSET, RECORD_SIZE - PAYLOAD_OFFSET);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Write a string as a two-byte length (-1 for null) followed by a zero-padded slot of the given width
+     */
+    private static void putField(ByteBuffer record, String value, int width, boolean truncate) {
+        byte[] bytes = value != null ? value.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        if (bytes.length > width) {
+            if (!truncate) {
+                throw new IllegalArgumentException("Journal field longer than " + width + " bytes: " + value);
+            }
+            int end = width;
+            // Do not cut a multi-byte character in half
+            while (end > 0 && (bytes[end] & 0xC0) == 0x80) {
+                end--;
+            }
+            bytes = Arrays.copyOf(bytes, end);
+        }
+        record.putShort((short) (value == null ? -1 : bytes.length));
+        record.put(bytes);
+        record.position(record.position() + width - bytes.length);
+    }
+
+    private static String getField(ByteBuffer record, int width) {
+        short length = record.getShort();
+        int start = record.position();
+        record.position(start + width);
+        if (length < 0) {
+            return null;
+        }
+        return new String(record.array(), record.arrayOffset() + start, length, StandardCharsets.UTF_8);
+    }
+}
@@ -1,10 +1,20 @@
 package com.oracle.controller;
 
 import com.oracle.beans.AccountCreationRequest;
+import com.oracle.beans.dto.AccountRequestSummary;
 import com.oracle.business.AccountCreationRequestService;
 import com.oracle.business.util.ServiceFactory;
+import com.oracle.dao.util.ChangeVersions;
+import com.oracle.filter.ConditionalGet;
+import com.oracle.filter.RequestTransaction;
+import com.oracle.provider.RowListing;
+import com.oracle.provider.RowListingWriter;
+import com.oracle.provider.RowWriters;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
 
 import java.math.BigDecimal;
@@ -100,8 +110,10 @@ public class AccountCreationRequestRestController {
         }
     }
 
+    // ✅ Approval, customer, login and account are saved together or not at all
     @POST
     @Path("/approve")
+    @RequestTransaction
     @Produces(MediaType.APPLICATION_JSON)
     @Consumes(MediaType.APPLICATION_JSON)
     public Response approveRequest(ApproveRequestDTO dto) {
@@ -123,24 +135,30 @@ public class AccountCreationRequestRestController {
 
     @GET
     @Path("/status/{status}")
-    @Produces(MediaType.APPLICATION_JSON)
+    @Produces({MediaType.APPLICATION_JSON, RowListingWriter.APPLICATION_CBOR})
     public Response getRequestsByStatus(@PathParam("status") String status) {
-        List<AccountCreationRequest> requests = accountReqService.getRequestsByStatus(status);
-        return Response.status(200).entity(requests).build();
+        List<AccountRequestSummary> requests = accountReqService.getRequestSummariesByStatus(status);
+        return Response.status(200).entity(RowListing.array(requests, RowWriters.ACCOUNT_REQUEST_SUMMARY)).build();
     }
     
     @GET
     @Path("/pending")
-    @Produces(MediaType.APPLICATION_JSON)
-    public Response getPendingRequests() {
-        List<AccountCreationRequest> requests = accountReqService.getRequestsByStatus("PENDING");
+    @Produces({MediaType.APPLICATION_JSON, RowListingWriter.APPLICATION_CBOR})
+    public Response getPendingRequests(@Context Request request) {
+        EntityTag tag = ConditionalGet.tagFor(ChangeVersions.ACCOUNT_REQUESTS);
+        Response notModified = ConditionalGet.notModified(request, tag);
+        if (notModified != null) {
+            return notModified;
+        }
+
+        List<AccountRequestSummary> requests = accountReqService.getRequestSummariesByStatus("PENDING");
 
         if (requests == null || requests.isEmpty()) {
-            return Response.status(Response.Status.NO_CONTENT).build(); 
+            return ConditionalGet.tagged(Response.status(Response.Status.NO_CONTENT), tag).build(); 
             // 204 No Content if nothing found
         }
 
-        return Response.ok(requests).build(); 
-        // 200 OK with JSON array of AccountCreationRequest
+        return ConditionalGet.tagged(Response.ok(RowListing.array(requests, RowWriters.ACCOUNT_REQUEST_SUMMARY)), tag).build(); 
+        // 200 OK with array of AccountRequestSummary
     }
 }
@@ -5,8 +5,13 @@ import java.util.Map;
 import com.oracle.beans.AdminUser;
 import com.oracle.business.AdminUserService;
 import com.oracle.business.util.ServiceFactory;
+import com.oracle.dao.util.ChangeVersions;
+import com.oracle.filter.ConditionalGet;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
 
 @Path("/v1/admin")
@@ -34,14 +39,20 @@ public class AdminRestController {
                            .build();
         }
 
-        boolean isAuthenticated = adminService.authenticate(username, password);
+        AdminUserService.AuthStatus status = adminService.authenticate(username, password);
 
-        if (isAuthenticated) {
+        if (status == AdminUserService.AuthStatus.SUCCESS) {
             return Response.ok(Map.of(
                 "success", true,
                 "message", "Login successful",
                 "username", username
             )).build();
+        } else if (status == AdminUserService.AuthStatus.BUSY) {
+            // ✅ The password was not checked, so this is no failed login
+            return Response.status(Response.Status.TOO_MANY_REQUESTS)
+                           .header("Retry-After", 1)
+                           .entity(Map.of("success", false, "error", "Too many login attempts, try again later"))
+                           .build();
         } else {
             return Response.status(Response.Status.UNAUTHORIZED)
                            .entity(Map.of("success", false, "error", "Invalid username or password"))
@@ -53,8 +64,13 @@ public class AdminRestController {
     @GET
     @Path("/{username}")
     @Produces(MediaType.APPLICATION_JSON)
-    public Response getAdmin(@PathParam("username") String username) {
+    public Response getAdmin(@PathParam("username") String username, @Context Request request) {
+        EntityTag tag = ConditionalGet.tagFor(ChangeVersions.ADMINS);
+        Response notModified = ConditionalGet.notModified(request, tag);
+        if (notModified != null) {
+            return notModified;
+        }
         AdminUser admin = adminService.getAdminByUsername(username);
-        return Response.status(200).entity(admin).build();
+        return ConditionalGet.tagged(Response.status(200).entity(admin), tag).build();
     }
 }
@@ -2,20 +2,37 @@ package com.oracle.controller;
 
 import com.oracle.beans.BankAccount;
 import com.oracle.beans.Transaction;
+import com.oracle.beans.TransactionWithType;
+import com.oracle.beans.dto.AccountSummary;
+import com.oracle.beans.dto.TransactionSummary;
 import com.oracle.business.BankingService;
 import com.oracle.business.util.ServiceFactory;
+import com.oracle.provider.RowListing;
+import com.oracle.provider.RowListingWriter;
+import com.oracle.provider.RowWriters;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
 import java.util.List;
 import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 @Path("/v1/banking")
 public class BankingRestController {
 
+    private static final Logger logger = Logger.getLogger(BankingRestController.class.getName());
+
+    private static final int DEFAULT_STATEMENT_PAGE_SIZE = 100;
+    private static final int MAX_STATEMENT_PAGE_SIZE = 1000;
+
     private BankingService bankingService = ServiceFactory.getBankingService();
     // DTO for request body
     public static class BalanceRequest {
@@ -29,6 +46,8 @@ public class BankingRestController {
         private String fromDate; // format: yyyy-MM-dd
         private String toDate;   // format: yyyy-MM-dd
         public String customerId;
+        private Integer pageSize; // paged statement only, defaults to 100
+        private String cursor;    // nextCursor of the previous page, absent for the first page
 
 
         public String getAccountNumber() { return accountNumber; }
@@ -42,6 +61,12 @@ public class BankingRestController {
         
         public String getCustomerId() { return customerId; }
         public void setCustomerId(String customerId) { this.customerId = customerId; }
+
+        public Integer getPageSize() { return pageSize; }
+        public void setPageSize(Integer pageSize) { this.pageSize = pageSize; }
+
+        public String getCursor() { return cursor; }
+        public void setCursor(String cursor) { this.cursor = cursor; }
     }
     
     public static class AccountOwnershipRequest {
@@ -156,20 +181,17 @@ public class BankingRestController {
         }
 
         try {
-            // 🔒 Ownership validation
-            boolean isOwner = bankingService.doesAccountBelongToCustomer(fromAccount, customerId);
-            if (!isOwner) {
-                return Response.status(Response.Status.FORBIDDEN)
-                               .entity(Map.of("success", false, "error", "You are not authorized to transfer funds from this account."))
-                               .build();
-            }
-
-            // 🔄 Proceed with transfer
-            String result = bankingService.transferFunds(fromAccount, toAccount, amount, method, remarks);
+            // 🔄 Proceed with transfer; ownership is checked against the same account snapshot
+            String result = bankingService.transferFunds(fromAccount, toAccount, amount, method, remarks, customerId);
 
             switch (result) {
                 case "SUCCESS":
                     return Response.ok(Map.of("success", true, "message", "Transfer successful.")).build();
+                case "NOT_OWNER":
+                    // 🔒 Ownership validation
+                    return Response.status(Response.Status.FORBIDDEN)
+                                   .entity(Map.of("success", false, "error", "You are not authorized to transfer funds from this account."))
+                                   .build();
                 case "INVALID_AMOUNT_FOR_METHOD":
                     return Response.status(Response.Status.BAD_REQUEST)
                                    .entity(Map.of("success", false, "error", "Invalid amount for the selected transfer method."))
@@ -186,6 +208,11 @@ public class BankingRestController {
                     return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
                                    .entity(Map.of("success", false, "error", "Transfer failed due to system error."))
                                    .build();
+                case "SYSTEM_ERROR":
+                    // ✅ The accounts could not be checked; no money was moved
+                    return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                                   .entity(Map.of("success", false, "error", "Transfer could not be processed, please try again."))
+                                   .build();
                 default:
                     return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
                                    .entity(Map.of("success", false, "error", "Unknown error: " + result))
@@ -198,6 +225,49 @@ public class BankingRestController {
         }
     }
 
+    // ✅ Most recent transactions of an account, newest first
+    @POST
+    @Path("/transactions/recent")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces({MediaType.APPLICATION_JSON, RowListingWriter.APPLICATION_CBOR})
+    public Response getRecentTransactions(BalanceRequest request, @QueryParam("limit") @DefaultValue("10") int limit) {
+        if (request == null ||
+            request.accountNumber == null || request.accountNumber.isEmpty() ||
+            request.customerId == null || request.customerId.isEmpty()) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                           .entity(Map.of("success", false, "message", "Account number and customerId are required"))
+                           .build();
+        }
+        if (limit < 1 || limit > 100) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                           .entity(Map.of("success", false, "message", "limit must be between 1 and 100"))
+                           .build();
+        }
+
+        try {
+            if (!bankingService.doesAccountBelongToCustomer(request.accountNumber, request.customerId)) {
+                return Response.status(Response.Status.FORBIDDEN)
+                               .entity(Map.of("success", false, "message", "You are not authorized to view this account."))
+                               .build();
+            }
+
+            List<TransactionSummary> transactions = bankingService.getRecentTransactionSummaries(request.accountNumber, limit);
+            if (transactions == null) {
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                               .entity(Map.of("success", false, "message", "Server error while fetching transactions"))
+                               .build();
+            }
+            return Response.ok(RowListing.object("transactions", transactions, RowWriters.TRANSACTION_SUMMARY)
+                .with("success", true)
+                .with("accountNumber", request.accountNumber)).build();
+        } catch (Exception e) {
+            logger.log(Level.SEVERE, "Error fetching recent transactions for account " + request.accountNumber, e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                           .entity(Map.of("success", false, "message", "Server error while fetching transactions"))
+                           .build();
+        }
+    }
+
     @POST
     @Path("/balance")
     @Consumes(MediaType.APPLICATION_JSON)
@@ -266,7 +336,7 @@ public class BankingRestController {
     @POST
     @Path("/statement")
     @Consumes(MediaType.APPLICATION_JSON)
-    @Produces(MediaType.APPLICATION_JSON)
+    @Produces({MediaType.APPLICATION_JSON, RowListingWriter.APPLICATION_CBOR})
     public Response getAccountStatement(AccountStatementRequest request) {
         try {
             // ✅ Validate input
@@ -320,17 +390,149 @@ public class BankingRestController {
                                .build();
             }
 
+            return Response.ok(RowListing.object("transactions", transactions, RowWriters.TRANSACTION)
+                .with("success", true)
+                .with("accountNumber", request.getAccountNumber())
+                .with("customerId", request.getCustomerId())
+                .with("fromDate", fromDate.toString())
+                .with("toDate", toDate.toString())).build();
+
+        } catch (Exception e) {
+            e.printStackTrace();
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                           .entity(Map.of(
+                               "success", false,
+                               "message", "Server error while fetching account statement"
+                           ))
+                           .build();
+        }
+    }
+
+
+    // ✅ Statement entries marked DEBIT/CREDIT with their counterparty
+    @POST
+    @Path("/statement/entries")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getStatementEntries(AccountStatementRequest request) {
+        try {
+            Response invalid = checkStatementRequest(request);
+            if (invalid != null) {
+                return invalid;
+            }
+
+            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+            LocalDate fromDate = LocalDate.parse(request.getFromDate(), formatter);
+            LocalDate toDate = LocalDate.parse(request.getToDate(), formatter);
+
+            List<TransactionWithType> entries = bankingService.getStatementEntries(
+                request.getAccountNumber(), fromDate, toDate);
+            if (entries == null) {
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                               .entity(Map.of("success", false, "message", "Server error while fetching account statement"))
+                               .build();
+            }
+
             return Response.ok(Map.of(
                 "success", true,
                 "accountNumber", request.getAccountNumber(),
-                "customerId", request.getCustomerId(),
                 "fromDate", fromDate.toString(),
                 "toDate", toDate.toString(),
-                "transactions", transactions
+                "entries", entries
             )).build();
 
+        } catch (DateTimeParseException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                           .entity(Map.of("success", false, "message", "Dates must be in yyyy-MM-dd format"))
+                           .build();
         } catch (Exception e) {
-            e.printStackTrace();
+            logger.log(Level.SEVERE, "Error fetching statement entries for account " + request.getAccountNumber(), e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                           .entity(Map.of(
+                               "success", false,
+                               "message", "Server error while fetching account statement"
+                           ))
+                           .build();
+        }
+    }
+
+    // ✅ Paged Account Statement API (keyset pagination, newest first)
+    @POST
+    @Path("/statement/page")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces({MediaType.APPLICATION_JSON, RowListingWriter.APPLICATION_CBOR})
+    public Response getAccountStatementPage(AccountStatementRequest request) {
+        try {
+            Response invalid = checkStatementRequest(request);
+            if (invalid != null) {
+                return invalid;
+            }
+
+            int pageSize = request.getPageSize() != null ? request.getPageSize() : DEFAULT_STATEMENT_PAGE_SIZE;
+            if (pageSize < 1 || pageSize > MAX_STATEMENT_PAGE_SIZE) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                               .entity(Map.of(
+                                   "success", false,
+                                   "message", "pageSize must be between 1 and " + MAX_STATEMENT_PAGE_SIZE
+                               ))
+                               .build();
+            }
+
+            // 🔖 Decode the cursor: "<transactionDate>|<transactionId>" of the last row already returned
+            LocalDateTime afterDate = null;
+            String afterId = null;
+            if (request.getCursor() != null && !request.getCursor().isBlank()) {
+                try {
+                    String decoded = new String(Base64.getUrlDecoder().decode(request.getCursor()), StandardCharsets.UTF_8);
+                    int split = decoded.indexOf('|');
+                    afterDate = LocalDateTime.parse(decoded.substring(0, split));
+                    afterId = decoded.substring(split + 1);
+                } catch (RuntimeException e) {
+                    return Response.status(Response.Status.BAD_REQUEST)
+                                   .entity(Map.of("success", false, "message", "Invalid cursor"))
+                                   .build();
+                }
+            }
+
+            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+            LocalDate fromDate = LocalDate.parse(request.getFromDate(), formatter);
+            LocalDate toDate = LocalDate.parse(request.getToDate(), formatter);
+
+            // One extra row tells us whether another page follows
+            List<Transaction> transactions = bankingService.getAccountStatementPage(
+                request.getAccountNumber(), fromDate, toDate, afterDate, afterId, pageSize + 1);
+            if (transactions == null) {
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                               .entity(Map.of("success", false, "message", "Server error while fetching account statement"))
+                               .build();
+            }
+
+            boolean hasMore = transactions.size() > pageSize;
+            if (hasMore) {
+                transactions = transactions.subList(0, pageSize);
+            }
+
+            RowListing<Transaction> body = RowListing.object("transactions", transactions, RowWriters.TRANSACTION)
+                .with("success", true)
+                .with("accountNumber", request.getAccountNumber())
+                .with("customerId", request.getCustomerId())
+                .with("fromDate", fromDate.toString())
+                .with("toDate", toDate.toString())
+                .with("hasMore", hasMore);
+            if (hasMore) {
+                Transaction last = transactions.get(transactions.size() - 1);
+                String key = last.getTransactionDate() + "|" + last.getTransactionId();
+                body.with("nextCursor", Base64.getUrlEncoder().withoutPadding()
+                        .encodeToString(key.getBytes(StandardCharsets.UTF_8)));
+            }
+            return Response.ok(body).build();
+
+        } catch (DateTimeParseException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                           .entity(Map.of("success", false, "message", "Dates must be in yyyy-MM-dd format"))
+                           .build();
+        } catch (Exception e) {
+            logger.log(Level.SEVERE, "Error fetching statement page for account " + request.getAccountNumber(), e);
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
                            .entity(Map.of(
                                "success", false,
@@ -340,9 +542,77 @@ public class BankingRestController {
         }
     }
 
+    // ✅ Streaming Account Statement API: rows are written as they are read, whatever the statement size
+    @POST
+    @Path("/statement/stream")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces({MediaType.APPLICATION_JSON, RowListingWriter.APPLICATION_CBOR})
+    public Response streamAccountStatement(AccountStatementRequest request) {
+        try {
+            Response invalid = checkStatementRequest(request);
+            if (invalid != null) {
+                return invalid;
+            }
+
+            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+            LocalDate fromDate = LocalDate.parse(request.getFromDate(), formatter);
+            LocalDate toDate = LocalDate.parse(request.getToDate(), formatter);
+
+            // Rows are pulled from the database while the response is being written
+            RowListing<Transaction> listing = RowListing.<Transaction>object("transactions",
+                    sink -> bankingService.streamAccountStatement(request.getAccountNumber(), fromDate, toDate, sink::accept),
+                    RowWriters.TRANSACTION)
+                .with("success", true)
+                .with("accountNumber", request.getAccountNumber())
+                .with("customerId", request.getCustomerId())
+                .with("fromDate", fromDate.toString())
+                .with("toDate", toDate.toString());
+            return Response.ok(listing).build();
+
+        } catch (DateTimeParseException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                           .entity(Map.of("success", false, "message", "Dates must be in yyyy-MM-dd format"))
+                           .build();
+        } catch (Exception e) {
+            logger.log(Level.SEVERE, "Error streaming statement for account " + request.getAccountNumber(), e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                           .entity(Map.of(
+                               "success", false,
+                               "message", "Server error while fetching account statement"
+                           ))
+                           .build();
+        }
+    }
+
+    // Required fields and ownership check shared by the statement endpoints; null when the request may proceed
+    private Response checkStatementRequest(AccountStatementRequest request) {
+        if (request == null ||
+            request.getAccountNumber() == null || request.getAccountNumber().trim().isEmpty() ||
+            request.getCustomerId() == null || request.getCustomerId().trim().isEmpty() ||
+            request.getFromDate() == null || request.getFromDate().trim().isEmpty() ||
+            request.getToDate() == null || request.getToDate().trim().isEmpty()) {
+
+            return Response.status(Response.Status.BAD_REQUEST)
+                           .entity(Map.of(
+                               "success", false,
+                               "message", "Missing required fields: accountNumber, customerId, fromDate, toDate"
+                           ))
+                           .build();
+        }
+        if (!bankingService.doesAccountBelongToCustomer(request.getAccountNumber(), request.getCustomerId())) {
+            return Response.status(Response.Status.FORBIDDEN)
+                           .entity(Map.of(
+                               "success", false,
+                               "message", "You are not authorized to view this account statement"
+                           ))
+                           .build();
+        }
+        return null;
+    }
     
     @POST
     @Path("/accounts")
+    @Produces({MediaType.APPLICATION_JSON, RowListingWriter.APPLICATION_CBOR})
     public Response getCustomerAccounts(CustomerRequest request) {
         try {
             if (request == null || request.getCustomerId() == null || request.getCustomerId().trim().isEmpty()) {
@@ -351,7 +621,7 @@ public class BankingRestController {
                                .build();
             }
 
-            List<BankAccount> accounts = bankingService.getCustomerAccounts(request.getCustomerId());
+            List<AccountSummary> accounts = bankingService.getCustomerAccountSummaries(request.getCustomerId());
 
             if (accounts == null || accounts.isEmpty()) {
                 return Response.status(Response.Status.NOT_FOUND)
@@ -359,7 +629,7 @@ public class BankingRestController {
                                .build();
             }
 
-            return Response.ok(accounts).build();
+            return Response.ok(RowListing.array(accounts, RowWriters.ACCOUNT_SUMMARY)).build();
 
         } catch (Exception e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
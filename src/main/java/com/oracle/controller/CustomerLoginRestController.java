@@ -13,7 +13,9 @@ import com.oracle.business.util.EmailUtil;
 import com.oracle.business.util.ServiceFactory;
 
 import jakarta.mail.MessagingException;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 
@@ -44,7 +46,7 @@ public class CustomerLoginRestController {
     @Path("/login")
     @Produces(MediaType.APPLICATION_JSON)
     @Consumes(MediaType.APPLICATION_JSON)
-    public Response login(Map<String, Object> jsonBody) {
+    public Response login(Map<String, Object> jsonBody, @Context HttpServletRequest request) {
         if (jsonBody == null) {
             return Response.status(Response.Status.BAD_REQUEST)
                            .entity(Map.of("error", "Missing request body"))
@@ -60,7 +62,8 @@ public class CustomerLoginRestController {
                            .build();
         }
 
-        AuthResult auth = customerLoginService.authenticate(customerId, password);
+        // ✅ Throttled per customer and per client IP
+        AuthResult auth = customerLoginService.authenticate(customerId, password, clientIp(request));
 
         if (auth.isSuccess()) {
             return Response.ok(Map.of(
@@ -68,6 +71,13 @@ public class CustomerLoginRestController {
                 "message", auth.getMessage(),
                 "customerId", customerId
             )).build();
+        } else if (auth.isThrottled()) {
+            return Response.status(Response.Status.TOO_MANY_REQUESTS)
+                           .header("Retry-After", auth.getRetryAfterSeconds())
+                           .entity(Map.of(
+                               "success", false,
+                               "error", auth.getMessage()
+                           )).build();
         } else if (auth.isLocked()) {
             return Response.status(Response.Status.FORBIDDEN)
                            .entity(Map.of(
@@ -82,6 +92,20 @@ public class CustomerLoginRestController {
                            )).build();
         }}
 
+    // Address the login came from; X-Forwarded-For is only trusted with -Dbanking.login.trustForwardedFor=true
+    private static String clientIp(HttpServletRequest request) {
+        if (request == null) {
+            return null;
+        }
+        if (Boolean.getBoolean("banking.login.trustForwardedFor")) {
+            String forwarded = request.getHeader("X-Forwarded-For");
+            if (forwarded != null && !forwarded.isBlank()) {
+                return forwarded.split(",")[0].trim();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
 
 
 
@@ -3,15 +3,24 @@ package com.oracle.controller;
 import com.oracle.beans.AccountCreationRequest;
 import com.oracle.beans.Customer;
 import com.oracle.beans.OtpRequest;
+import com.oracle.beans.dto.CustomerSummary;
 import com.oracle.business.AccountCreationRequestService;
 import com.oracle.business.CustomerLoginService;
 import com.oracle.business.CustomerService;
 import com.oracle.business.util.EmailUtil;
 import com.oracle.business.util.ServiceFactory;
 import com.oracle.dao.OTPDAO;
+import com.oracle.dao.util.ChangeVersions;
+import com.oracle.filter.ConditionalGet;
+import com.oracle.provider.RowListing;
+import com.oracle.provider.RowListingWriter;
+import com.oracle.provider.RowWriters;
 
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
 
 import java.math.BigDecimal;
@@ -83,10 +92,15 @@ private static CustomerLoginService customerLoginService=ServiceFactory.getCusto
     }
     @GET
     @Path("/all")
-    @Produces(MediaType.APPLICATION_JSON)
-    public Response getAllCustomers() {
-        List<Customer> customers = customerService.getAllCustomers();
-        return Response.status(200).entity(customers).build();
+    @Produces({MediaType.APPLICATION_JSON, RowListingWriter.APPLICATION_CBOR})
+    public Response getAllCustomers(@Context Request request) {
+        EntityTag tag = ConditionalGet.tagFor(ChangeVersions.CUSTOMERS);
+        Response notModified = ConditionalGet.notModified(request, tag);
+        if (notModified != null) {
+            return notModified;
+        }
+        List<CustomerSummary> customers = customerService.getAllCustomerSummaries();
+        return ConditionalGet.tagged(Response.status(200).entity(RowListing.array(customers, RowWriters.CUSTOMER_SUMMARY)), tag).build();
     }
     
     // DTO for JSON input
@@ -0,0 +1,61 @@
+package com.oracle.controller;
+
+import com.oracle.business.util.ServiceFactory;
+import com.oracle.dao.util.ConnectionPool;
+import com.oracle.dao.util.JPAUtil;
+import com.oracle.dao.util.LocalCache;
+import com.oracle.lifecycle.StartupListener;
+
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+import java.util.Map;
+
+/**
+ * Operational read-outs for whoever runs the service
+ */
+@Path("/v1/ops")
+public class OpsRestController {
+
+    // ✅ Hit/miss/eviction counters of every in-process cache
+    @GET
+    @Path("/caches")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getCacheStats() {
+        return Response.ok(Map.of("caches", LocalCache.allStats())).build();
+    }
+
+    // ✅ Connection pool occupancy, checkout wait times and timeouts
+    @GET
+    @Path("/pool")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getPoolStats() {
+        ConnectionPool pool = JPAUtil.getConnectionPool();
+        if (pool == null) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity(Map.of("success", false, "message", "Connection pooling is disabled")).build();
+        }
+        return Response.ok(pool.stats()).build();
+    }
+
+    // ✅ Password hashing cost, pool occupancy and busy rejections
+    @GET
+    @Path("/password-hashing")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getPasswordHashingStats() {
+        return Response.ok(ServiceFactory.getPasswordHashing().stats()).build();
+    }
+
+    // ✅ Readiness probe: 200 once startup has finished (also when degraded by a failed cache warm-up), 503 before that or if it failed
+    @GET
+    @Path("/ready")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getReadiness() {
+        StartupListener.Readiness readiness = StartupListener.readiness();
+        return Response.status(readiness.ready() ? Response.Status.OK : Response.Status.SERVICE_UNAVAILABLE)
+                .entity(readiness).build();
+    }
+}
@@ -1,6 +1,7 @@
 package com.oracle.dao;
 
 import com.oracle.beans.AccountCreationRequest;
+import com.oracle.beans.dto.AccountRequestSummary;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -16,6 +17,7 @@ public interface AccountCreationRequestDAO {
 
     // Search Filters
     List<AccountCreationRequest> findByStatus(String status);
+    List<AccountRequestSummary> findSummariesByStatus(String status);
     List<AccountCreationRequest> findByEmail(String email);
     List<AccountCreationRequest> findByMobile(String mobileNumber);
     List<AccountCreationRequest> findByAadhar(String aadharNumber);
@@ -12,7 +12,8 @@ public interface AdminUserDAO {
     boolean deleteAdmin(String adminId);
 
     // Authentication & Status
-    boolean validateLogin(String username, String passwordHash);
+    // Replace the password hash only if it is still currentHash; the password itself is unchanged
+    boolean rehashPassword(String adminId, String currentHash, String newHash);
     boolean updateLastLogin(String adminId);
     boolean changeAdminStatus(String adminId, boolean active);
 
@@ -2,7 +2,9 @@
 package com.oracle.dao;
 
 import com.oracle.beans.BankAccount;
+import com.oracle.beans.dto.AccountSummary;
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 
 public interface BankAccountDAO {
@@ -13,6 +15,7 @@ public interface BankAccountDAO {
     // Read operations
     BankAccount findAccountByNumber(String accountNumber);
     List<BankAccount> findAccountsByCustomerId(String customerId);
+    List<AccountSummary> findAccountSummariesByCustomerId(String customerId);
 //    List<BankAccount> findAccountsByUserId(String userId);
 
     List<BankAccount> findAllAccounts();
@@ -20,6 +23,8 @@ public interface BankAccountDAO {
     List<BankAccount> findActiveAccounts();
     List<BankAccount> findInactiveAccounts();
     BankAccount findAccountByAccountNumber(String accountNumber);
+    // Loads all the given accounts in one query; missing accounts are simply absent, null if the query failed
+    List<BankAccount> findAccountsByNumbers(Collection<String> accountNumbers);
 
     
     // Update operations
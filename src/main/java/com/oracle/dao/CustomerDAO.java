@@ -2,6 +2,7 @@
 package com.oracle.dao;
 
 import com.oracle.beans.Customer;
+import com.oracle.beans.dto.CustomerSummary;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -17,6 +18,7 @@ public interface CustomerDAO {
     Customer findCustomerByMobile(String mobileNumber);
     Customer findCustomerByAadhar(String aadharNumber);
     List<Customer> findAllCustomers();
+    List<CustomerSummary> findAllCustomerSummaries();
     List<Customer> findCustomersByStatus(String status);
     List<Customer> findCreatedBetween(LocalDate startDate, LocalDate endDate);
 
@@ -2,7 +2,9 @@ package com.oracle.dao;
 
 import com.oracle.beans.CustomerLogin;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface CustomerLoginDAO {
 
@@ -16,17 +18,26 @@ public interface CustomerLoginDAO {
 
     // Security / Login management
     boolean updateFailedLoginAttempts(String customerId, int attempts);
+    // In one transaction, zero the counts of resets, then add each increment to the stored count,
+    // one statement per distinct increment; false if nothing was written
+    boolean addFailedLoginAttempts(Collection<String> resets, Map<String, Integer> increments);
     boolean incrementFailedLoginAttempts(String customerId);
     boolean resetFailedLoginAttempts(String customerId);
 
     boolean lockAccount(String customerId, LocalDateTime lockedUntil);
     boolean unlockAccount(String customerId);
+    // Unlock, in one statement, those of the given accounts whose lock has run out; returns the number unlocked
+    int unlockAccounts(Collection<String> customerIds);
+    // Unlock every account whose lock has run out; returns the ids it unlocked
+    List<String> unlockExpiredAccounts();
 
     boolean updateLastLogin(String customerId, LocalDateTime lastLogin);
 
     // Password management
     boolean updateLoginPassword(String customerId, String hashedPassword);
     boolean updateTransactionPassword(String customerId, String hashedPassword);
+    // Replace the login hash only if it is still currentHash; the password itself is unchanged
+    boolean rehashLoginPassword(String customerId, String currentHash, String newHash);
 
     // Internet Banking status
     boolean isInternetBankingEnabled(String customerId);
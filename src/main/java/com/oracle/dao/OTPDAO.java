@@ -1,5 +1,6 @@
 package com.oracle.dao;
 
+import java.util.Collection;
 import java.util.List;
 
 import com.oracle.beans.OtpRequest;
@@ -14,6 +15,9 @@ public interface OTPDAO {
 	OtpRequest getActiveOTPByCustomerIdAndPurpose(String customerId);
 
 	OtpRequest getLatestOTPByCustomerId(String customerId);
+
+	// Mark the given OTPs expired ('E') if still unused, in one statement; returns the number marked
+	int expireOTPs(Collection<String> otpIds);
     
 //    OtpRequest getActiveOTPByMobile(String mobileNumber, String purpose);
 //    
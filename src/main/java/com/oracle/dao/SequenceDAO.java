@@ -0,0 +1,15 @@
+package com.oracle.dao;
+
+/**
+ * Sequence Data Access Object Interface
+ * Reads database sequences used to reserve identifier blocks
+ */
+public interface SequenceDAO {
+
+    /**
+     * Fetch the next value of a database sequence
+     * @param sequenceName name of an existing sequence
+     * @return the next value
+     */
+    long nextValue(String sequenceName);
+}
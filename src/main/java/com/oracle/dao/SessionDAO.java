@@ -1,7 +1,10 @@
 package com.oracle.dao;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import com.oracle.beans.Session;
 
@@ -11,11 +14,19 @@ import com.oracle.beans.Session;
 public interface SessionDAO {
     
     boolean saveSession(Session session);
+    // Writes last activity, active flag and client details of a session that is still active
     boolean updateSession(Session session);
+    // Writes the last activity of several active sessions in one transaction;
+    // returns the ids whose row is gone or no longer active, or null if the write failed
+    Set<String> updateLastActivity(Map<String, LocalDateTime> lastActivity);
+    // The given ids whose row is still active, or null if the query failed
+    Set<String> findActiveSessionIds(Collection<String> sessionIds);
     Session getSession(String sessionId);
     List<Session> getActiveSessionsByUser(String userId);
     List<Session> getExpiredSessions();
     boolean deleteSession(String sessionId);
+    // Marks the given sessions inactive in one statement
+    int deactivateSessions(Collection<String> sessionIds);
     boolean deleteExpiredSessions();
     boolean deleteAllUserSessions(String userId);
     
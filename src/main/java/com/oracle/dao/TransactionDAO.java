@@ -1,15 +1,25 @@
 package com.oracle.dao;
 
 import com.oracle.beans.Transaction;
-import com.oracle.dao.impl.TransactionJPAImpl.TransactionWithType;
+import com.oracle.beans.TransactionWithType;
+import com.oracle.beans.dto.TransactionSummary;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.concurrent.CompletableFuture;
 
 public interface TransactionDAO {
 
+    // Outflows are the completed DEBIT/TRANSFER rows of an account; the CREDIT leg of a
+    // transfer carries the same from-account and must not be counted again
+    List<String> OUTFLOW_TYPES = List.of("DEBIT", "TRANSFER");
+    List<String> COMPLETED_STATUSES = List.of("SUCCESS", "COMPLETED");
+
     // Basic CRUD operations
     Transaction save(Transaction transaction);
     Transaction findById(String transactionId);
@@ -22,6 +32,8 @@ public interface TransactionDAO {
 
     // The methods you stubbed in impl (more detailed queries)
     boolean createTransaction(Transaction transaction);
+    // Queued insert that shares its commit with other concurrent inserts
+    CompletableFuture<Boolean> createTransactionAsync(Transaction transaction);
     Transaction findTransactionById(String transactionId);
     Transaction findTransactionByRefNo(String transactionRefNo);
     List<Transaction> findAllTransactions();
@@ -44,8 +56,33 @@ public interface TransactionDAO {
     BigDecimal getTotalTransactionAmountByAccount(String accountNumber);
     BigDecimal getTotalDebitAmountByAccount(String accountNumber);
     BigDecimal getTotalCreditAmountByAccount(String accountNumber);
+    // SUM(amount) over [start, end) for an optional from-account and type/method/status sets;
+    // null filters are not applied
+    BigDecimal sumAmount(String fromAccountNumber, Collection<String> types, Collection<String> methods,
+                         Collection<String> statuses, LocalDateTime start, LocalDateTime end);
+    // The same sum grouped per calendar day, in date order
+    Map<LocalDate, BigDecimal> sumAmountByDay(String fromAccountNumber, Collection<String> types,
+                                              Collection<String> methods, Collection<String> statuses,
+                                              LocalDateTime start, LocalDateTime end);
+    // The same sum grouped per transfer method
+    Map<String, BigDecimal> sumAmountByMethod(String fromAccountNumber, Collection<String> types,
+                                              Collection<String> methods, Collection<String> statuses,
+                                              LocalDateTime start, LocalDateTime end);
+    // Completed DEBIT/TRANSFER amounts leaving an account in [start, end)
+    BigDecimal sumOutflows(String accountNumber, LocalDateTime start, LocalDateTime end);
+    // The same total for every account with outflows in [start, end), in one grouped query
+    Map<String, BigDecimal> sumOutflowsByAccount(LocalDateTime start, LocalDateTime end);
     List<Transaction> getAccountStatement(String accountNumber, LocalDate fromDate, LocalDate toDate);
+    // Statement rows marked DEBIT/CREDIT with their counterparty, from one ordered query
+    List<TransactionWithType> findStatementWithType(String accountNumber, LocalDate fromDate, LocalDate toDate);
+    // One keyset page of a statement, newest first; pass the date and id of the last row already seen
+    // (both null for the first page) to continue after it
+    List<Transaction> findStatementPage(String accountNumber, LocalDate fromDate, LocalDate toDate,
+                                        LocalDateTime afterDate, String afterId, int limit);
+    // Hands every statement row to the consumer in statement order without holding the statement in memory
+    void streamStatement(String accountNumber, LocalDate fromDate, LocalDate toDate, Consumer<Transaction> consumer);
     List<Transaction> getRecentTransactions(String accountNumber, int limit);
+    List<TransactionSummary> getRecentTransactionSummaries(String accountNumber, int limit);
     List<Transaction> findHighValueTransactions(BigDecimal threshold);
     List<Transaction> findTransactionsByCustomer(String customerId);
 	List<Transaction> findDebitTransactionsByDateRange(String accountNumber, LocalDate fromDate, LocalDate toDate);
@@ -0,0 +1,29 @@
+package com.oracle.dao;
+
+import com.oracle.beans.Transaction;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Transfer Data Access Object Interface
+ * Moves money between two bank accounts as one unit of work
+ */
+public interface TransferDAO {
+
+    /**
+     * Debit the source account, credit the destination account and persist both
+     * ledger rows inside a single database transaction. Opening and closing
+     * balances of the ledger rows are filled in from the rows read in that transaction.
+     * @return true if the transfer was committed, false if nothing was changed
+     */
+    boolean executeTransfer(String fromAccount, String toAccount, BigDecimal amount,
+                            Transaction debitTransaction, Transaction creditTransaction);
+
+    /**
+     * Write a batch of in-memory ledger state in one database transaction:
+     * set each account's balance and persist the ledger rows produced since the last batch.
+     * @return true if the batch was committed
+     */
+    boolean applyLedgerBatch(Map<String, BigDecimal> balances, List<Transaction> entries);
+}
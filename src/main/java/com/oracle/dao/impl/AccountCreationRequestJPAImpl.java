@@ -2,7 +2,9 @@ package com.oracle.dao.impl;
 
 import com.oracle.beans.AccountCreationRequest;
 import com.oracle.beans.AdminUser;
+import com.oracle.beans.dto.AccountRequestSummary;
 import com.oracle.dao.AccountCreationRequestDAO;
+import com.oracle.dao.util.ChangeVersions;
 import com.oracle.dao.util.JPAUtil;
 
 import jakarta.persistence.EntityManager;
@@ -29,6 +31,7 @@ public class AccountCreationRequestJPAImpl implements AccountCreationRequestDAO
             }
             em.persist(request);
             em.getTransaction().commit();
+            ChangeVersions.bump(ChangeVersions.ACCOUNT_REQUESTS);
             logger.info("Account request saved: " + request.getRequestId());
             return true;
         } catch (Exception e) {
@@ -47,6 +50,7 @@ public class AccountCreationRequestJPAImpl implements AccountCreationRequestDAO
             em.getTransaction().begin();
             em.merge(request);
             em.getTransaction().commit();
+            ChangeVersions.bump(ChangeVersions.ACCOUNT_REQUESTS);
             logger.info("Account request updated: " + request.getRequestId());
             return true;
         } catch (Exception e) {
@@ -108,6 +112,28 @@ public class AccountCreationRequestJPAImpl implements AccountCreationRequestDAO
         }
     }
 
+    @Override
+    public List<AccountRequestSummary> findSummariesByStatus(String status) {
+        EntityManager em = JPAUtil.getEntityManager();
+        try {
+            // Outer join so unprocessed requests are kept; only the admin id is read
+            TypedQuery<AccountRequestSummary> q = em.createQuery(
+                "SELECT NEW com.oracle.beans.dto.AccountRequestSummary(r.requestId, r.serviceReferenceNo, " +
+                "r.fullName, r.email, r.mobileNumber, r.accountType, r.initialDeposit, r.status, r.submittedAt, " +
+                "a.adminId, r.processedAt, r.rejectionReason) " +
+                "FROM AccountCreationRequest r LEFT JOIN r.processedBy a " +
+                "WHERE r.status = :status ORDER BY r.submittedAt DESC",
+                AccountRequestSummary.class);
+            q.setParameter("status", status);
+            return q.getResultList();
+        } catch (Exception e) {
+            logger.log(Level.SEVERE, "Error finding request summaries by status", e);
+            return Collections.emptyList();
+        } finally {
+            em.close();
+        }
+    }
+
     @Override
     public List<AccountCreationRequest> findByEmail(String email) {
         EntityManager em = JPAUtil.getEntityManager();
@@ -182,6 +208,7 @@ public class AccountCreationRequestJPAImpl implements AccountCreationRequestDAO
 
                 em.merge(req);
                 em.getTransaction().commit();
+                ChangeVersions.bump(ChangeVersions.ACCOUNT_REQUESTS);
                 logger.info("Approved account request: " + requestId);
                 return true;
             }
@@ -223,6 +250,7 @@ public class AccountCreationRequestJPAImpl implements AccountCreationRequestDAO
 
                 em.merge(req);
                 em.getTransaction().commit();
+                ChangeVersions.bump(ChangeVersions.ACCOUNT_REQUESTS);
                 logger.info("Rejected account request: " + requestId);
                 return true;
             }
@@ -284,6 +312,7 @@ public class AccountCreationRequestJPAImpl implements AccountCreationRequestDAO
             if (req != null) {
                 em.remove(req);
                 em.getTransaction().commit();
+                ChangeVersions.bump(ChangeVersions.ACCOUNT_REQUESTS);
                 logger.info("Deleted request: " + requestId);
                 return true;
             }
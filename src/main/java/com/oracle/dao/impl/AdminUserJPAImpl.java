@@ -3,6 +3,7 @@ package com.oracle.dao.impl;
 
 import com.oracle.beans.AdminUser;
 import com.oracle.dao.AdminUserDAO;
+import com.oracle.dao.util.ChangeVersions;
 import com.oracle.dao.util.JPAUtil;
 
 import jakarta.persistence.*;
@@ -22,6 +23,7 @@ public class AdminUserJPAImpl implements AdminUserDAO {
             admin.setCreatedAt(LocalDateTime.now());
             em.persist(admin);
             em.getTransaction().commit();
+            ChangeVersions.bump(ChangeVersions.ADMINS);
             logger.info("Admin created successfully with ID: " + admin.getAdminId());
             return true;
         } catch (Exception e) {
@@ -50,9 +52,9 @@ public class AdminUserJPAImpl implements AdminUserDAO {
     public AdminUser getAdminByUsername(String username) {
         EntityManager em = JPAUtil.getEntityManager();
         try {
-            TypedQuery<AdminUser> query = em.createQuery(
-                    "SELECT a FROM AdminUser a WHERE a.username = :username", AdminUser.class);
+            TypedQuery<AdminUser> query = em.createNamedQuery("AdminUser.findByUsername", AdminUser.class);
             query.setParameter("username", username);
+            JPAUtil.cacheResults(query);
             return query.getSingleResult();
         } catch (NoResultException e) {
             logger.info("No admin found with username: " + username);
@@ -72,6 +74,7 @@ public class AdminUserJPAImpl implements AdminUserDAO {
             em.getTransaction().begin();
             em.merge(admin);
             em.getTransaction().commit();
+            ChangeVersions.bump(ChangeVersions.ADMINS);
             logger.info("Admin updated successfully: " + admin.getAdminId());
             return true;
         } catch (Exception e) {
@@ -92,6 +95,7 @@ public class AdminUserJPAImpl implements AdminUserDAO {
             if (admin != null) {
                 em.remove(admin);
                 em.getTransaction().commit();
+                ChangeVersions.bump(ChangeVersions.ADMINS);
                 logger.info("Admin deleted: " + adminId);
                 return true;
             }
@@ -108,20 +112,22 @@ public class AdminUserJPAImpl implements AdminUserDAO {
     }
 
     @Override
-    public boolean validateLogin(String username, String passwordHash) {
+    public boolean rehashPassword(String adminId, String currentHash, String newHash) {
         EntityManager em = JPAUtil.getEntityManager();
         try {
-            TypedQuery<AdminUser> query = em.createQuery(
-                    "SELECT a FROM AdminUser a WHERE a.username = :username AND a.passwordHash = :passwordHash AND a.isActive = 'Y'",
-                    AdminUser.class);
-            query.setParameter("username", username);
-            query.setParameter("passwordHash", passwordHash);
-            return query.getSingleResult() != null;
-        } catch (NoResultException e) {
-            logger.info("Invalid login attempt for username: " + username);
-            return false;
+            em.getTransaction().begin();
+            int updated = em.createQuery(
+                    "UPDATE AdminUser a SET a.passwordHash = :newHash WHERE a.adminId = :id AND a.passwordHash = :currentHash")
+                    .setParameter("newHash", newHash)
+                    .setParameter("id", adminId)
+                    .setParameter("currentHash", currentHash)
+                    .executeUpdate();
+            em.getTransaction().commit();
+            ChangeVersions.bump(ChangeVersions.ADMINS);
+            return updated == 1;
         } catch (Exception e) {
-            logger.severe("Error validating login: " + e.getMessage());
+            if (em.getTransaction().isActive()) em.getTransaction().rollback();
+            logger.severe("Error rehashing password for admin " + adminId + ": " + e.getMessage());
             return false;
         } finally {
             em.close();
@@ -138,6 +144,7 @@ public class AdminUserJPAImpl implements AdminUserDAO {
                 admin.setLastLogin(LocalDateTime.now());
                 em.merge(admin);
                 em.getTransaction().commit();
+                ChangeVersions.bump(ChangeVersions.ADMINS);
                 logger.info("Updated last login for admin: " + adminId);
                 return true;
             }
@@ -164,6 +171,7 @@ public class AdminUserJPAImpl implements AdminUserDAO {
 
                 em.merge(admin);
                 em.getTransaction().commit();
+                ChangeVersions.bump(ChangeVersions.ADMINS);
                 logger.info("Admin status changed: " + adminId + " to " + active);
                 return true;
             }
@@ -192,6 +200,7 @@ public class AdminUserJPAImpl implements AdminUserDAO {
                     .setParameter("ref", serviceReferenceNumber)
                     .executeUpdate();
             em.getTransaction().commit();
+            ChangeVersions.bump(ChangeVersions.ACCOUNT_REQUESTS);
             return updated > 0;
         } catch (Exception e) {
             if (em.getTransaction().isActive()) em.getTransaction().rollback();
@@ -216,6 +225,7 @@ public class AdminUserJPAImpl implements AdminUserDAO {
                     .setParameter("ref", serviceReferenceNumber)
                     .executeUpdate();
             em.getTransaction().commit();
+            ChangeVersions.bump(ChangeVersions.ACCOUNT_REQUESTS);
             return updated > 0;
         } catch (Exception e) {
             if (em.getTransaction().isActive()) em.getTransaction().rollback();
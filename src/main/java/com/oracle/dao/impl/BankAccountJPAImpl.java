@@ -2,12 +2,14 @@
 package com.oracle.dao.impl;
 
 import com.oracle.beans.BankAccount;
+import com.oracle.beans.dto.AccountSummary;
 import com.oracle.dao.BankAccountDAO;
 import com.oracle.dao.util.JPAUtil;
 
 import jakarta.persistence.*;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.logging.Logger;
 
@@ -71,6 +73,23 @@ public class BankAccountJPAImpl implements BankAccountDAO {
             em.close();
         }
     }
+    @Override
+    public List<BankAccount> findAccountsByNumbers(Collection<String> accountNumbers) {
+        EntityManager em = JPAUtil.getEntityManager();
+        try {
+            TypedQuery<BankAccount> query = em.createQuery(
+                "SELECT ba FROM BankAccount ba WHERE ba.accountNumber IN :accountNumbers",
+                BankAccount.class);
+            query.setParameter("accountNumbers", accountNumbers);
+            return query.getResultList();
+        } catch (Exception e) {
+            logger.severe("Error finding accounts by numbers: " + e.getMessage());
+            return null;
+        } finally {
+            em.close();
+        }
+    }
+
     @Override
     public List<BankAccount> findAccountsByCustomerId(String customerId) {
         EntityManager em = JPAUtil.getEntityManager();
@@ -87,6 +106,25 @@ public class BankAccountJPAImpl implements BankAccountDAO {
             em.close();
         }
     }
+
+    @Override
+    public List<AccountSummary> findAccountSummariesByCustomerId(String customerId) {
+        EntityManager em = JPAUtil.getEntityManager();
+        try {
+            TypedQuery<AccountSummary> query = em.createQuery(
+                "SELECT NEW com.oracle.beans.dto.AccountSummary(ba.accountNumber, ba.customerId, ba.accountType, " +
+                "ba.balance, ba.isActive, ba.openedDate, ba.lastTransactionDate) " +
+                "FROM BankAccount ba WHERE ba.customerId = :customerId ORDER BY ba.openedDate DESC",
+                AccountSummary.class);
+            query.setParameter("customerId", customerId);
+            return query.getResultList();
+        } catch (Exception e) {
+            logger.severe("Error finding account summaries by customer ID: " + e.getMessage());
+            return null;
+        } finally {
+            em.close();
+        }
+    }
     
     @Override
     public List<BankAccount> findAllAccounts() {
@@ -177,7 +215,7 @@ public class BankAccountJPAImpl implements BankAccountDAO {
         EntityManager em = JPAUtil.getEntityManager();
         try {
             em.getTransaction().begin();
-            BankAccount account = em.find(BankAccount.class, accountNumber);
+            BankAccount account = em.find(BankAccount.class, accountNumber, LockModeType.PESSIMISTIC_WRITE);
             if (account != null) {
                 account.setBalance(newBalance);
                 account.setLastTransactionDate(LocalDateTime.now());
@@ -205,7 +243,7 @@ public class BankAccountJPAImpl implements BankAccountDAO {
         EntityManager em = JPAUtil.getEntityManager();
         try {
             em.getTransaction().begin();
-            BankAccount account = em.find(BankAccount.class, accountNumber);
+            BankAccount account = em.find(BankAccount.class, accountNumber, LockModeType.PESSIMISTIC_WRITE);
             if (account != null) {
                 BigDecimal currentBalance = account.getBalance();
                 if (currentBalance.compareTo(amount) >= 0) {
@@ -241,7 +279,7 @@ public class BankAccountJPAImpl implements BankAccountDAO {
         EntityManager em = JPAUtil.getEntityManager();
         try {
             em.getTransaction().begin();
-            BankAccount account = em.find(BankAccount.class, accountNumber);
+            BankAccount account = em.find(BankAccount.class, accountNumber, LockModeType.PESSIMISTIC_WRITE);
             if (account != null) {
                 BigDecimal currentBalance = account.getBalance();
                 BigDecimal newBalance = currentBalance.add(amount);
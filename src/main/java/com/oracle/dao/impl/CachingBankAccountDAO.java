@@ -0,0 +1,242 @@
+package com.oracle.dao.impl;
+
+import com.oracle.beans.BankAccount;
+import com.oracle.beans.Transaction;
+import com.oracle.beans.dto.AccountSummary;
+import com.oracle.dao.BankAccountDAO;
+import com.oracle.dao.TransferDAO;
+import com.oracle.dao.util.LocalCache;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read-through cache in front of a BankAccountDAO.
+ *
+ * Single-account lookups by number are served from a LocalCache; every write
+ * through this DAO, and every balance written by a TransferDAO wrapped with
+ * {@link #invalidating(TransferDAO)}, evicts the accounts it touched. Callers get
+ * their own copy of the cached entity, so changing it cannot leak into the cache.
+ *
+ * Balance checks (getAccountBalance, hasInsufficientBalance) and list queries
+ * always go to the database.
+ */
+public class CachingBankAccountDAO implements BankAccountDAO {
+
+    private final BankAccountDAO delegate;
+    private final LocalCache<String, BankAccount> accounts;
+
+    public CachingBankAccountDAO(BankAccountDAO delegate, int maximumSize, long ttlSeconds) {
+        this.delegate = delegate;
+        this.accounts = new LocalCache<>("bankAccounts", maximumSize, ttlSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Wraps a TransferDAO so the accounts it writes drop out of this cache
+     */
+    public TransferDAO invalidating(TransferDAO transfers) {
+        return new TransferDAO() {
+            @Override
+            public boolean executeTransfer(String fromAccount, String toAccount, BigDecimal amount,
+                                           Transaction debitTransaction, Transaction creditTransaction) {
+                try {
+                    return transfers.executeTransfer(fromAccount, toAccount, amount, debitTransaction, creditTransaction);
+                } finally {
+                    accounts.invalidate(fromAccount);
+                    accounts.invalidate(toAccount);
+                }
+            }
+
+            @Override
+            public boolean applyLedgerBatch(Map<String, BigDecimal> balances, List<Transaction> entries) {
+                try {
+                    return transfers.applyLedgerBatch(balances, entries);
+                } finally {
+                    balances.keySet().forEach(accounts::invalidate);
+                }
+            }
+        };
+    }
+
+    // ----- cached reads -----
+
+    @Override
+    public BankAccount findAccountByNumber(String accountNumber) {
+        return copyOf(accounts.get(accountNumber, delegate::findAccountByNumber));
+    }
+
+    @Override
+    public BankAccount findAccountByAccountNumber(String accountNumber) {
+        return findAccountByNumber(accountNumber);
+    }
+
+    @Override
+    public boolean accountExists(String accountNumber) {
+        return accounts.get(accountNumber, delegate::findAccountByNumber) != null;
+    }
+
+    @Override
+    public boolean isAccountActive(String accountNumber) {
+        BankAccount account = accounts.get(accountNumber, delegate::findAccountByNumber);
+        return account != null && "Y".equals(account.getIsActive());
+    }
+
+    // ----- writes: evict after the write, whether or not it succeeded -----
+
+    @Override
+    public boolean createAccount(BankAccount account) {
+        try {
+            return delegate.createAccount(account);
+        } finally {
+            accounts.invalidate(account.getAccountNumber());
+        }
+    }
+
+    @Override
+    public boolean updateAccount(BankAccount account) {
+        try {
+            return delegate.updateAccount(account);
+        } finally {
+            accounts.invalidate(account.getAccountNumber());
+        }
+    }
+
+    @Override
+    public boolean updateAccountBalance(String accountNumber, BigDecimal newBalance) {
+        try {
+            return delegate.updateAccountBalance(accountNumber, newBalance);
+        } finally {
+            accounts.invalidate(accountNumber);
+        }
+    }
+
+    @Override
+    public boolean debitAccount(String accountNumber, BigDecimal amount) {
+        try {
+            return delegate.debitAccount(accountNumber, amount);
+        } finally {
+            accounts.invalidate(accountNumber);
+        }
+    }
+
+    @Override
+    public boolean creditAccount(String accountNumber, BigDecimal amount) {
+        try {
+            return delegate.creditAccount(accountNumber, amount);
+        } finally {
+            accounts.invalidate(accountNumber);
+        }
+    }
+
+    @Override
+    public boolean activateAccount(String accountNumber) {
+        try {
+            return delegate.activateAccount(accountNumber);
+        } finally {
+            accounts.invalidate(accountNumber);
+        }
+    }
+
+    @Override
+    public boolean deactivateAccount(String accountNumber) {
+        try {
+            return delegate.deactivateAccount(accountNumber);
+        } finally {
+            accounts.invalidate(accountNumber);
+        }
+    }
+
+    @Override
+    public boolean deleteAccount(String accountNumber) {
+        try {
+            return delegate.deleteAccount(accountNumber);
+        } finally {
+            accounts.invalidate(accountNumber);
+        }
+    }
+
+    // ----- pass-through -----
+
+    @Override
+    public List<BankAccount> findAccountsByCustomerId(String customerId) {
+        return delegate.findAccountsByCustomerId(customerId);
+    }
+
+    @Override
+    public List<AccountSummary> findAccountSummariesByCustomerId(String customerId) {
+        return delegate.findAccountSummariesByCustomerId(customerId);
+    }
+
+    @Override
+    public List<BankAccount> findAllAccounts() {
+        return delegate.findAllAccounts();
+    }
+
+    @Override
+    public List<BankAccount> findAccountsByType(String accountType) {
+        return delegate.findAccountsByType(accountType);
+    }
+
+    @Override
+    public List<BankAccount> findActiveAccounts() {
+        return delegate.findActiveAccounts();
+    }
+
+    @Override
+    public List<BankAccount> findInactiveAccounts() {
+        return delegate.findInactiveAccounts();
+    }
+
+    @Override
+    public List<BankAccount> findAccountsByNumbers(Collection<String> accountNumbers) {
+        return delegate.findAccountsByNumbers(accountNumbers);
+    }
+
+    @Override
+    public BigDecimal getAccountBalance(String accountNumber) {
+        return delegate.getAccountBalance(accountNumber);
+    }
+
+    @Override
+    public boolean hasInsufficientBalance(String accountNumber, BigDecimal amount) {
+        return delegate.hasInsufficientBalance(accountNumber, amount);
+    }
+
+    @Override
+    public long getTotalAccountsCount() {
+        return delegate.getTotalAccountsCount();
+    }
+
+    @Override
+    public BigDecimal getTotalBankBalance() {
+        return delegate.getTotalBankBalance();
+    }
+
+    @Override
+    public List<BankAccount> findAccountsWithBalanceGreaterThan(BigDecimal amount) {
+        return delegate.findAccountsWithBalanceGreaterThan(amount);
+    }
+
+    @Override
+    public List<BankAccount> findAccountsWithBalanceLessThan(BigDecimal amount) {
+        return delegate.findAccountsWithBalanceLessThan(amount);
+    }
+
+    private static BankAccount copyOf(BankAccount account) {
+        if (account == null) {
+            return null;
+        }
+        BankAccount copy = new BankAccount();
+        copy.setAccountNumber(account.getAccountNumber());
+        copy.setCustomerId(account.getCustomerId());
+        copy.setAccountType(account.getAccountType());
+        copy.setBalance(account.getBalance());
+        copy.setIsActive(account.getIsActive());
+        copy.setOpenedDate(account.getOpenedDate());
+        copy.setLastTransactionDate(account.getLastTransactionDate());
+        return copy;
+    }
+}
@@ -0,0 +1,175 @@
+package com.oracle.dao.impl;
+
+import com.oracle.beans.Customer;
+import com.oracle.beans.dto.CustomerSummary;
+import com.oracle.dao.CustomerDAO;
+import com.oracle.dao.util.LocalCache;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read-through cache in front of a CustomerDAO.
+ *
+ * Lookups by customer id and existence checks are served from a LocalCache and
+ * every write through this DAO evicts the customer it touched. Callers get their
+ * own copy of the cached entity. Searches by other keys go to the database.
+ */
+public class CachingCustomerDAO implements CustomerDAO {
+
+    private final CustomerDAO delegate;
+    private final LocalCache<String, Customer> customers;
+
+    public CachingCustomerDAO(CustomerDAO delegate, int maximumSize, long ttlSeconds) {
+        this.delegate = delegate;
+        this.customers = new LocalCache<>("customers", maximumSize, ttlSeconds, TimeUnit.SECONDS);
+    }
+
+    // ----- cached reads -----
+
+    @Override
+    public Customer findCustomerById(String customerId) {
+        return copyOf(customers.get(customerId, delegate::findCustomerById));
+    }
+
+    @Override
+    public boolean customerExists(String customerId) {
+        return customers.get(customerId, delegate::findCustomerById) != null;
+    }
+
+    // ----- writes: evict after the write, whether or not it succeeded -----
+
+    @Override
+    public boolean createCustomer(Customer customer) {
+        try {
+            return delegate.createCustomer(customer);
+        } finally {
+            customers.invalidate(customer.getCustomerId());
+        }
+    }
+
+    @Override
+    public boolean updateCustomer(Customer customer) {
+        try {
+            return delegate.updateCustomer(customer);
+        } finally {
+            customers.invalidate(customer.getCustomerId());
+        }
+    }
+
+    @Override
+    public boolean updateCustomerStatus(String customerId, String status) {
+        try {
+            return delegate.updateCustomerStatus(customerId, status);
+        } finally {
+            customers.invalidate(customerId);
+        }
+    }
+
+    @Override
+    public boolean updateCustomerContact(String customerId, String email, String mobile) {
+        try {
+            return delegate.updateCustomerContact(customerId, email, mobile);
+        } finally {
+            customers.invalidate(customerId);
+        }
+    }
+
+    @Override
+    public boolean deleteCustomer(String customerId) {
+        try {
+            return delegate.deleteCustomer(customerId);
+        } finally {
+            customers.invalidate(customerId);
+        }
+    }
+
+    @Override
+    public boolean softDeleteCustomer(String customerId) {
+        try {
+            return delegate.softDeleteCustomer(customerId);
+        } finally {
+            customers.invalidate(customerId);
+        }
+    }
+
+    // ----- pass-through -----
+
+    @Override
+    public Customer findCustomerByEmail(String email) {
+        return delegate.findCustomerByEmail(email);
+    }
+
+    @Override
+    public Customer findCustomerByMobile(String mobileNumber) {
+        return delegate.findCustomerByMobile(mobileNumber);
+    }
+
+    @Override
+    public Customer findCustomerByAadhar(String aadharNumber) {
+        return delegate.findCustomerByAadhar(aadharNumber);
+    }
+
+    @Override
+    public List<Customer> findAllCustomers() {
+        return delegate.findAllCustomers();
+    }
+
+    @Override
+    public List<CustomerSummary> findAllCustomerSummaries() {
+        return delegate.findAllCustomerSummaries();
+    }
+
+    @Override
+    public List<Customer> findCustomersByStatus(String status) {
+        return delegate.findCustomersByStatus(status);
+    }
+
+    @Override
+    public List<Customer> findCreatedBetween(LocalDate startDate, LocalDate endDate) {
+        return delegate.findCreatedBetween(startDate, endDate);
+    }
+
+    @Override
+    public boolean emailExists(String email) {
+        return delegate.emailExists(email);
+    }
+
+    @Override
+    public boolean mobileExists(String mobileNumber) {
+        return delegate.mobileExists(mobileNumber);
+    }
+
+    @Override
+    public boolean aadharExists(String aadharNumber) {
+        return delegate.aadharExists(aadharNumber);
+    }
+
+    @Override
+    public long getTotalCustomerCount() {
+        return delegate.getTotalCustomerCount();
+    }
+
+    private static Customer copyOf(Customer customer) {
+        if (customer == null) {
+            return null;
+        }
+        Customer copy = new Customer();
+        copy.setCustomerId(customer.getCustomerId());
+        copy.setServiceReferenceNo(customer.getServiceReferenceNo());
+        copy.setFullName(customer.getFullName());
+        copy.setEmail(customer.getEmail());
+        copy.setMobileNumber(customer.getMobileNumber());
+        copy.setDateOfBirth(customer.getDateOfBirth());
+        copy.setAadharNumber(customer.getAadharNumber());
+        copy.setResidentialAddress(customer.getResidentialAddress());
+        copy.setPermanentAddress(customer.getPermanentAddress());
+        copy.setOccupation(customer.getOccupation());
+        copy.setAnnualIncome(customer.getAnnualIncome());
+        copy.setStatus(customer.getStatus());
+        copy.setCreatedAt(customer.getCreatedAt());
+        copy.setCreatedBy(customer.getCreatedBy());
+        return copy;
+    }
+}
@@ -2,7 +2,9 @@
 package com.oracle.dao.impl;
 
 import com.oracle.beans.Customer;
+import com.oracle.beans.dto.CustomerSummary;
 import com.oracle.dao.CustomerDAO;
+import com.oracle.dao.util.ChangeVersions;
 import com.oracle.dao.util.JPAUtil;
 
 import jakarta.persistence.*;
@@ -24,6 +26,7 @@ public class CustomerJPAImpl implements CustomerDAO {
             customer.setCreatedAt(LocalDateTime.now());
             em.persist(customer);
             em.getTransaction().commit();
+            ChangeVersions.bump(ChangeVersions.CUSTOMERS);
             logger.info("Customer created successfully with ID: " + customer.getCustomerId());
             return true;
         } catch (Exception e) {
@@ -55,9 +58,9 @@ public class CustomerJPAImpl implements CustomerDAO {
     public Customer findCustomerByEmail(String email) {
         EntityManager em = JPAUtil.getEntityManager();
         try {
-            TypedQuery<Customer> query = em.createQuery(
-                "SELECT c FROM Customer c WHERE c.email = :email", Customer.class);
+            TypedQuery<Customer> query = em.createNamedQuery("Customer.findByEmail", Customer.class);
             query.setParameter("email", email);
+            JPAUtil.cacheResults(query);
             return query.getSingleResult();
         } catch (NoResultException e) {
             logger.info("No customer found with email: " + email);
@@ -122,6 +125,23 @@ public class CustomerJPAImpl implements CustomerDAO {
             em.close();
         }
     }
+
+    @Override
+    public List<CustomerSummary> findAllCustomerSummaries() {
+        EntityManager em = JPAUtil.getEntityManager();
+        try {
+            TypedQuery<CustomerSummary> query = em.createQuery(
+                "SELECT NEW com.oracle.beans.dto.CustomerSummary(c.customerId, c.serviceReferenceNo, c.fullName, " +
+                "c.email, c.mobileNumber, c.status, c.createdAt) FROM Customer c ORDER BY c.createdAt DESC",
+                CustomerSummary.class);
+            return query.getResultList();
+        } catch (Exception e) {
+            logger.severe("Error finding customer summaries: " + e.getMessage());
+            return null;
+        } finally {
+            em.close();
+        }
+    }
     
     @Override
     public List<Customer> findCustomersByStatus(String status) {
@@ -146,6 +166,7 @@ public class CustomerJPAImpl implements CustomerDAO {
             em.getTransaction().begin();
             em.merge(customer);
             em.getTransaction().commit();
+            ChangeVersions.bump(ChangeVersions.CUSTOMERS);
             logger.info("Customer updated successfully: " + customer.getCustomerId());
             return true;
         } catch (Exception e) {
@@ -169,6 +190,7 @@ public class CustomerJPAImpl implements CustomerDAO {
                 customer.setStatus(status);
                 em.merge(customer);
                 em.getTransaction().commit();
+                ChangeVersions.bump(ChangeVersions.CUSTOMERS);
                 logger.info("Customer status updated: " + customerId + " to " + status);
                 return true;
             }
@@ -196,6 +218,7 @@ public class CustomerJPAImpl implements CustomerDAO {
                 customer.setMobileNumber(mobile);
                 em.merge(customer);
                 em.getTransaction().commit();
+                ChangeVersions.bump(ChangeVersions.CUSTOMERS);
                 logger.info("Updated contact info for customer: " + customerId);
                 return true;
             }
@@ -220,6 +243,7 @@ public class CustomerJPAImpl implements CustomerDAO {
             if (customer != null) {
                 em.remove(customer);
                 em.getTransaction().commit();
+                ChangeVersions.bump(ChangeVersions.CUSTOMERS);
                 logger.info("Deleted customer: " + customerId);
                 return true;
             }
@@ -5,10 +5,16 @@ import com.oracle.dao.CustomerLoginDAO;
 import com.oracle.dao.util.JPAUtil;
 
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
 import jakarta.persistence.NoResultException;
 import jakarta.persistence.TypedQuery;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.List;
@@ -70,8 +76,7 @@ public class CustomerLoginJPAImpl implements CustomerLoginDAO {
     public CustomerLogin findByUserId(String userId) {
         EntityManager em = JPAUtil.getEntityManager();
         try {
-            TypedQuery<CustomerLogin> query = em.createQuery(
-                "SELECT cl FROM CustomerLogin cl WHERE cl.userId = :userId", CustomerLogin.class);
+            TypedQuery<CustomerLogin> query = em.createNamedQuery("CustomerLogin.findByUserId", CustomerLogin.class);
             query.setParameter("userId", userId);
             return query.getSingleResult();
         } catch (NoResultException e) {
@@ -109,6 +114,48 @@ public class CustomerLoginJPAImpl implements CustomerLoginDAO {
         }
     }
 
+    @Override
+    public boolean addFailedLoginAttempts(Collection<String> resets, Map<String, Integer> increments) {
+        if (resets.isEmpty() && increments.isEmpty()) {
+            return true;
+        }
+        Map<Integer, List<String>> idsByIncrement = new HashMap<>();
+        increments.forEach((id, delta) -> idsByIncrement.computeIfAbsent(delta, k -> new ArrayList<>()).add(id));
+        EntityManager em = JPAUtil.getEntityManager();
+        try {
+            em.getTransaction().begin();
+            List<String> resetIds = new ArrayList<>(resets);
+            // Oracle allows at most 1000 values in an IN list
+            for (int i = 0; i < resetIds.size(); i += 1000) {
+                em.createQuery(
+                    "UPDATE CustomerLogin c SET c.failedLoginAttempts = 0 WHERE c.customerId IN :ids")
+                    .setParameter("ids", resetIds.subList(i, Math.min(resetIds.size(), i + 1000)))
+                    .executeUpdate();
+            }
+            // Added to the stored count, so failures counted by other nodes are kept
+            for (Map.Entry<Integer, List<String>> entry : idsByIncrement.entrySet()) {
+                List<String> ids = entry.getValue();
+                for (int i = 0; i < ids.size(); i += 1000) {
+                    em.createQuery(
+                        "UPDATE CustomerLogin c SET c.failedLoginAttempts = COALESCE(c.failedLoginAttempts, 0) + :delta " +
+                        "WHERE c.customerId IN :ids")
+                        .setParameter("delta", entry.getKey())
+                        .setParameter("ids", ids.subList(i, Math.min(ids.size(), i + 1000)))
+                        .executeUpdate();
+                }
+            }
+            em.getTransaction().commit();
+            return true;
+        } catch (Exception e) {
+            if (em.getTransaction().isActive()) em.getTransaction().rollback();
+            logger.log(Level.SEVERE, "Error writing failed attempts for "
+                    + (resets.size() + increments.size()) + " customers", e);
+            return false;
+        } finally {
+            em.close();
+        }
+    }
+
     @Override
     public boolean incrementFailedLoginAttempts(String customerId) {
         EntityManager em = JPAUtil.getEntityManager();
@@ -187,6 +234,63 @@ public class CustomerLoginJPAImpl implements CustomerLoginDAO {
         }
     }
 
+    @Override
+    public int unlockAccounts(Collection<String> customerIds) {
+        if (customerIds.isEmpty()) {
+            return 0;
+        }
+        EntityManager em = JPAUtil.getEntityManager();
+        try {
+            em.getTransaction().begin();
+            // A lock extended since it was scheduled is left alone
+            int unlocked = em.createQuery(
+                "UPDATE CustomerLogin c SET c.isLocked = 'N', c.lockedUntil = NULL, c.failedLoginAttempts = 0 " +
+                "WHERE c.customerId IN :ids AND c.isLocked = 'Y' AND c.lockedUntil <= :now")
+                .setParameter("ids", customerIds)
+                .setParameter("now", LocalDateTime.now())
+                .executeUpdate();
+            em.getTransaction().commit();
+            return unlocked;
+        } catch (Exception e) {
+            if (em.getTransaction().isActive()) em.getTransaction().rollback();
+            logger.log(Level.SEVERE, "Error unlocking " + customerIds.size() + " accounts", e);
+            return 0;
+        } finally {
+            em.close();
+        }
+    }
+
+    @Override
+    public List<String> unlockExpiredAccounts() {
+        EntityManager em = JPAUtil.getEntityManager();
+        try {
+            em.getTransaction().begin();
+            // The due rows stay locked until commit, so the update releases exactly these ids
+            List<String> due = em.createQuery(
+                "SELECT c.customerId FROM CustomerLogin c WHERE c.isLocked = 'Y' AND c.lockedUntil <= :now",
+                String.class)
+                .setParameter("now", LocalDateTime.now())
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultList();
+            // Oracle allows at most 1000 values in an IN list
+            for (int i = 0; i < due.size(); i += 1000) {
+                em.createQuery(
+                    "UPDATE CustomerLogin c SET c.isLocked = 'N', c.lockedUntil = NULL, c.failedLoginAttempts = 0 " +
+                    "WHERE c.customerId IN :due")
+                    .setParameter("due", due.subList(i, Math.min(due.size(), i + 1000)))
+                    .executeUpdate();
+            }
+            em.getTransaction().commit();
+            return due;
+        } catch (Exception e) {
+            if (em.getTransaction().isActive()) em.getTransaction().rollback();
+            logger.log(Level.SEVERE, "Error unlocking expired accounts", e);
+            return Collections.emptyList();
+        } finally {
+            em.close();
+        }
+    }
+
     @Override
     public boolean updateLastLogin(String customerId, LocalDateTime lastLogin) {
         EntityManager em = JPAUtil.getEntityManager();
@@ -234,6 +338,30 @@ public class CustomerLoginJPAImpl implements CustomerLoginDAO {
         }
     }
 
+    @Override
+    public boolean rehashLoginPassword(String customerId, String currentHash, String newHash) {
+        EntityManager em = JPAUtil.getEntityManager();
+        try {
+            em.getTransaction().begin();
+            // A password changed since currentHash was read wins over the rehash
+            int updated = em.createQuery(
+                "UPDATE CustomerLogin c SET c.loginPassword = :newHash " +
+                "WHERE c.customerId = :id AND c.loginPassword = :currentHash")
+                .setParameter("newHash", newHash)
+                .setParameter("id", customerId)
+                .setParameter("currentHash", currentHash)
+                .executeUpdate();
+            em.getTransaction().commit();
+            return updated == 1;
+        } catch (Exception e) {
+            if (em.getTransaction().isActive()) em.getTransaction().rollback();
+            logger.log(Level.SEVERE, "Error rehashing login password for " + customerId, e);
+            return false;
+        } finally {
+            em.close();
+        }
+    }
+
     @Override
     public boolean updateTransactionPassword(String customerId, String hashedPassword) {
         EntityManager em = JPAUtil.getEntityManager();
@@ -9,6 +9,7 @@ import jakarta.persistence.NoResultException;
 import jakarta.persistence.TypedQuery;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.logging.Level;
@@ -17,10 +18,10 @@ import java.util.logging.Logger;
 public class OTPJPAImpl implements OTPDAO {
 
     private static final Logger logger = Logger.getLogger(OTPJPAImpl.class.getName());
-    EntityManager entityManager = JPAUtil.getEntityManager();
 
     @Override
     public boolean saveOTP(OtpRequest otp) {
+        EntityManager entityManager = JPAUtil.getEntityManager();
         try {
             entityManager.getTransaction().begin();
             entityManager.persist(otp);
@@ -33,6 +34,8 @@ public class OTPJPAImpl implements OTPDAO {
                 entityManager.getTransaction().rollback();
             }
             return false;
+        } finally {
+            entityManager.close();
         }
     }
     
@@ -57,6 +60,31 @@ public class OTPJPAImpl implements OTPDAO {
     }
 
 
+    @Override
+    public int expireOTPs(Collection<String> otpIds) {
+        if (otpIds.isEmpty()) {
+            return 0;
+        }
+        EntityManager em = JPAUtil.getEntityManager();
+        try {
+            em.getTransaction().begin();
+            int expired = em.createQuery(
+                "UPDATE OtpRequest o SET o.isUsed = 'E' WHERE o.otpId IN :ids AND o.isUsed = 'N' AND o.expiresAt <= :now")
+                .setParameter("ids", otpIds)
+                .setParameter("now", LocalDateTime.now())
+                .executeUpdate();
+            em.getTransaction().commit();
+            return expired;
+        } catch (Exception e) {
+            if (em.getTransaction().isActive()) em.getTransaction().rollback();
+            logger.log(Level.SEVERE, "Error expiring " + otpIds.size() + " OTPs", e);
+            return 0;
+        } finally {
+            em.close();
+        }
+    }
+
+
 	@Override
 	public OtpRequest getActiveOTPByCustomerIdAndPurpose(String customerId) {
 		// TODO Auto-generated method stub
@@ -0,0 +1,28 @@
+package com.oracle.dao.impl;
+
+import com.oracle.dao.SequenceDAO;
+import com.oracle.dao.util.JPAUtil;
+
+import jakarta.persistence.EntityManager;
+import java.util.regex.Pattern;
+
+public class SequenceJPAImpl implements SequenceDAO {
+
+    // Sequence names are spliced into SQL, so only plain identifiers are accepted
+    private static final Pattern SEQUENCE_NAME = Pattern.compile("^[A-Za-z][A-Za-z0-9_]{0,127}$");
+
+    @Override
+    public long nextValue(String sequenceName) {
+        if (!SEQUENCE_NAME.matcher(sequenceName).matches()) {
+            throw new IllegalArgumentException("Invalid sequence name: " + sequenceName);
+        }
+        EntityManager em = JPAUtil.getEntityManager();
+        try {
+            Number value = (Number) em.createNativeQuery("SELECT " + sequenceName + ".NEXTVAL FROM DUAL")
+                                      .getSingleResult();
+            return value.longValue();
+        } finally {
+            em.close();
+        }
+    }
+}
@@ -6,11 +6,16 @@ import com.oracle.dao.util.JPAUtil;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.NoResultException;
+import jakarta.persistence.Query;
 import jakarta.persistence.TypedQuery;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -18,6 +23,10 @@ public class SessionJPAImpl implements SessionDAO {
 
     private static final Logger logger = Logger.getLogger(SessionJPAImpl.class.getName());
 
+    // A session is live while it is active and was used within the timeout
+    private static final String LIVE = "s.isActive = 'Y' AND s.lastActivity > :cutoff";
+    private static final String EXPIRED = "(s.isActive = 'N' OR s.lastActivity <= :cutoff)";
+
     @Override
     public boolean saveSession(Session session) {
         EntityManager em = JPAUtil.getEntityManager();
@@ -41,12 +50,26 @@ public class SessionJPAImpl implements SessionDAO {
         EntityManager em = JPAUtil.getEntityManager();
         try {
             em.getTransaction().begin();
-            em.merge(session);
+            // Only an active row: a merge would bring back a session another node ended or deleted
+            int updated = em.createQuery(
+                "UPDATE Session s SET s.lastActivity = :lastActivity, s.isActive = :isActive, " +
+                "s.ipAddress = :ipAddress, s.userAgent = :userAgent " +
+                "WHERE s.sessionId = :sessionId AND s.isActive = 'Y'")
+                .setParameter("lastActivity", session.getLastActivity())
+                .setParameter("isActive", session.getIsActive())
+                .setParameter("ipAddress", session.getIpAddress())
+                .setParameter("userAgent", session.getUserAgent())
+                .setParameter("sessionId", session.getSessionId())
+                .executeUpdate();
             em.getTransaction().commit();
+            if (updated == 0) {
+                logger.warning("No active session to update: " + session.getSessionId());
+                return false;
+            }
             logger.info("Session updated successfully: " + session.getSessionId());
             return true;
         } catch (Exception e) {
-            em.getTransaction().rollback();
+            if (em.getTransaction().isActive()) em.getTransaction().rollback();
             logger.log(Level.SEVERE, "Error updating session", e);
             return false;
         } finally {
@@ -54,6 +77,57 @@ public class SessionJPAImpl implements SessionDAO {
         }
     }
 
+    @Override
+    public Set<String> updateLastActivity(Map<String, LocalDateTime> lastActivity) {
+        Set<String> missing = new HashSet<>();
+        if (lastActivity.isEmpty()) {
+            return missing;
+        }
+        EntityManager em = JPAUtil.getEntityManager();
+        try {
+            em.getTransaction().begin();
+            // Never touches ended rows, so a stale node cannot bring a session back
+            Query update = em.createQuery(
+                "UPDATE Session s SET s.lastActivity = :lastActivity " +
+                "WHERE s.sessionId = :sessionId AND s.isActive = 'Y'");
+            for (Map.Entry<String, LocalDateTime> entry : lastActivity.entrySet()) {
+                int updated = update.setParameter("lastActivity", entry.getValue())
+                    .setParameter("sessionId", entry.getKey())
+                    .executeUpdate();
+                if (updated == 0) {
+                    missing.add(entry.getKey());
+                }
+            }
+            em.getTransaction().commit();
+            return missing;
+        } catch (Exception e) {
+            if (em.getTransaction().isActive()) em.getTransaction().rollback();
+            logger.log(Level.SEVERE, "Error updating last activity of " + lastActivity.size() + " sessions", e);
+            return null;
+        } finally {
+            em.close();
+        }
+    }
+
+    @Override
+    public Set<String> findActiveSessionIds(Collection<String> sessionIds) {
+        if (sessionIds.isEmpty()) {
+            return new HashSet<>();
+        }
+        EntityManager em = JPAUtil.getEntityManager();
+        try {
+            return new HashSet<>(em.createQuery(
+                "SELECT s.sessionId FROM Session s WHERE s.sessionId IN :ids AND s.isActive = 'Y'", String.class)
+                .setParameter("ids", sessionIds)
+                .getResultList());
+        } catch (Exception e) {
+            logger.log(Level.SEVERE, "Error checking " + sessionIds.size() + " sessions", e);
+            return null;
+        } finally {
+            em.close();
+        }
+    }
+
     @Override
     public Session getSession(String sessionId) {
         EntityManager em = JPAUtil.getEntityManager();
@@ -73,10 +147,9 @@ public class SessionJPAImpl implements SessionDAO {
         try {
             TypedQuery<Session> query = em.createQuery(
                 "SELECT s FROM Session s " +
-                "WHERE s.customerId = :customerId " +
-                "AND s.expiryTime > :now", Session.class);
+                "WHERE s.userId = :customerId AND " + LIVE, Session.class);
             query.setParameter("customerId", customerId);
-            query.setParameter("now", LocalDateTime.now());
+            query.setParameter("cutoff", cutoff());
             return query.getResultList();
         } catch (Exception e) {
             logger.log(Level.SEVERE, "Error getting active sessions for user " + customerId, e);
@@ -91,8 +164,8 @@ public class SessionJPAImpl implements SessionDAO {
         EntityManager em = JPAUtil.getEntityManager();
         try {
             TypedQuery<Session> query = em.createQuery(
-                "SELECT s FROM Session s WHERE s.expiryTime <= :now", Session.class);
-            query.setParameter("now", LocalDateTime.now());
+                "SELECT s FROM Session s WHERE " + EXPIRED, Session.class);
+            query.setParameter("cutoff", cutoff());
             return query.getResultList();
         } catch (Exception e) {
             logger.log(Level.SEVERE, "Error retrieving expired sessions", e);
@@ -127,14 +200,37 @@ public class SessionJPAImpl implements SessionDAO {
         }
     }
 
+    @Override
+    public int deactivateSessions(Collection<String> sessionIds) {
+        if (sessionIds.isEmpty()) {
+            return 0;
+        }
+        EntityManager em = JPAUtil.getEntityManager();
+        try {
+            em.getTransaction().begin();
+            int updated = em.createQuery(
+                "UPDATE Session s SET s.isActive = 'N' WHERE s.sessionId IN :ids AND s.isActive = 'Y'")
+                .setParameter("ids", sessionIds)
+                .executeUpdate();
+            em.getTransaction().commit();
+            return updated;
+        } catch (Exception e) {
+            if (em.getTransaction().isActive()) em.getTransaction().rollback();
+            logger.log(Level.SEVERE, "Error deactivating " + sessionIds.size() + " sessions", e);
+            return 0;
+        } finally {
+            em.close();
+        }
+    }
+
     @Override
     public boolean deleteExpiredSessions() {
         EntityManager em = JPAUtil.getEntityManager();
         try {
             em.getTransaction().begin();
             int deletedCount = em.createQuery(
-                "DELETE FROM Session s WHERE s.expiryTime <= :now")
-                .setParameter("now", LocalDateTime.now())
+                "DELETE FROM Session s WHERE " + EXPIRED)
+                .setParameter("cutoff", cutoff())
                 .executeUpdate();
             em.getTransaction().commit();
             logger.info("Deleted expired sessions: " + deletedCount);
@@ -154,7 +250,7 @@ public class SessionJPAImpl implements SessionDAO {
         try {
             em.getTransaction().begin();
             int deletedCount = em.createQuery(
-                "DELETE FROM Session s WHERE s.customerId = :customerId")
+                "DELETE FROM Session s WHERE s.userId = :customerId")
                 .setParameter("customerId", customerId)
                 .executeUpdate();
             em.getTransaction().commit();
@@ -174,8 +270,8 @@ public class SessionJPAImpl implements SessionDAO {
         EntityManager em = JPAUtil.getEntityManager();
         try {
             TypedQuery<Long> query = em.createQuery(
-                "SELECT COUNT(s) FROM Session s WHERE s.expiryTime > :now", Long.class);
-            query.setParameter("now", LocalDateTime.now());
+                "SELECT COUNT(s) FROM Session s WHERE " + LIVE, Long.class);
+            query.setParameter("cutoff", cutoff());
             return query.getSingleResult();
         } catch (Exception e) {
             logger.log(Level.SEVERE, "Error getting active session count", e);
@@ -190,7 +286,7 @@ public class SessionJPAImpl implements SessionDAO {
         EntityManager em = JPAUtil.getEntityManager();
         try {
             TypedQuery<Session> query = em.createQuery(
-                "SELECT s FROM Session s WHERE s.createdAt BETWEEN :startDate AND :endDate",
+                "SELECT s FROM Session s WHERE s.loginTime BETWEEN :startDate AND :endDate",
                 Session.class);
             query.setParameter("startDate", startDate);
             query.setParameter("endDate", endDate);
@@ -202,4 +298,8 @@ public class SessionJPAImpl implements SessionDAO {
             em.close();
         }
     }
+
+    private static LocalDateTime cutoff() {
+        return LocalDateTime.now().minusMinutes(Session.TIMEOUT_MINUTES);
+    }
 }
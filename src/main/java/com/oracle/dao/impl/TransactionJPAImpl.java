@@ -1,8 +1,12 @@
 package com.oracle.dao.impl;
 
 import com.oracle.beans.Transaction;
+import com.oracle.beans.TransactionWithType;
+import com.oracle.beans.dto.TransactionSummary;
 import com.oracle.dao.TransactionDAO;
 import com.oracle.dao.util.JPAUtil;
+import com.oracle.dao.util.TransactionBatchWriter;
+import com.oracle.dao.util.TransactionIdGenerator;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityTransaction;
@@ -13,64 +17,27 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 public class TransactionJPAImpl implements TransactionDAO {
 
-    private EntityManager getEntityManager() {
-        return JPAUtil.getEntityManager();
-    }
-    public static class TransactionWithType {
-        private Transaction transaction;
-        private String transactionType; // "DEBIT" or "CREDIT"
-        private String counterpartyAccount;
-        
-        // constructors, getters, setters...
-        // No-args constructor
-        public TransactionWithType() {
-        }
+    // Debits out of and credits into :accountNumber with a value date in [:fromDate, :toDate]
+    private static final String STATEMENT_FILTER =
+            "((t.fromAccountNumber = :accountNumber AND t.TransactionType = 'DEBIT') " +
+            "OR (t.toAccountNumber = :accountNumber AND t.TransactionType = 'CREDIT')) " +
+            "AND t.valueDate BETWEEN :fromDate AND :toDate";
 
-        // All-args constructor
-        public TransactionWithType(Transaction transaction, String transactionType, String counterpartyAccount) {
-            this.transaction = transaction;
-            this.transactionType = transactionType;
-            this.counterpartyAccount = counterpartyAccount;
-        }
-
-        // Getters and Setters
-        public Transaction getTransaction() {
-            return transaction;
-        }
+    // Rows fetched per round trip when streaming a statement
+    private static final int STATEMENT_CHUNK_SIZE = Integer.getInteger("banking.statement.chunkSize", 500);
 
-        public void setTransaction(Transaction transaction) {
-            this.transaction = transaction;
-        }
-
-        public String getTransactionType() {
-            return transactionType;
-        }
-
-        public void setTransactionType(String transactionType) {
-            this.transactionType = transactionType;
-        }
-
-        public String getCounterpartyAccount() {
-            return counterpartyAccount;
-        }
-
-        public void setCounterpartyAccount(String counterpartyAccount) {
-            this.counterpartyAccount = counterpartyAccount;
-        }
-
-        @Override
-        public String toString() {
-            return "TransactionWithType{" +
-                    "transaction=" + transaction +
-                    ", transactionType='" + transactionType + '\'' +
-                    ", counterpartyAccount='" + counterpartyAccount + '\'' +
-                    '}';
-        }
+    private EntityManager getEntityManager() {
+        return JPAUtil.getEntityManager();
     }
     // ------------------- CREATE -------------------
     @Override
@@ -109,13 +76,21 @@ public class TransactionJPAImpl implements TransactionDAO {
         }
     }
 
-    // Ensures no duplicate PK or reference
+    @Override
+    public CompletableFuture<Boolean> createTransactionAsync(Transaction transaction) {
+        generateUniqueIds(transaction);
+        return TransactionBatchWriter.getInstance().submit(transaction);
+    }
+
+    // Fills in missing ids; generated ids are unique by construction and the
+    // table's constraints reject anything else, so no lookup is made here
     private void generateUniqueIds(Transaction transaction) {
-        if (transaction.getTransactionId() == null || transactionExists(transaction.getTransactionId())) {
-            transaction.setTransactionId("TXN" + UUID.randomUUID().toString().replace("-", "").substring(0, 12).toUpperCase());
+        TransactionIdGenerator generator = TransactionIdGenerator.getInstance();
+        if (transaction.getTransactionId() == null) {
+            transaction.setTransactionId(generator.nextTransactionId());
         }
-        if (transaction.getTransactionRefNo() == null || transactionRefExists(transaction.getTransactionRefNo())) {
-            transaction.setTransactionRefNo("REF" + System.currentTimeMillis());
+        if (transaction.getTransactionRefNo() == null) {
+            transaction.setTransactionRefNo(TransactionIdGenerator.refNoFor(transaction.getTransactionId()));
         }
     }
 
@@ -219,17 +194,99 @@ public class TransactionJPAImpl implements TransactionDAO {
 
     @Override
     public List<Transaction> findTransactionsByDateRange(String accountNumber, LocalDate fromDate, LocalDate toDate) {
-        List<Transaction> debits = findDebitTransactionsByDateRange(accountNumber, fromDate, toDate);
-        List<Transaction> credits = findCreditTransactionsByDateRange(accountNumber, fromDate, toDate);
-        
-        List<Transaction> allTransactions = new ArrayList<>();
-        allTransactions.addAll(debits);
-        allTransactions.addAll(credits);
-        
-        // Sort by transaction date descending
-        allTransactions.sort((t1, t2) -> t2.getTransactionDate().compareTo(t1.getTransactionDate()));
-        
-        return allTransactions;
+        EntityManager em = getEntityManager();
+        try {
+            return statementQuery(em, accountNumber, fromDate, toDate, null, null).getResultList();
+        } finally {
+            em.close();
+        }
+    }
+
+    @Override
+    public List<Transaction> findStatementPage(String accountNumber, LocalDate fromDate, LocalDate toDate,
+                                               LocalDateTime afterDate, String afterId, int limit) {
+        EntityManager em = getEntityManager();
+        try {
+            return statementQuery(em, accountNumber, fromDate, toDate, afterDate, afterId)
+                    .setMaxResults(limit)
+                    .getResultList();
+        } finally {
+            em.close();
+        }
+    }
+
+    @Override
+    public void streamStatement(String accountNumber, LocalDate fromDate, LocalDate toDate, Consumer<Transaction> consumer) {
+        EntityManager em = getEntityManager();
+        try {
+            LocalDateTime afterDate = null;
+            String afterId = null;
+            while (true) {
+                List<Transaction> chunk = statementQuery(em, accountNumber, fromDate, toDate, afterDate, afterId)
+                        .setMaxResults(STATEMENT_CHUNK_SIZE)
+                        .setHint("eclipselink.jdbc.fetch-size", STATEMENT_CHUNK_SIZE)
+                        .setHint("eclipselink.read-only", true)
+                        .getResultList();
+                for (Transaction t : chunk) {
+                    consumer.accept(t);
+                }
+                if (chunk.size() < STATEMENT_CHUNK_SIZE) {
+                    return;
+                }
+                Transaction last = chunk.get(chunk.size() - 1);
+                afterDate = last.getTransactionDate();
+                afterId = last.getTransactionId();
+                // Drop the chunk from the persistence context so memory stays flat
+                em.clear();
+            }
+        } finally {
+            em.close();
+        }
+    }
+
+    @Override
+    public List<TransactionWithType> findStatementWithType(String accountNumber, LocalDate fromDate, LocalDate toDate) {
+        EntityManager em = getEntityManager();
+        try {
+            // Marker and counterparty are worked out by the database, rows come back already in statement order
+            return em.createQuery(
+                    "SELECT NEW com.oracle.beans.TransactionWithType(t, t.TransactionType, " +
+                    "CASE WHEN t.TransactionType = 'DEBIT' THEN t.toAccountNumber ELSE t.fromAccountNumber END) " +
+                    "FROM Transaction t WHERE " + STATEMENT_FILTER +
+                    " ORDER BY t.transactionDate DESC, t.transactionId DESC",
+                    TransactionWithType.class)
+                    .setParameter("accountNumber", accountNumber)
+                    .setParameter("fromDate", fromDate)
+                    .setParameter("toDate", toDate)
+                    .getResultList();
+        } finally {
+            em.close();
+        }
+    }
+
+    /**
+     * Debits out of and credits into an account with a value date in range, ordered
+     * newest first on (transactionDate, transactionId) and optionally starting after
+     * a given row, so the order is total and pages never skip or repeat a row.
+     */
+    private TypedQuery<Transaction> statementQuery(EntityManager em, String accountNumber, LocalDate fromDate,
+                                                   LocalDate toDate, LocalDateTime afterDate, String afterId) {
+        StringBuilder jpql = new StringBuilder("SELECT t FROM Transaction t WHERE " + STATEMENT_FILTER);
+        if (afterDate != null) {
+            jpql.append(" AND (t.transactionDate < :afterDate " +
+                        "OR (t.transactionDate = :afterDate AND t.transactionId < :afterId))");
+        }
+        jpql.append(" ORDER BY t.transactionDate DESC, t.transactionId DESC");
+
+        TypedQuery<Transaction> query = em.createQuery(jpql.toString(), Transaction.class);
+        query.setParameter("accountNumber", accountNumber);
+        query.setParameter("fromDate", fromDate);
+        query.setParameter("toDate", toDate);
+        if (afterDate != null) {
+            query.setParameter("afterDate", afterDate);
+            query.setParameter("afterId", afterId);
+        }
+        return query;
     }
 
     @Override
@@ -255,7 +312,7 @@ public class TransactionJPAImpl implements TransactionDAO {
     }
     @Override public List<Transaction> findTransactionsByAccount(String accountNumber) { return findByAccountNumber(accountNumber); }
     @Override public List<Transaction> findTransactionsByType(String transactionType) {
-        return queryList("SELECT t FROM Transaction t WHERE t.transactionType = :type ORDER BY t.transactionDate DESC", "type", transactionType);
+        return queryList("SELECT t FROM Transaction t WHERE t.TransactionType = :type ORDER BY t.transactionDate DESC", "type", transactionType);
     }
     @Override public List<Transaction> findTransactionsByStatus(String status) {
         return queryList("SELECT t FROM Transaction t WHERE t.status = :status ORDER BY t.transactionDate DESC", "status", status);
@@ -432,6 +489,120 @@ public class TransactionJPAImpl implements TransactionDAO {
         }
     }
 
+    // ------------------- AGGREGATES -------------------
+    @Override
+    public BigDecimal sumAmount(String fromAccountNumber, Collection<String> types, Collection<String> methods,
+                                Collection<String> statuses, LocalDateTime start, LocalDateTime end) {
+        EntityManager em = getEntityManager();
+        try {
+            Map<String, Object> params = new HashMap<>();
+            String where = aggregateFilter(fromAccountNumber, types, methods, statuses, start, end, params);
+            TypedQuery<BigDecimal> query = em.createQuery(
+                    "SELECT COALESCE(SUM(t.amount), 0) FROM Transaction t" + where, BigDecimal.class);
+            params.forEach(query::setParameter);
+            return query.getSingleResult();
+        } finally {
+            em.close();
+        }
+    }
+
+    @Override
+    public Map<LocalDate, BigDecimal> sumAmountByDay(String fromAccountNumber, Collection<String> types,
+                                                     Collection<String> methods, Collection<String> statuses,
+                                                     LocalDateTime start, LocalDateTime end) {
+        Map<LocalDate, BigDecimal> totals = new TreeMap<>();
+        for (Object[] row : groupedSums("FUNCTION('TRUNC', t.transactionDate)",
+                fromAccountNumber, types, methods, statuses, start, end)) {
+            totals.put(toLocalDate(row[0]), (BigDecimal) row[1]);
+        }
+        return totals;
+    }
+
+    @Override
+    public Map<String, BigDecimal> sumAmountByMethod(String fromAccountNumber, Collection<String> types,
+                                                     Collection<String> methods, Collection<String> statuses,
+                                                     LocalDateTime start, LocalDateTime end) {
+        Map<String, BigDecimal> totals = new HashMap<>();
+        for (Object[] row : groupedSums("t.transferMethod", fromAccountNumber, types, methods, statuses, start, end)) {
+            totals.put((String) row[0], (BigDecimal) row[1]);
+        }
+        return totals;
+    }
+
+    @Override
+    public BigDecimal sumOutflows(String accountNumber, LocalDateTime start, LocalDateTime end) {
+        return sumAmount(accountNumber, OUTFLOW_TYPES, null, COMPLETED_STATUSES, start, end);
+    }
+
+    @Override
+    public Map<String, BigDecimal> sumOutflowsByAccount(LocalDateTime start, LocalDateTime end) {
+        Map<String, BigDecimal> totals = new HashMap<>();
+        for (Object[] row : groupedSums("t.fromAccountNumber", null, OUTFLOW_TYPES, null, COMPLETED_STATUSES, start, end)) {
+            if (row[0] != null) {
+                totals.put((String) row[0], (BigDecimal) row[1]);
+            }
+        }
+        return totals;
+    }
+
+    private List<Object[]> groupedSums(String groupBy, String fromAccountNumber, Collection<String> types,
+                                       Collection<String> methods, Collection<String> statuses,
+                                       LocalDateTime start, LocalDateTime end) {
+        EntityManager em = getEntityManager();
+        try {
+            Map<String, Object> params = new HashMap<>();
+            String where = aggregateFilter(fromAccountNumber, types, methods, statuses, start, end, params);
+            TypedQuery<Object[]> query = em.createQuery(
+                    "SELECT " + groupBy + ", SUM(t.amount) FROM Transaction t" + where + " GROUP BY " + groupBy,
+                    Object[].class);
+            params.forEach(query::setParameter);
+            return query.getResultList();
+        } finally {
+            em.close();
+        }
+    }
+
+    // Builds the WHERE clause for an aggregate; a null or empty filter is left out
+    private static String aggregateFilter(String fromAccountNumber, Collection<String> types,
+                                          Collection<String> methods, Collection<String> statuses,
+                                          LocalDateTime start, LocalDateTime end, Map<String, Object> params) {
+        List<String> clauses = new ArrayList<>();
+        if (fromAccountNumber != null) {
+            clauses.add("t.fromAccountNumber = :acc");
+            params.put("acc", fromAccountNumber);
+        }
+        if (types != null && !types.isEmpty()) {
+            clauses.add("t.TransactionType IN :types");
+            params.put("types", types);
+        }
+        if (methods != null && !methods.isEmpty()) {
+            clauses.add("t.transferMethod IN :methods");
+            params.put("methods", methods);
+        }
+        if (statuses != null && !statuses.isEmpty()) {
+            clauses.add("t.status IN :statuses");
+            params.put("statuses", statuses);
+        }
+        if (start != null) {
+            clauses.add("t.transactionDate >= :start");
+            params.put("start", start);
+        }
+        if (end != null) {
+            clauses.add("t.transactionDate < :end");
+            params.put("end", end);
+        }
+        return clauses.isEmpty() ? "" : " WHERE " + String.join(" AND ", clauses);
+    }
+
+    // TRUNC comes back as whatever date type the driver maps DATE to
+    private static LocalDate toLocalDate(Object value) {
+        if (value instanceof LocalDate) return (LocalDate) value;
+        if (value instanceof LocalDateTime) return ((LocalDateTime) value).toLocalDate();
+        if (value instanceof java.sql.Timestamp) return ((java.sql.Timestamp) value).toLocalDateTime().toLocalDate();
+        if (value instanceof java.sql.Date) return ((java.sql.Date) value).toLocalDate();
+        return ((java.util.Date) value).toInstant().atZone(java.time.ZoneId.systemDefault()).toLocalDate();
+    }
+
     @Override
     public BigDecimal getTotalCreditAmountByAccount(String accountNumber) {
         EntityManager em = getEntityManager();
@@ -461,6 +632,22 @@ public class TransactionJPAImpl implements TransactionDAO {
         }
     }
 
+    @Override
+    public List<TransactionSummary> getRecentTransactionSummaries(String accountNumber, int limit) {
+        EntityManager em = getEntityManager();
+        try {
+            return em.createQuery(
+                    "SELECT NEW com.oracle.beans.dto.TransactionSummary(t.transactionId, t.transactionRefNo, " +
+                    "t.fromAccountNumber, t.toAccountNumber, t.TransactionType, t.amount, t.transferMethod, " +
+                    "t.status, t.description, t.transactionDate, t.valueDate) " +
+                    "FROM Transaction t WHERE t.fromAccountNumber = :acc OR t.toAccountNumber = :acc " +
+                    "ORDER BY t.transactionDate DESC, t.transactionId DESC",
+                    TransactionSummary.class).setParameter("acc", accountNumber).setMaxResults(limit).getResultList();
+        } finally {
+            em.close();
+        }
+    }
+
     @Override
     public List<Transaction> findHighValueTransactions(BigDecimal threshold) {
         EntityManager em = getEntityManager();
@@ -0,0 +1,140 @@
+package com.oracle.dao.impl;
+
+import com.oracle.beans.BankAccount;
+import com.oracle.beans.Transaction;
+import com.oracle.dao.TransferDAO;
+import com.oracle.dao.util.JPAUtil;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+public class TransferJPAImpl implements TransferDAO {
+
+    private static final Logger logger = Logger.getLogger(TransferJPAImpl.class.getName());
+
+    // How long a transfer waits for a row lock held by another transfer (milliseconds)
+    private static final int LOCK_TIMEOUT_MS = Integer.getInteger("banking.transfer.lockTimeoutMs", 5000);
+
+    @Override
+    public boolean executeTransfer(String fromAccount, String toAccount, BigDecimal amount,
+                                   Transaction debitTransaction, Transaction creditTransaction) {
+        EntityManager em = JPAUtil.getEntityManager();
+        try {
+            em.getTransaction().begin();
+
+            // Lock both rows in account-number order so that two transfers in opposite
+            // directions between the same accounts can never wait on each other
+            boolean sourceFirst = fromAccount.compareTo(toAccount) <= 0;
+            BankAccount first = lockAccount(em, sourceFirst ? fromAccount : toAccount);
+            BankAccount second = first != null ? lockAccount(em, sourceFirst ? toAccount : fromAccount) : null;
+            BankAccount source = sourceFirst ? first : second;
+            BankAccount destination = sourceFirst ? second : first;
+            if (source == null || destination == null) {
+                em.getTransaction().rollback();
+                logger.warning("Account not found for transfer: " + (source == null ? fromAccount : toAccount));
+                return false;
+            }
+
+            // The caller checked a snapshot; only the locked rows tell what is true now
+            if (!"Y".equals(source.getIsActive()) || !"Y".equals(destination.getIsActive())) {
+                em.getTransaction().rollback();
+                logger.warning("Account no longer active for transfer: "
+                        + (!"Y".equals(source.getIsActive()) ? fromAccount : toAccount));
+                return false;
+            }
+
+            BigDecimal fromBalance = source.getBalance();
+            BigDecimal toBalance = destination.getBalance();
+            if (fromBalance.subtract(amount).compareTo(BankAccount.minimumBalance(source.getAccountType())) < 0) {
+                em.getTransaction().rollback();
+                logger.warning("Insufficient balance for transfer: " + fromAccount);
+                return false;
+            }
+
+            LocalDateTime now = LocalDateTime.now();
+
+            // Both rows are managed, so the balance changes are flushed on commit
+            source.setBalance(fromBalance.subtract(amount));
+            source.setLastTransactionDate(now);
+            destination.setBalance(toBalance.add(amount));
+            destination.setLastTransactionDate(now);
+
+            debitTransaction.setOpeningBalance(fromBalance);
+            debitTransaction.setClosingBalance(source.getBalance());
+            creditTransaction.setOpeningBalance(toBalance);
+            creditTransaction.setClosingBalance(destination.getBalance());
+            distinctReferences(debitTransaction, creditTransaction);
+
+            em.persist(debitTransaction);
+            em.persist(creditTransaction);
+
+            em.getTransaction().commit();
+            logger.info("Transfer committed: " + fromAccount + " -> " + toAccount + " amount: " + amount);
+            return true;
+        } catch (Exception e) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            logger.severe("Error executing transfer: " + e.getMessage());
+            return false;
+        } finally {
+            em.close();
+        }
+    }
+
+    @Override
+    public boolean applyLedgerBatch(Map<String, BigDecimal> balances, List<Transaction> entries) {
+        EntityManager em = JPAUtil.getEntityManager();
+        try {
+            em.getTransaction().begin();
+            LocalDateTime now = LocalDateTime.now();
+            for (Map.Entry<String, BigDecimal> balance : balances.entrySet()) {
+                em.createQuery("UPDATE BankAccount ba SET ba.balance = :balance, ba.lastTransactionDate = :now " +
+                               "WHERE ba.accountNumber = :accountNumber")
+                  .setParameter("balance", balance.getValue())
+                  .setParameter("now", now)
+                  .setParameter("accountNumber", balance.getKey())
+                  .executeUpdate();
+            }
+            for (Transaction entry : entries) {
+                em.persist(entry);
+            }
+            em.getTransaction().commit();
+            logger.info("Ledger batch committed: " + balances.size() + " accounts, " + entries.size() + " entries");
+            return true;
+        } catch (Exception e) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            logger.severe("Error applying ledger batch: " + e.getMessage());
+            return false;
+        } finally {
+            em.close();
+        }
+    }
+
+    /**
+     * transaction_ref_no is unique, so legs handed in with one shared reference are
+     * told apart by a -D and -C suffix instead of failing at commit
+     */
+    static void distinctReferences(Transaction debitTransaction, Transaction creditTransaction) {
+        String reference = debitTransaction.getTransactionRefNo();
+        if (reference != null && reference.equals(creditTransaction.getTransactionRefNo())) {
+            debitTransaction.setTransactionRefNo(reference + "-D");
+            creditTransaction.setTransactionRefNo(reference + "-C");
+        }
+    }
+
+    /**
+     * Read an account row with SELECT ... FOR UPDATE, refreshing any cached state
+     */
+    private BankAccount lockAccount(EntityManager em, String accountNumber) {
+        return em.find(BankAccount.class, accountNumber, LockModeType.PESSIMISTIC_WRITE,
+                       Map.of("jakarta.persistence.lock.timeout", LOCK_TIMEOUT_MS));
+    }
+}
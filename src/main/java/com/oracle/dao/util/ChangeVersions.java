@@ -0,0 +1,52 @@
+package com.oracle.dao.util;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Change counters for tables that back cacheable read endpoints.
+ *
+ * The DAOs bump a table's counter after every committed write to it, and read
+ * endpoints build their ETag from the counter. A repeat request can then be
+ * answered with 304 without running the query. Each process starts from a
+ * random epoch, so tags issued before a restart never match afterwards.
+ *
+ * Writes made by other nodes or directly in the database do not bump the
+ * counter, so every tag also carries the current time bucket of
+ * banking.etag.maxAgeSeconds (default 10): a tag stops matching when its bucket
+ * ends, and such writes are seen within that time.
+ */
+public final class ChangeVersions {
+
+    public static final int CUSTOMERS = 0;
+    public static final int ACCOUNT_REQUESTS = 1;
+    public static final int ADMINS = 2;
+
+    private static final String EPOCH = Long.toHexString(ThreadLocalRandom.current().nextLong());
+    private static final AtomicLong[] versions = {new AtomicLong(), new AtomicLong(), new AtomicLong()};
+    private static final long MAX_AGE_MILLIS =
+            Math.max(1L, TimeUnit.SECONDS.toMillis(Long.getLong("banking.etag.maxAgeSeconds", 10L)));
+
+    private ChangeVersions() {
+    }
+
+    /**
+     * Record a committed write to the table; inside a request transaction, once it commits
+     */
+    public static void bump(int table) {
+        UnitOfWork.afterCommit(versions[table]::incrementAndGet);
+    }
+
+    /**
+     * Opaque tag that changes whenever the table is written through this process,
+     * and at the end of every time bucket
+     */
+    public static String tag(int table) {
+        return tag(table, System.currentTimeMillis());
+    }
+
+    static String tag(int table, long nowMillis) {
+        return EPOCH + "-" + table + "-" + versions[table].get() + "-" + nowMillis / MAX_AGE_MILLIS;
+    }
+}
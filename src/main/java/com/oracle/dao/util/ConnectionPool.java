@@ -0,0 +1,196 @@
+package com.oracle.dao.util;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import javax.sql.DataSource;
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * HikariCP connection pool behind the persistence unit.
+ *
+ * The JDBC url, user, password and driver are taken from the persistence unit's
+ * jakarta.persistence.jdbc.* properties, each of which can be overridden with a
+ * system property of the same name. Pool settings:
+ *
+ *   banking.db.pool.maxSize                  maximum connections (20)
+ *   banking.db.pool.minIdle                  idle connections kept open (5)
+ *   banking.db.pool.connectionTimeoutMillis  wait before a checkout fails (5000)
+ *   banking.db.pool.leakDetectionMillis      log a connection held longer than this, 0 = off (20000)
+ *   banking.db.statementCacheSize            Oracle driver statements cached per connection (50)
+ *
+ * EclipseLink treats a supplied DataSource as an external pool and keeps none of
+ * its own, so the counters here cover every connection the application uses.
+ */
+public class ConnectionPool {
+
+    private static final Logger logger = Logger.getLogger(ConnectionPool.class.getName());
+    private static final String JDBC_PREFIX = "jakarta.persistence.jdbc.";
+
+    private final HikariDataSource dataSource;
+    private final Metrics metrics = new Metrics();
+
+    /**
+     * Point-in-time pool statistics; wait and usage times are in milliseconds
+     */
+    public record Stats(String name, int active, int idle, int total, int maximumSize, int threadsAwaiting,
+                        long acquisitions, double averageWaitMillis, double maximumWaitMillis, long timeouts,
+                        double averageUsageMillis, long connectionsCreated) {
+    }
+
+    // Fed by Hikari on every checkout, return, timeout and new physical connection
+    private static class Metrics implements MetricsTrackerFactory, IMetricsTracker {
+        final LongAdder acquisitions = new LongAdder();
+        final LongAdder acquiredNanos = new LongAdder();
+        final AtomicLong maximumAcquiredNanos = new AtomicLong();
+        final LongAdder timeouts = new LongAdder();
+        final LongAdder usages = new LongAdder();
+        final LongAdder usageMillis = new LongAdder();
+        final LongAdder created = new LongAdder();
+
+        @Override
+        public IMetricsTracker create(String poolName, PoolStats poolStats) {
+            return this;
+        }
+
+        @Override
+        public void recordConnectionAcquiredNanos(long elapsedNanos) {
+            acquisitions.increment();
+            acquiredNanos.add(elapsedNanos);
+            maximumAcquiredNanos.accumulateAndGet(elapsedNanos, Math::max);
+        }
+
+        @Override
+        public void recordConnectionUsageMillis(long elapsedMillis) {
+            usages.increment();
+            usageMillis.add(elapsedMillis);
+        }
+
+        @Override
+        public void recordConnectionTimeout() {
+            timeouts.increment();
+        }
+
+        @Override
+        public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+            created.increment();
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /**
+     * Open a pool for the JDBC settings of the given persistence unit
+     */
+    public ConnectionPool(String persistenceUnit) {
+        Map<String, String> jdbc = jdbcSettings(persistenceUnit);
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(persistenceUnit);
+        config.setJdbcUrl(jdbc.get(JDBC_PREFIX + "url"));
+        config.setUsername(jdbc.get(JDBC_PREFIX + "user"));
+        config.setPassword(jdbc.get(JDBC_PREFIX + "password"));
+        if (jdbc.get(JDBC_PREFIX + "driver") != null) {
+            config.setDriverClassName(jdbc.get(JDBC_PREFIX + "driver"));
+        }
+        config.setMaximumPoolSize(Integer.getInteger("banking.db.pool.maxSize", 20));
+        config.setMinimumIdle(Integer.getInteger("banking.db.pool.minIdle", 5));
+        config.setConnectionTimeout(Long.getLong("banking.db.pool.connectionTimeoutMillis", 5000L));
+        config.setLeakDetectionThreshold(Long.getLong("banking.db.pool.leakDetectionMillis", 20000L));
+        // The driver caches prepared statements per connection, EclipseLink's cache does not apply to external pools
+        config.addDataSourceProperty("oracle.jdbc.implicitStatementCacheSize",
+                String.valueOf(Integer.getInteger("banking.db.statementCacheSize", 50)));
+        config.setRegisterMbeans(true);
+        config.setMetricsTrackerFactory(metrics);
+        this.dataSource = new HikariDataSource(config);
+        logger.info("Connection pool " + persistenceUnit + " started, maximum size " + config.getMaximumPoolSize());
+    }
+
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+
+    public Stats stats() {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        long acquisitions = metrics.acquisitions.sum();
+        long usages = metrics.usages.sum();
+        return new Stats(dataSource.getPoolName(),
+                pool != null ? pool.getActiveConnections() : 0,
+                pool != null ? pool.getIdleConnections() : 0,
+                pool != null ? pool.getTotalConnections() : 0,
+                dataSource.getMaximumPoolSize(),
+                pool != null ? pool.getThreadsAwaitingConnection() : 0,
+                acquisitions,
+                acquisitions == 0 ? 0.0 : nanosToMillis(metrics.acquiredNanos.sum()) / acquisitions,
+                nanosToMillis(metrics.maximumAcquiredNanos.get()),
+                metrics.timeouts.sum(),
+                usages == 0 ? 0.0 : (double) metrics.usageMillis.sum() / usages,
+                metrics.created.sum());
+    }
+
+    public void close() {
+        if (!dataSource.isClosed()) {
+            dataSource.close();
+            logger.info("Connection pool " + dataSource.getPoolName() + " closed");
+        }
+    }
+
+    private static double nanosToMillis(long nanos) {
+        return (double) nanos / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    // jakarta.persistence.jdbc.* properties of the unit in META-INF/persistence.xml, with system property overrides
+    private static Map<String, String> jdbcSettings(String persistenceUnit) {
+        Map<String, String> settings = new HashMap<>();
+        try {
+            Enumeration<URL> resources = Thread.currentThread().getContextClassLoader()
+                    .getResources("META-INF/persistence.xml");
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setNamespaceAware(true);
+            while (resources.hasMoreElements()) {
+                try (InputStream in = resources.nextElement().openStream()) {
+                    NodeList units = factory.newDocumentBuilder().parse(in).getElementsByTagNameNS("*", "persistence-unit");
+                    for (int i = 0; i < units.getLength(); i++) {
+                        Element unit = (Element) units.item(i);
+                        if (!persistenceUnit.equals(unit.getAttribute("name"))) {
+                            continue;
+                        }
+                        NodeList properties = unit.getElementsByTagNameNS("*", "property");
+                        for (int j = 0; j < properties.getLength(); j++) {
+                            Element property = (Element) properties.item(j);
+                            if (property.getAttribute("name").startsWith(JDBC_PREFIX)) {
+                                settings.put(property.getAttribute("name"), property.getAttribute("value"));
+                            }
+                        }
+                    }
+                }
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException("Cannot read persistence unit " + persistenceUnit, e);
+        }
+        for (String name : new String[]{"url", "user", "password", "driver"}) {
+            String override = System.getProperty(JDBC_PREFIX + name);
+            if (override != null) {
+                settings.put(JDBC_PREFIX + name, override);
+            }
+        }
+        return settings;
+    }
+}
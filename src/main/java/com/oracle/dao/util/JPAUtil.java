@@ -2,17 +2,39 @@
 package com.oracle.dao.util;
 
 import jakarta.persistence.*;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.logging.Logger;
 
 public class JPAUtil {
     
     private static final Logger logger = Logger.getLogger(JPAUtil.class.getName());
+    private static final String PERSISTENCE_UNIT = "banking-web";
     private static EntityManagerFactory entityManagerFactory;
+    // Pooled DataSource for the unit, unless -Dbanking.db.pool.enabled=false
+    private static ConnectionPool connectionPool;
+
+    // Query results cache settings for lookups by natural key
+    private static final String QUERY_CACHE_SIZE = String.valueOf(Integer.getInteger("banking.queryCache.size", 1000));
+    private static final String QUERY_CACHE_EXPIRY_MILLIS = String.valueOf(Long.getLong("banking.queryCache.expiryMillis", 60_000L));
+
+    // A unit of work keeps one connection for all its reads and writes instead of checking one out per call
+    private static final Map<String, Object> UNIT_OF_WORK_PROPERTIES =
+            Map.of("eclipselink.jdbc.exclusive-connection.mode", "Always");
     
     static {
         try {
-            // Initialize EntityManagerFactory using persistence.xml
-            entityManagerFactory = Persistence.createEntityManagerFactory("banking-web");
+            // Initialize EntityManagerFactory using persistence.xml, on top of the connection pool
+            Map<String, Object> properties = new HashMap<>();
+            if (Boolean.parseBoolean(System.getProperty("banking.db.pool.enabled", "true"))) {
+                connectionPool = new ConnectionPool(PERSISTENCE_UNIT);
+                properties.put("jakarta.persistence.nonJtaDataSource", connectionPool.getDataSource());
+                // The pool logs in itself; with a user set EclipseLink would call getConnection(user, password),
+                // which Hikari does not support
+                properties.put("jakarta.persistence.jdbc.user", "");
+                properties.put("jakarta.persistence.jdbc.password", "");
+            }
+            entityManagerFactory = Persistence.createEntityManagerFactory(PERSISTENCE_UNIT, properties);
             logger.info("JPA EntityManagerFactory initialized successfully");
         } catch (Exception e) {
             logger.severe("Error initializing EntityManagerFactory: " + e.getMessage());
@@ -21,15 +43,31 @@ public class JPAUtil {
     }
     
     /**
-     * Get EntityManager instance
+     * Get EntityManager instance, the shared one if a unit of work is bound to this thread
      * @return EntityManager
      */
     public static EntityManager getEntityManager() {
         if (entityManagerFactory == null) {
             throw new IllegalStateException("EntityManagerFactory is not initialized");
         }
+        UnitOfWork unit = UnitOfWork.current();
+        if (unit != null) {
+            return unit.entityManager();
+        }
         return entityManagerFactory.createEntityManager();
     }
+
+    /**
+     * Bind a unit of work to this thread so that DAO calls share one EntityManager
+     * @param transactional whether the DAOs join one transaction committed when the unit ends
+     * @return the unit, to be ended by the caller
+     */
+    public static UnitOfWork beginUnitOfWork(boolean transactional) {
+        if (entityManagerFactory == null) {
+            throw new IllegalStateException("EntityManagerFactory is not initialized");
+        }
+        return UnitOfWork.begin(() -> entityManagerFactory.createEntityManager(UNIT_OF_WORK_PROPERTIES), transactional);
+    }
     
     /**
      * Get EntityManagerFactory instance
@@ -40,13 +78,39 @@ public class JPAUtil {
     }
     
     /**
-     * Close EntityManagerFactory
+     * Mark a query as served from the shared query results cache.
+     * Only meant for single-row lookups of cacheable entities by a unique key: the
+     * cache maps the parameters to ids, the rows then come from the entity cache,
+     * and any change to the entity class through this factory invalidates it.
+     * @param query query to mark
+     * @return the same query
+     */
+    public static <T> TypedQuery<T> cacheResults(TypedQuery<T> query) {
+        query.setHint("eclipselink.query-results-cache", "true");
+        query.setHint("eclipselink.query-results-cache.size", QUERY_CACHE_SIZE);
+        query.setHint("eclipselink.query-results-cache.expiry", QUERY_CACHE_EXPIRY_MILLIS);
+        return query;
+    }
+
+    /**
+     * Get the connection pool behind the EntityManagerFactory
+     * @return ConnectionPool, or null if pooling is disabled
+     */
+    public static ConnectionPool getConnectionPool() {
+        return connectionPool;
+    }
+
+    /**
+     * Close EntityManagerFactory and its connection pool
      */
     public static void closeEntityManagerFactory() {
         if (entityManagerFactory != null && entityManagerFactory.isOpen()) {
             entityManagerFactory.close();
             logger.info("EntityManagerFactory closed successfully");
         }
+        if (connectionPool != null) {
+            connectionPool.close();
+        }
     }
     
     /**
@@ -0,0 +1,190 @@
+package com.oracle.dao.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Bounded in-process read-through cache with a time-to-live.
+ *
+ * Lookups are a single ConcurrentHashMap read. When the cache grows past its
+ * maximum size, entries are evicted in CLOCK order: the oldest entry goes unless
+ * it was read since it was last considered, in which case it gets a second chance.
+ * That approximates LRU without reordering anything on a hit.
+ *
+ * A load that overlaps an invalidation of the same cache is returned to its
+ * caller but not stored, so a write can never be undone by a slower read.
+ * Neither is a load made inside a transactional unit of work: it reads through
+ * the unit's EntityManager, so it can see rows the unit has not committed and
+ * may still roll back. Null values are not cached.
+ *
+ * Every cache registers itself by name so its statistics can be reported.
+ */
+public class LocalCache<K, V> {
+
+    private static final List<LocalCache<?, ?>> registry = new CopyOnWriteArrayList<>();
+
+    private final String name;
+    private final int maximumSize;
+    private final long ttlNanos;
+
+    private final Map<K, Node<K, V>> map = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Node<K, V>> clock = new ConcurrentLinkedQueue<>();
+    // Length of the clock queue, which also holds nodes already replaced or invalidated
+    private final AtomicInteger clockSize = new AtomicInteger();
+    // Bumped by every invalidation; a load only stores its value if this did not move meanwhile
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+
+    private static class Node<K, V> {
+        final K key;
+        final V value;
+        final long expiresAt;
+        volatile boolean referenced;
+
+        Node(K key, V value, long expiresAt) {
+            this.key = key;
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * Point-in-time statistics of one cache
+     */
+    public record Stats(String name, int size, int maximumSize, long hits, long misses,
+                        long evictions, long expirations, double hitRate) {
+    }
+
+    public LocalCache(String name, int maximumSize, long ttl, TimeUnit unit) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("maximumSize must be positive");
+        }
+        this.name = name;
+        this.maximumSize = maximumSize;
+        this.ttlNanos = unit.toNanos(ttl);
+        registry.add(this);
+    }
+
+    /**
+     * Cached value for the key, loading and storing it on a miss or after expiry
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        Node<K, V> node = map.get(key);
+        if (node != null) {
+            if (System.nanoTime() - node.expiresAt < 0) {
+                node.referenced = true;
+                hits.incrementAndGet();
+                return node.value;
+            }
+            if (map.remove(key, node)) {
+                expirations.incrementAndGet();
+            }
+        }
+        misses.incrementAndGet();
+
+        long stamp = invalidations.get();
+        V value = loader.apply(key);
+        if (value != null && !UnitOfWork.inTransaction()) {
+            Node<K, V> loaded = new Node<>(key, value, System.nanoTime() + ttlNanos);
+            map.put(key, loaded);
+            // An invalidation ran while we were loading: the value may predate it
+            if (invalidations.get() != stamp) {
+                map.remove(key, loaded);
+            } else {
+                clock.add(loaded);
+                clockSize.incrementAndGet();
+                evictIfNeeded();
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Cached value for the key without loading it, or null
+     */
+    public V getIfPresent(K key) {
+        Node<K, V> node = map.get(key);
+        if (node != null && System.nanoTime() - node.expiresAt < 0) {
+            node.referenced = true;
+            hits.incrementAndGet();
+            return node.value;
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    public void invalidate(K key) {
+        invalidations.incrementAndGet();
+        map.remove(key);
+        // Other threads can reload the old row until the request transaction commits
+        if (UnitOfWork.inTransaction()) {
+            UnitOfWork.afterCommit(() -> invalidate(key));
+        }
+    }
+
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        map.clear();
+        if (UnitOfWork.inTransaction()) {
+            UnitOfWork.afterCommit(this::invalidateAll);
+        }
+    }
+
+    public Stats stats() {
+        long h = hits.get();
+        long m = misses.get();
+        return new Stats(name, map.size(), maximumSize, h, m, evictions.get(), expirations.get(),
+                h + m == 0 ? 0.0 : (double) h / (h + m));
+    }
+
+    /**
+     * Statistics of every cache created in this process
+     */
+    public static List<Stats> allStats() {
+        List<Stats> stats = new ArrayList<>();
+        for (LocalCache<?, ?> cache : registry) {
+            stats.add(cache.stats());
+        }
+        return stats;
+    }
+
+    // Evicts while over size, and sweeps dead nodes out of the clock once they outnumber live ones
+    private void evictIfNeeded() {
+        while (true) {
+            boolean overSize = map.size() > maximumSize;
+            if (!overSize && clockSize.get() <= 2 * maximumSize) {
+                return;
+            }
+            Node<K, V> candidate = clock.poll();
+            if (candidate == null) {
+                return;
+            }
+            clockSize.decrementAndGet();
+            if (map.get(candidate.key) != candidate) {
+                // Already replaced, invalidated or expired
+                continue;
+            }
+            if (overSize && !candidate.referenced) {
+                if (map.remove(candidate.key, candidate)) {
+                    evictions.incrementAndGet();
+                }
+                continue;
+            }
+            candidate.referenced = false;
+            clock.add(candidate);
+            clockSize.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.oracle.dao.util;
+
+import com.oracle.beans.Transaction;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityTransaction;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Group-commit writer for Transaction rows.
+ *
+ * Inserts are queued and a single writer thread persists up to BATCH_SIZE of them
+ * per database transaction, waiting at most MAX_WAIT_MS for a batch to fill.
+ * Each caller gets a future that completes once its row is committed.
+ *
+ * Submitters enqueue under the read side of a lock that shutdown() takes for
+ * writing, so no row can be queued after the writer's final drain. Rows still
+ * queued when the writer does not stop in time are failed, never left pending.
+ */
+public class TransactionBatchWriter {
+
+    private static final Logger logger = Logger.getLogger(TransactionBatchWriter.class.getName());
+
+    private static final int QUEUE_CAPACITY = Integer.getInteger("banking.txnWriter.queueCapacity", 10000);
+    private static final int BATCH_SIZE = Integer.getInteger("banking.txnWriter.batchSize", 100);
+    private static final long MAX_WAIT_MS = Long.getLong("banking.txnWriter.maxWaitMs", 5L);
+
+    private static volatile TransactionBatchWriter instance;
+
+    private final BlockingQueue<Pending> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final Thread writer;
+    private volatile boolean running = true;
+    // Set under the write lock; submit() reads it and enqueues under the read lock
+    private final ReadWriteLock queueLock = new ReentrantReadWriteLock();
+    private boolean shutdown;
+
+    private static class Pending {
+        final Transaction transaction;
+        final CompletableFuture<Boolean> result = new CompletableFuture<>();
+
+        Pending(Transaction transaction) {
+            this.transaction = transaction;
+        }
+    }
+
+    TransactionBatchWriter() {
+        writer = new Thread(this::run, "transaction-batch-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public static TransactionBatchWriter getInstance() {
+        if (instance == null) {
+            synchronized (TransactionBatchWriter.class) {
+                if (instance == null) {
+                    instance = new TransactionBatchWriter();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Queue a row for insertion, blocking while the queue is full
+     * @return future completing with true on commit, or exceptionally if the row could not be stored
+     */
+    public CompletableFuture<Boolean> submit(Transaction transaction) {
+        Pending pending = new Pending(transaction);
+        queueLock.readLock().lock();
+        try {
+            if (shutdown) {
+                pending.result.completeExceptionally(new RejectedExecutionException("Transaction writer is stopped"));
+                return pending.result;
+            }
+            // The writer keeps draining until shutdown() holds the write lock, so this cannot block forever
+            queue.put(pending);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pending.result.completeExceptionally(e);
+        } finally {
+            queueLock.readLock().unlock();
+        }
+        return pending.result;
+    }
+
+    /**
+     * Shut the writer down if it was ever started
+     */
+    public static void shutdownIfStarted() {
+        TransactionBatchWriter writer = instance;
+        if (writer != null) {
+            writer.shutdown();
+        }
+    }
+
+    /**
+     * Stop accepting rows and write whatever is still queued
+     */
+    public void shutdown() {
+        // Waits for submitters already enqueueing; any later one is rejected
+        queueLock.writeLock().lock();
+        try {
+            if (shutdown) {
+                return;
+            }
+            shutdown = true;
+        } finally {
+            queueLock.writeLock().unlock();
+        }
+        running = false;
+        writer.interrupt();
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            logger.warning("Transaction writer did not stop in time");
+        }
+        List<Pending> leftover = new ArrayList<>();
+        queue.drainTo(leftover);
+        for (Pending pending : leftover) {
+            pending.result.completeExceptionally(new RejectedExecutionException(
+                    "Transaction writer stopped before writing " + pending.transaction.getTransactionId()));
+        }
+    }
+
+    private void run() {
+        List<Pending> batch = new ArrayList<>(BATCH_SIZE);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = running ? queue.take() : queue.poll();
+                if (first == null) {
+                    break;
+                }
+                batch.add(first);
+                // Give concurrent callers a few milliseconds to join this commit
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(MAX_WAIT_MS);
+                while (batch.size() < BATCH_SIZE) {
+                    if (queue.drainTo(batch, BATCH_SIZE - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    Pending next = remaining > 0 && running ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // shutdown() interrupts a waiting writer; loop round to drain what is left
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<Pending> batch) {
+        if (persist(batch)) {
+            for (Pending pending : batch) {
+                pending.result.complete(true);
+            }
+            return;
+        }
+        // One bad row must not fail its neighbours: retry them one commit each
+        for (Pending pending : batch) {
+            List<Pending> single = List.of(pending);
+            if (persist(single)) {
+                pending.result.complete(true);
+            } else {
+                pending.result.completeExceptionally(new IllegalStateException(
+                        "Error creating transaction " + pending.transaction.getTransactionId()));
+            }
+        }
+    }
+
+    private boolean persist(List<Pending> batch) {
+        EntityManager em = JPAUtil.getEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        try {
+            tx.begin();
+            for (Pending pending : batch) {
+                em.persist(pending.transaction);
+            }
+            tx.commit();
+            return true;
+        } catch (Exception e) {
+            if (tx.isActive()) tx.rollback();
+            logger.log(Level.WARNING, "Error writing batch of " + batch.size() + " transactions", e);
+            return false;
+        } finally {
+            em.close();
+        }
+    }
+}
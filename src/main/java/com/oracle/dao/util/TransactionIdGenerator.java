@@ -0,0 +1,168 @@
+package com.oracle.dao.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Lookup-free generator for transaction ids and reference numbers.
+ *
+ * Each value is a time-ordered 64-bit number: 41 bits of milliseconds since
+ * 2024-01-01, a 10-bit node id and a 12-bit per-millisecond sequence. Values are
+ * unique by construction as long as every node runs with its own
+ * banking.node.id (0-1023), so no database probe is needed before an insert.
+ *
+ * If the clock steps back, or more than 4096 values are asked for within one
+ * millisecond, the generator keeps counting from the last timestamp it issued
+ * instead of waiting, so it never blocks and never repeats itself.
+ *
+ * To carry that across a restart, the node leases timestamps ahead of use: before
+ * issuing a value past its lease it writes a new one, banking.txnId.leaseMs
+ * (default 10000) ahead, to banking.txnId.stateFile (default
+ * txn-id-<node>.hwm). A restarted node starts counting after the stored lease,
+ * so a clock that went back while it was down cannot make it repeat a value.
+ */
+public final class TransactionIdGenerator {
+
+    private static final long EPOCH_MILLIS = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+    private static final long LEASE_MILLIS = Long.getLong("banking.txnId.leaseMs", 10_000L);
+
+    private static final Logger logger = Logger.getLogger(TransactionIdGenerator.class.getName());
+
+    private static final long NODE_ID = Long.getLong("banking.node.id", 0L);
+    private static final TransactionIdGenerator instance = new TransactionIdGenerator(NODE_ID,
+            Paths.get(System.getProperty("banking.txnId.stateFile", "txn-id-" + NODE_ID + ".hwm")));
+
+    private final long nodeBits;
+    // Where the lease is kept; null to keep none
+    private final Path stateFile;
+
+    // Last issued (timestamp << SEQUENCE_BITS | sequence); incrementing it carries into the timestamp
+    private final AtomicLong state = new AtomicLong();
+    // Timestamps up to this one are covered by the stored lease
+    private volatile long leasedUntil;
+
+    TransactionIdGenerator(long nodeId, Path stateFile) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("banking.node.id must be between 0 and " + MAX_NODE_ID);
+        }
+        this.nodeBits = nodeId << SEQUENCE_BITS;
+        this.stateFile = stateFile;
+        if (stateFile == null) {
+            leasedUntil = Long.MAX_VALUE;
+            return;
+        }
+        // Anything up to the stored lease may have been issued before the restart
+        long stored = readLease(stateFile);
+        state.set(stored << SEQUENCE_BITS | SEQUENCE_MASK);
+        leasedUntil = stored;
+    }
+
+    public static TransactionIdGenerator getInstance() {
+        return instance;
+    }
+
+    /**
+     * Next unique 64-bit value for this node
+     */
+    public long nextId() {
+        long now = System.currentTimeMillis() - EPOCH_MILLIS;
+        while (true) {
+            long previous = state.get();
+            long next = now > (previous >>> SEQUENCE_BITS) ? now << SEQUENCE_BITS : previous + 1;
+            if (state.compareAndSet(previous, next)) {
+                long timestamp = next >>> SEQUENCE_BITS;
+                if (timestamp > leasedUntil) {
+                    renewLease(timestamp);
+                }
+                return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | nodeBits | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    // Store a lease past this timestamp before any value carrying it is handed out
+    private synchronized void renewLease(long timestamp) {
+        if (timestamp <= leasedUntil) {
+            return;
+        }
+        long lease = timestamp + LEASE_MILLIS;
+        try {
+            Path temporary = stateFile.resolveSibling(stateFile.getFileName() + ".tmp");
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                channel.write(ByteBuffer.wrap(Long.toString(lease + EPOCH_MILLIS).getBytes(StandardCharsets.US_ASCII)));
+                channel.force(true);
+            }
+            Files.move(temporary, stateFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            leasedUntil = lease;
+        } catch (IOException e) {
+            // Keep issuing and try again one lease later; uniqueness across a restart is only
+            // at risk if the clock also steps back
+            logger.log(Level.SEVERE, "Could not store the transaction id lease in " + stateFile, e);
+            leasedUntil = lease;
+        }
+    }
+
+    // The stored lease, as milliseconds since EPOCH_MILLIS; 0 if there is none yet
+    private static long readLease(Path stateFile) {
+        try {
+            long epochMillis = Long.parseLong(Files.readString(stateFile, StandardCharsets.US_ASCII).trim());
+            return Math.max(0, epochMillis - EPOCH_MILLIS);
+        } catch (NoSuchFileException e) {
+            return 0;
+        } catch (IOException | NumberFormatException e) {
+            throw new IllegalStateException("Unreadable transaction id lease in " + stateFile, e);
+        }
+    }
+
+    /**
+     * New transaction id in the TXN format: TXN followed by 16 hex digits
+     */
+    public String nextTransactionId() {
+        return toTransactionId(nextId());
+    }
+
+    /**
+     * New reference number in the REF format: REF followed by 19 decimal digits
+     */
+    public String nextRefNo() {
+        return toRefNo(nextId());
+    }
+
+    public static String toTransactionId(long id) {
+        char[] chars = {'T', 'X', 'N', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0', '0'};
+        for (int i = chars.length - 1; i >= 3; i--, id >>>= 4) {
+            chars[i] = HEX[(int) (id & 0xF)];
+        }
+        return new String(chars);
+    }
+
+    public static String toRefNo(long id) {
+        String digits = Long.toString(id);
+        return "REF" + "0000000000000000000".substring(digits.length()) + digits;
+    }
+
+    /**
+     * Reference number carrying the same value as a generated transaction id,
+     * for rows that need their own reference derived from their id
+     */
+    public static String refNoFor(String transactionId) {
+        return toRefNo(Long.parseUnsignedLong(transactionId.substring(3), 16));
+    }
+}
@@ -0,0 +1,253 @@
+package com.oracle.dao.util;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityTransaction;
+import jakarta.persistence.RollbackException;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * One EntityManager shared by every DAO call made on the current thread.
+ *
+ * While a unit of work is bound, JPAUtil.getEntityManager() hands out a view of
+ * the shared EntityManager instead of creating a new one. The DAOs keep their
+ * usual open/begin/commit/close pattern: close() only clears the persistence
+ * context, so each call still starts from fresh state, but the EntityManager and
+ * its connection are reused for the whole request.
+ *
+ * A transactional unit of work also opens one database transaction up front.
+ * The DAOs then join it: begin() does nothing, commit() only flushes, and
+ * rollback() marks the whole unit for rollback. Nothing is committed until
+ * {@link #end(boolean)}, and work registered with {@link #afterCommit(Runnable)}
+ * runs only once the commit has succeeded.
+ *
+ * Threads other than the one that began the unit (background writers, flushes,
+ * schedulers) never see it and keep using their own EntityManagers.
+ */
+public final class UnitOfWork {
+
+    private static final Logger logger = Logger.getLogger(UnitOfWork.class.getName());
+    private static final ThreadLocal<UnitOfWork> current = new ThreadLocal<>();
+
+    private final Supplier<EntityManager> factory;
+    private final boolean transactional;
+    private final List<Runnable> afterCommit = new ArrayList<>();
+
+    // Opened on first use, so requests that never touch the database cost nothing
+    private EntityManager delegate;
+    private EntityManager shared;
+
+    private UnitOfWork(Supplier<EntityManager> factory, boolean transactional) {
+        this.factory = factory;
+        this.transactional = transactional;
+    }
+
+    /**
+     * Bind a new unit of work to the current thread
+     * @param factory opens the shared EntityManager when a DAO first asks for one
+     * @param transactional whether the DAOs join one transaction committed by end()
+     */
+    public static UnitOfWork begin(Supplier<EntityManager> factory, boolean transactional) {
+        UnitOfWork stale = current.get();
+        if (stale != null) {
+            // The previous request on this thread never reached end()
+            logger.warning("Discarding a unit of work left open on " + Thread.currentThread().getName());
+            stale.end(false);
+        }
+        UnitOfWork unit = new UnitOfWork(factory, transactional);
+        current.set(unit);
+        return unit;
+    }
+
+    /**
+     * Unit of work bound to the current thread, or null
+     */
+    public static UnitOfWork current() {
+        return current.get();
+    }
+
+    /**
+     * True if the current thread is inside a transactional unit of work
+     */
+    public static boolean inTransaction() {
+        UnitOfWork unit = current.get();
+        return unit != null && unit.transactional;
+    }
+
+    /**
+     * Run the action once the current unit's transaction commits, or right away
+     * if there is no transactional unit of work. Dropped if the unit rolls back.
+     */
+    public static void afterCommit(Runnable action) {
+        UnitOfWork unit = current.get();
+        if (unit != null && unit.transactional) {
+            unit.afterCommit.add(action);
+        } else {
+            action.run();
+        }
+    }
+
+    public boolean isTransactional() {
+        return transactional;
+    }
+
+    /**
+     * EntityManager view handed to the DAOs
+     */
+    public EntityManager entityManager() {
+        if (shared == null) {
+            delegate = factory.get();
+            if (transactional) {
+                delegate.getTransaction().begin();
+            }
+            shared = (EntityManager) Proxy.newProxyInstance(EntityManager.class.getClassLoader(),
+                    new Class<?>[]{EntityManager.class}, new SharedEntityManager());
+        }
+        return shared;
+    }
+
+    /**
+     * Mark the unit so that end() rolls back whatever the DAOs did
+     */
+    public void setRollbackOnly() {
+        if (transactional && delegate != null && delegate.getTransaction().isActive()) {
+            delegate.getTransaction().setRollbackOnly();
+        }
+    }
+
+    /**
+     * Finish the unit: commit or roll back its transaction, close the EntityManager
+     * and unbind it from the thread. After-commit actions run once it is unbound.
+     * @param commit false to roll back regardless of what the DAOs did
+     * @return true if the work was committed, or there was nothing to commit
+     */
+    public boolean end(boolean commit) {
+        boolean committed = !transactional || delegate == null;
+        try {
+            if (delegate != null) {
+                EntityTransaction tx = delegate.getTransaction();
+                if (tx.isActive()) {
+                    if (transactional && commit && !tx.getRollbackOnly()) {
+                        tx.commit();
+                        committed = true;
+                    } else {
+                        tx.rollback();
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            committed = false;
+            logger.log(Level.SEVERE, "Error ending unit of work", e);
+            try {
+                EntityTransaction tx = delegate.getTransaction();
+                if (tx.isActive()) {
+                    tx.rollback();
+                }
+            } catch (RuntimeException ignored) {
+                // The commit failure is what matters
+            }
+        } finally {
+            if (delegate != null && delegate.isOpen()) {
+                delegate.close();
+            }
+            if (current.get() == this) {
+                current.remove();
+            }
+        }
+        if (transactional && committed) {
+            for (Runnable action : afterCommit) {
+                try {
+                    action.run();
+                } catch (RuntimeException e) {
+                    logger.log(Level.WARNING, "After-commit action failed", e);
+                }
+            }
+        }
+        afterCommit.clear();
+        return committed;
+    }
+
+    // What a DAO sees: close() clears instead of closing, getTransaction() joins the unit's transaction
+    private class SharedEntityManager implements InvocationHandler {
+
+        private final EntityTransaction joined = transactional
+                ? (EntityTransaction) Proxy.newProxyInstance(EntityTransaction.class.getClassLoader(),
+                        new Class<?>[]{EntityTransaction.class}, new JoinedTransaction())
+                : null;
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    release();
+                    return null;
+                case "getTransaction":
+                    return transactional ? joined : delegate.getTransaction();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return forward(delegate, method, args);
+            }
+        }
+
+        private void release() {
+            EntityTransaction tx = delegate.getTransaction();
+            if (transactional) {
+                if (tx.isActive() && !tx.getRollbackOnly()) {
+                    delegate.flush();
+                }
+            } else if (tx.isActive()) {
+                // Closing used to abandon a transaction the DAO left open
+                tx.rollback();
+            }
+            delegate.clear();
+        }
+    }
+
+    // The unit's transaction as seen by a DAO inside a transactional unit of work
+    private class JoinedTransaction implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            EntityTransaction tx = delegate.getTransaction();
+            switch (method.getName()) {
+                case "begin":
+                    return null;
+                case "commit":
+                    if (tx.getRollbackOnly()) {
+                        throw new RollbackException("Transaction was marked for rollback earlier in this request");
+                    }
+                    delegate.flush();
+                    return null;
+                case "rollback":
+                case "setRollbackOnly":
+                    tx.setRollbackOnly();
+                    return null;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return forward(tx, method, args);
+            }
+        }
+    }
+
+    private static Object forward(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.oracle.filter;
+
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.ext.Provider;
+import jakarta.ws.rs.ext.WriterInterceptor;
+import jakarta.ws.rs.ext.WriterInterceptorContext;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * gzip/deflate compression of response bodies.
+ *
+ * The response filter picks an encoding from the request's Accept-Encoding
+ * (gzip preferred) and the interceptor wraps the entity stream. The body is
+ * held back until it reaches banking.compression.minBytes (default 1024): a
+ * body that ends before that is sent as is, a larger one is compressed from
+ * the first byte. Streamed bodies are compressed as they are written.
+ */
+@Provider
+public class CompressionInterceptor implements ContainerResponseFilter, WriterInterceptor {
+
+    private static final int MIN_BYTES = Integer.getInteger("banking.compression.minBytes", 1024);
+    private static final String ENCODING_PROPERTY = CompressionInterceptor.class.getName() + ".encoding";
+
+    @Override
+    public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) {
+        if (!responseContext.hasEntity() || responseContext.getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)) {
+            return;
+        }
+        responseContext.getHeaders().add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        String encoding = chooseEncoding(requestContext.getHeaderString(HttpHeaders.ACCEPT_ENCODING));
+        if (encoding != null) {
+            requestContext.setProperty(ENCODING_PROPERTY, encoding);
+        }
+    }
+
+    @Override
+    public void aroundWriteTo(WriterInterceptorContext context) throws IOException {
+        String encoding = (String) context.getProperty(ENCODING_PROPERTY);
+        if (encoding != null) {
+            context.setOutputStream(new ThresholdOutputStream(context.getOutputStream(), context.getHeaders(), encoding));
+        }
+        context.proceed();
+    }
+
+    // gzip if acceptable, else deflate, else null; a q of 0 rules an encoding out
+    static String chooseEncoding(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return null;
+        }
+        boolean gzip = false;
+        boolean deflate = false;
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.split(";");
+            String coding = tokens[0].trim().toLowerCase();
+            boolean accepted = true;
+            for (int i = 1; i < tokens.length; i++) {
+                String param = tokens[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        accepted = Double.parseDouble(param.substring(2)) > 0;
+                    } catch (NumberFormatException e) {
+                        accepted = false;
+                    }
+                }
+            }
+            if (coding.equals("gzip") || coding.equals("x-gzip") || coding.equals("*")) {
+                gzip |= accepted;
+            } else if (coding.equals("deflate")) {
+                deflate |= accepted;
+            }
+        }
+        return gzip ? "gzip" : deflate ? "deflate" : null;
+    }
+
+    /**
+     * Buffers the first MIN_BYTES, then commits to compressing. Headers are only
+     * changed before anything reaches the container stream, while they can still be sent.
+     */
+    private static class ThresholdOutputStream extends OutputStream {
+
+        private final OutputStream target;
+        private final MultivaluedMap<String, Object> headers;
+        private final String encoding;
+        private ByteArrayOutputStream buffer = new ByteArrayOutputStream(MIN_BYTES);
+        private OutputStream out;
+
+        ThresholdOutputStream(OutputStream target, MultivaluedMap<String, Object> headers, String encoding) {
+            this.target = target;
+            this.headers = headers;
+            this.encoding = encoding;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (out != null) {
+                out.write(b);
+                return;
+            }
+            buffer.write(b);
+            if (buffer.size() >= MIN_BYTES) {
+                startCompressing();
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (out != null) {
+                out.write(b, off, len);
+                return;
+            }
+            buffer.write(b, off, len);
+            if (buffer.size() >= MIN_BYTES) {
+                startCompressing();
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            // Below the threshold nothing is decided yet, so there is nothing to flush
+            if (out != null) {
+                out.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (out == null) {
+                buffer.writeTo(target);
+                target.close();
+            } else {
+                out.close();
+            }
+        }
+
+        private void startCompressing() throws IOException {
+            headers.putSingle(HttpHeaders.CONTENT_ENCODING, encoding);
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
+            out = "gzip".equals(encoding) ? new GZIPOutputStream(target, 8192) : new DeflaterOutputStream(target);
+            buffer.writeTo(out);
+            buffer = null;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.oracle.filter;
+
+import com.oracle.dao.util.ChangeVersions;
+
+import jakarta.ws.rs.core.CacheControl;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
+
+/**
+ * ETag handling for read endpoints backed by a table tracked in {@link ChangeVersions}.
+ *
+ * Tags are weak because the same representation may be sent gzipped or not.
+ * Clients are told to revalidate on every use, so a poll costs one round trip
+ * and, when nothing changed, no query and no serialisation.
+ */
+public final class ConditionalGet {
+
+    private ConditionalGet() {
+    }
+
+    /**
+     * Current tag of the table; take it before running the query so a concurrent
+     * write makes the response look stale rather than current
+     */
+    public static EntityTag tagFor(int table) {
+        return new EntityTag(ChangeVersions.tag(table), true);
+    }
+
+    /**
+     * A 304 response if the client already holds this tag, null otherwise
+     */
+    public static Response notModified(Request request, EntityTag tag) {
+        Response.ResponseBuilder builder = request.evaluatePreconditions(tag);
+        return builder != null ? builder.cacheControl(revalidate()).build() : null;
+    }
+
+    /**
+     * Adds the tag and revalidation headers to a fresh response
+     */
+    public static Response.ResponseBuilder tagged(Response.ResponseBuilder builder, EntityTag tag) {
+        return builder.tag(tag).cacheControl(revalidate());
+    }
+
+    private static CacheControl revalidate() {
+        CacheControl cacheControl = new CacheControl();
+        cacheControl.setPrivate(true);
+        cacheControl.setNoCache(true);
+        return cacheControl;
+    }
+}
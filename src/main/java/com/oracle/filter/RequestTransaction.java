@@ -0,0 +1,18 @@
+package com.oracle.filter;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs every DAO call of the annotated resource method in one database transaction.
+ *
+ * The transaction commits after the method returns with a status below 400 and
+ * is rolled back otherwise, or if any DAO call in between failed. See
+ * {@link UnitOfWorkFilter}.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RequestTransaction {
+}
@@ -0,0 +1,42 @@
+package com.oracle.filter;
+
+import com.oracle.business.util.ServiceFactory;
+
+import jakarta.annotation.Priority;
+import jakarta.ws.rs.Priorities;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.Provider;
+
+import java.util.Map;
+
+/**
+ * Session validation for requests that carry a session id.
+ *
+ * A request with an X-Session-Id header is only let through while that session
+ * is live, and counts as activity on it, which slides its expiry. The touch is
+ * answered from the in-memory SessionStore and written with its next flush.
+ * Requests without the header are not affected.
+ */
+@Provider
+@Priority(Priorities.AUTHENTICATION)
+public class SessionActivityFilter implements ContainerRequestFilter {
+
+    private static final String SESSION_HEADER = "X-Session-Id";
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) {
+        String sessionId = requestContext.getHeaderString(SESSION_HEADER);
+        if (sessionId == null || sessionId.isEmpty()) {
+            return;
+        }
+        if (!ServiceFactory.getSessionService().touchSession(sessionId)) {
+            requestContext.abortWith(Response.status(Response.Status.UNAUTHORIZED)
+                    .type(MediaType.APPLICATION_JSON_TYPE)
+                    .entity(Map.of("success", false, "error", "Session expired, please log in again"))
+                    .build());
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.oracle.filter;
+
+import com.oracle.dao.util.JPAUtil;
+import com.oracle.dao.util.UnitOfWork;
+
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.Provider;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Request-scoped unit of work.
+ *
+ * Every matched request gets one shared EntityManager, so its DAO calls reuse a
+ * single persistence context and connection. Resource methods (or classes)
+ * annotated with {@link RequestTransaction} also run in one transaction, which
+ * commits when the response status is below 400. A commit that fails, or a
+ * transaction a DAO marked for rollback under a successful status, turns the
+ * response into a 500.
+ *
+ * The unit ends before the response body is written, so streamed bodies fall
+ * back to one EntityManager per DAO call. Disabled with
+ * -Dbanking.unitOfWork.enabled=false.
+ */
+@Provider
+public class UnitOfWorkFilter implements ContainerRequestFilter, ContainerResponseFilter {
+
+    private static final boolean ENABLED =
+            Boolean.parseBoolean(System.getProperty("banking.unitOfWork.enabled", "true"));
+    private static final String UNIT_PROPERTY = UnitOfWorkFilter.class.getName() + ".unit";
+
+    @Context
+    private ResourceInfo resourceInfo;
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) {
+        if (!ENABLED) {
+            return;
+        }
+        requestContext.setProperty(UNIT_PROPERTY, JPAUtil.beginUnitOfWork(isTransactional()));
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) {
+        UnitOfWork unit = (UnitOfWork) requestContext.getProperty(UNIT_PROPERTY);
+        if (unit == null) {
+            return;
+        }
+        requestContext.removeProperty(UNIT_PROPERTY);
+        boolean successful = responseContext.getStatus() < 400;
+        if (!unit.end(successful) && successful) {
+            // The method reported success but its writes did not commit
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", "The request could not be completed, no changes were saved");
+            responseContext.setStatus(Response.Status.INTERNAL_SERVER_ERROR.getStatusCode());
+            responseContext.getHeaders().remove("ETag");
+            responseContext.setEntity(error, new Annotation[0], MediaType.APPLICATION_JSON_TYPE);
+        }
+    }
+
+    private boolean isTransactional() {
+        Method method = resourceInfo.getResourceMethod();
+        if (method != null && method.isAnnotationPresent(RequestTransaction.class)) {
+            return true;
+        }
+        Class<?> resourceClass = resourceInfo.getResourceClass();
+        return resourceClass != null && resourceClass.isAnnotationPresent(RequestTransaction.class);
+    }
+}
@@ -0,0 +1,222 @@
+package com.oracle.lifecycle;
+
+import com.oracle.business.util.ServiceFactory;
+import com.oracle.dao.util.JPAUtil;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.NamedQuery;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.servlet.ServletContextEvent;
+import jakarta.servlet.ServletContextListener;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Application startup and shutdown.
+ *
+ * On deploy a background thread warms the application in phases, so that the
+ * first customer request does not pay for it:
+ *
+ *   persistence   build the EntityManagerFactory, deploy the metamodel and open the pool
+ *   namedQueries  resolve every @NamedQuery declared on the entities
+ *   services      create the services, DAOs, outflow counters, ledger and unlock schedule in parallel
+ *
+ * Each phase (and each service) is timed. The readiness endpoint reports not
+ * ready until every phase has finished. Caches that are also built on first use
+ * (the outflow counters) only degrade readiness if their warm-up fails: the node
+ * reports DEGRADED with the reason and keeps serving, and the cache is built again
+ * by the first request that needs it. On undeploy the background writers are
+ * flushed and stopped and the EntityManagerFactory is closed.
+ */
+public class StartupListener implements ServletContextListener {
+
+    private static final Logger logger = Logger.getLogger(StartupListener.class.getName());
+
+    public enum State { STARTING, READY, DEGRADED, FAILED, STOPPING }
+
+    /**
+     * Startup state with the time each phase took, in milliseconds, and the
+     * failure of each cache warm-up that left the node degraded
+     */
+    public record Readiness(State state, boolean ready, Map<String, Long> phaseMillis, String failure,
+                            Map<String, String> degraded) {
+    }
+
+    private static volatile State state = State.STARTING;
+    private static volatile String failure;
+    // Both guarded by phaseMillis
+    private static final Map<String, Long> phaseMillis = new LinkedHashMap<>();
+    private static final Map<String, String> degraded = new LinkedHashMap<>();
+
+    private Thread startup;
+
+    @Override
+    public void contextInitialized(ServletContextEvent event) {
+        startup = new Thread(StartupListener::start, "banking-startup");
+        startup.setDaemon(true);
+        startup.start();
+    }
+
+    @Override
+    public void contextDestroyed(ServletContextEvent event) {
+        state = State.STOPPING;
+        if (startup != null) {
+            try {
+                startup.join(30_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        ServiceFactory.shutdown();
+    }
+
+    public static Readiness readiness() {
+        synchronized (phaseMillis) {
+            return new Readiness(state, state == State.READY || state == State.DEGRADED,
+                    new LinkedHashMap<>(phaseMillis), failure, new LinkedHashMap<>(degraded));
+        }
+    }
+
+    private static void start() {
+        long begin = System.nanoTime();
+        try {
+            phase("persistence", StartupListener::warmPersistence);
+            phase("namedQueries", StartupListener::resolveNamedQueries);
+            phase("services", StartupListener::initializeServices);
+            if (state == State.STARTING) {
+                synchronized (phaseMillis) {
+                    state = degraded.isEmpty() ? State.READY : State.DEGRADED;
+                }
+            }
+            Readiness readiness = readiness();
+            logger.info("Application " + (readiness.degraded().isEmpty() ? "ready" : "ready, degraded,")
+                    + " in " + millisSince(begin) + " ms " + readiness.phaseMillis());
+        } catch (Exception | LinkageError e) {
+            // LinkageError covers a persistence unit that failed in JPAUtil's static initializer
+            failure = String.valueOf(e);
+            state = State.FAILED;
+            logger.log(Level.SEVERE, "Application startup failed", e);
+        }
+    }
+
+    private static void phase(String name, Runnable work) {
+        long begin = System.nanoTime();
+        work.run();
+        record(name, begin);
+    }
+
+    private static void warmPersistence() {
+        // EclipseLink deploys the unit and logs in when the first EntityManager is created
+        EntityManager em = JPAUtil.getEntityManager();
+        try {
+            em.getMetamodel().getEntities();
+        } finally {
+            em.close();
+        }
+    }
+
+    private static void resolveNamedQueries() {
+        EntityManager em = JPAUtil.getEntityManager();
+        int count = 0;
+        try {
+            for (EntityType<?> entity : em.getMetamodel().getEntities()) {
+                for (NamedQuery query : entity.getJavaType().getAnnotationsByType(NamedQuery.class)) {
+                    em.createNamedQuery(query.name());
+                    count++;
+                }
+            }
+        } finally {
+            em.close();
+        }
+        logger.info(count + " named queries resolved");
+    }
+
+    private static void initializeServices() {
+        Map<String, Supplier<?>> components = new LinkedHashMap<>();
+        components.put("CustomerService", ServiceFactory::getCustomerService);
+        components.put("BankingService", ServiceFactory::getBankingService);
+        components.put("TransactionService", ServiceFactory::getTransactionService);
+        components.put("AdminUserService", ServiceFactory::getAdminUserService);
+        components.put("AccountCreationRequestService", ServiceFactory::getAccountCreationRequestService);
+        components.put("CustomerLoginService", ServiceFactory::getCustomerLoginService);
+        components.put("OTPService", ServiceFactory::getOTPService);
+        components.put("SessionService", ServiceFactory::getSessionService);
+        components.put("IdentifierService", ServiceFactory::getIdentifierService);
+        components.put("BalanceLedger", ServiceFactory::getBalanceLedger);
+        components.put("AccountUnlockScheduler", ServiceFactory::getAccountUnlockScheduler);
+        components.put("LoginThrottle", ServiceFactory::getLoginThrottle);
+        components.put("PasswordHashing", ServiceFactory::getPasswordHashing);
+        // Built again on first use if the warm-up fails
+        Map<String, Supplier<?>> caches = new LinkedHashMap<>();
+        caches.put("OutflowCounters", ServiceFactory::getOutflowCounters);
+
+        AtomicInteger threads = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(
+                Math.min(components.size() + caches.size(), Runtime.getRuntime().availableProcessors() * 2),
+                r -> new Thread(r, "banking-startup-" + threads.incrementAndGet()));
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (Map.Entry<String, Supplier<?>> component : components.entrySet()) {
+                futures.add(executor.submit(() -> {
+                    long begin = System.nanoTime();
+                    component.getValue().get();
+                    record("services/" + component.getKey(), begin);
+                }));
+            }
+            for (Map.Entry<String, Supplier<?>> cache : caches.entrySet()) {
+                executor.submit(() -> {
+                    long begin = System.nanoTime();
+                    try {
+                        cache.getValue().get();
+                        record("services/" + cache.getKey(), begin);
+                    } catch (Exception e) {
+                        synchronized (phaseMillis) {
+                            degraded.put(cache.getKey(), String.valueOf(e));
+                        }
+                        logger.log(Level.WARNING, "Warm-up of " + cache.getKey() + " failed; it will be built on first use", e);
+                    }
+                });
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while starting services", e);
+        } catch (Exception e) {
+            throw new IllegalStateException("Service startup failed: " + e.getMessage(), e);
+        } finally {
+            executor.shutdown();
+        }
+        try {
+            // The cache warm-ups run alongside the services; wait for them so their outcome is reported
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while starting services", e);
+        }
+    }
+
+    private static void record(String name, long begin) {
+        long millis = millisSince(begin);
+        synchronized (phaseMillis) {
+            phaseMillis.put(name, millis);
+        }
+        logger.fine("Startup " + name + " took " + millis + " ms");
+    }
+
+    private static long millisSince(long nanos) {
+        return (System.nanoTime() - nanos) / 1_000_000;
+    }
+}
@@ -0,0 +1,133 @@
+package com.oracle.provider;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * CBOR (RFC 8949) encoder for the internal batch consumers.
+ *
+ * Objects and arrays use indefinite-length encoding so rows can be streamed.
+ * Decimals are written as tag 4 decimal fractions [exponent, mantissa] so
+ * amounts keep their exact value; a mantissa beyond 63 bits falls back to text.
+ * Dates are written as their ISO-8601 text.
+ */
+public class CborRowEncoder implements RowEncoder {
+
+    private static final int MAJOR_UNSIGNED = 0;
+    private static final int MAJOR_NEGATIVE = 1;
+    private static final int MAJOR_TEXT = 3;
+    private static final int MAJOR_ARRAY = 4;
+    private static final int MAJOR_TAG = 6;
+
+    private static final int INDEFINITE_ARRAY = 0x9f;
+    private static final int INDEFINITE_MAP = 0xbf;
+    private static final int BREAK = 0xff;
+    private static final int FALSE = 0xf4;
+    private static final int TRUE = 0xf5;
+    private static final int NULL = 0xf6;
+    private static final int TAG_DECIMAL_FRACTION = 4;
+
+    private final OutputStream out;
+    private final byte[] head = new byte[9];
+
+    public CborRowEncoder(OutputStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public void beginObject() throws IOException {
+        out.write(INDEFINITE_MAP);
+    }
+
+    @Override
+    public void endObject() throws IOException {
+        out.write(BREAK);
+    }
+
+    @Override
+    public void beginArray() throws IOException {
+        out.write(INDEFINITE_ARRAY);
+    }
+
+    @Override
+    public void endArray() throws IOException {
+        out.write(BREAK);
+    }
+
+    @Override
+    public void name(String name) throws IOException {
+        value(name);
+    }
+
+    @Override
+    public void value(String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeHead(MAJOR_TEXT, bytes.length);
+        out.write(bytes);
+    }
+
+    @Override
+    public void value(BigDecimal value) throws IOException {
+        if (value.unscaledValue().bitLength() > 63) {
+            value(value.toPlainString());
+            return;
+        }
+        writeHead(MAJOR_TAG, TAG_DECIMAL_FRACTION);
+        writeHead(MAJOR_ARRAY, 2);
+        value((long) -value.scale());
+        value(value.unscaledValue().longValue());
+    }
+
+    @Override
+    public void value(long value) throws IOException {
+        if (value >= 0) {
+            writeHead(MAJOR_UNSIGNED, value);
+        } else {
+            writeHead(MAJOR_NEGATIVE, -1 - value);
+        }
+    }
+
+    @Override
+    public void value(boolean value) throws IOException {
+        out.write(value ? TRUE : FALSE);
+    }
+
+    @Override
+    public void nullValue() throws IOException {
+        out.write(NULL);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    // Initial byte plus the shortest big-endian argument that holds n
+    private void writeHead(int major, long n) throws IOException {
+        int type = major << 5;
+        if (n < 24) {
+            out.write(type | (int) n);
+            return;
+        }
+        int size;
+        if (n < 0x100) {
+            head[0] = (byte) (type | 24);
+            size = 1;
+        } else if (n < 0x10000) {
+            head[0] = (byte) (type | 25);
+            size = 2;
+        } else if (n < 0x100000000L) {
+            head[0] = (byte) (type | 26);
+            size = 4;
+        } else {
+            head[0] = (byte) (type | 27);
+            size = 8;
+        }
+        for (int i = size; i >= 1; i--, n >>>= 8) {
+            head[i] = (byte) n;
+        }
+        out.write(head, 0, size + 1);
+    }
+}
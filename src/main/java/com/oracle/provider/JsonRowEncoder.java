@@ -0,0 +1,137 @@
+package com.oracle.provider;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+
+/**
+ * Minimal JSON encoder: no reflection, no intermediate tree, output goes
+ * straight to the (buffered) writer.
+ */
+public class JsonRowEncoder implements RowEncoder {
+
+    private static final int MAX_DEPTH = 32;
+
+    private final Writer out;
+    // first[depth] is true until the container at that depth has its first element
+    private final boolean[] first = new boolean[MAX_DEPTH];
+    private int depth;
+    private boolean afterName;
+
+    public JsonRowEncoder(Writer out) {
+        this.out = out;
+    }
+
+    @Override
+    public void beginObject() throws IOException {
+        open('{');
+    }
+
+    @Override
+    public void endObject() throws IOException {
+        depth--;
+        out.write('}');
+    }
+
+    @Override
+    public void beginArray() throws IOException {
+        open('[');
+    }
+
+    @Override
+    public void endArray() throws IOException {
+        depth--;
+        out.write(']');
+    }
+
+    @Override
+    public void name(String name) throws IOException {
+        separate();
+        string(name);
+        out.write(':');
+        afterName = true;
+    }
+
+    @Override
+    public void value(String value) throws IOException {
+        separate();
+        string(value);
+    }
+
+    @Override
+    public void value(BigDecimal value) throws IOException {
+        separate();
+        out.write(value.toPlainString());
+    }
+
+    @Override
+    public void value(long value) throws IOException {
+        separate();
+        out.write(Long.toString(value));
+    }
+
+    @Override
+    public void value(boolean value) throws IOException {
+        separate();
+        out.write(value ? "true" : "false");
+    }
+
+    @Override
+    public void nullValue() throws IOException {
+        separate();
+        out.write("null");
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    private void open(char bracket) throws IOException {
+        separate();
+        out.write(bracket);
+        if (++depth >= MAX_DEPTH) {
+            throw new IllegalStateException("JSON nesting deeper than " + MAX_DEPTH);
+        }
+        first[depth] = true;
+    }
+
+    // Comma before every element except the first of its container and a value following its name
+    private void separate() throws IOException {
+        if (afterName) {
+            afterName = false;
+            return;
+        }
+        if (depth > 0) {
+            if (!first[depth]) {
+                out.write(',');
+            }
+            first[depth] = false;
+        }
+    }
+
+    private void string(String value) throws IOException {
+        out.write('"');
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            String escape;
+            switch (c) {
+                case '"': escape = "\\\""; break;
+                case '\\': escape = "\\\\"; break;
+                case '\n': escape = "\\n"; break;
+                case '\r': escape = "\\r"; break;
+                case '\t': escape = "\\t"; break;
+                default:
+                    escape = c < 0x20 ? String.format("\\u%04x", (int) c) : null;
+            }
+            if (escape != null) {
+                out.write(value, start, i - start);
+                out.write(escape);
+                start = i + 1;
+            }
+        }
+        out.write(value, start, value.length() - start);
+        out.write('"');
+    }
+}
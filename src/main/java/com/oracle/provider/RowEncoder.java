@@ -0,0 +1,83 @@
+package com.oracle.provider;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Event-style encoder the row writers talk to, so the same field code produces
+ * JSON or CBOR. Objects and arrays are opened and closed explicitly and their
+ * sizes never need to be known up front, which is what allows rows to be
+ * written while they are still being read.
+ */
+public interface RowEncoder {
+
+    void beginObject() throws IOException;
+
+    void endObject() throws IOException;
+
+    void beginArray() throws IOException;
+
+    void endArray() throws IOException;
+
+    void name(String name) throws IOException;
+
+    void value(String value) throws IOException;
+
+    void value(BigDecimal value) throws IOException;
+
+    void value(long value) throws IOException;
+
+    void value(boolean value) throws IOException;
+
+    void nullValue() throws IOException;
+
+    void flush() throws IOException;
+
+    /**
+     * Writes any other value: numbers and booleans natively, date-times as
+     * ISO-8601 with seconds always present (toString drops them when zero),
+     * everything else (dates, enums) in its toString form
+     */
+    default void value(Object value) throws IOException {
+        if (value == null) {
+            nullValue();
+        } else if (value instanceof String s) {
+            value(s);
+        } else if (value instanceof BigDecimal d) {
+            value(d);
+        } else if (value instanceof Boolean b) {
+            value(b.booleanValue());
+        } else if (value instanceof Integer || value instanceof Long || value instanceof Short) {
+            value(((Number) value).longValue());
+        } else if (value instanceof LocalDateTime t) {
+            value(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(t));
+        } else {
+            value(value.toString());
+        }
+    }
+
+    default void field(String name, String value) throws IOException {
+        name(name);
+        if (value == null) {
+            nullValue();
+        } else {
+            value(value);
+        }
+    }
+
+    default void field(String name, BigDecimal value) throws IOException {
+        name(name);
+        if (value == null) {
+            nullValue();
+        } else {
+            value(value);
+        }
+    }
+
+    default void field(String name, Object value) throws IOException {
+        name(name);
+        value(value);
+    }
+}
@@ -0,0 +1,80 @@
+package com.oracle.provider;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Response entity for bulk rows, written by {@link RowListingWriter}.
+ *
+ * Either a bare array of rows, or an object holding a few scalar fields plus
+ * the rows under one name. Rows come from a {@link Source}, which may be a
+ * list already in memory or a cursor that hands rows over as they are read.
+ */
+public class RowListing<T> {
+
+    /**
+     * Supplies the rows to a sink, in order
+     */
+    @FunctionalInterface
+    public interface Source<T> {
+        void forEach(Consumer<? super T> sink);
+    }
+
+    private final Map<String, Object> fields = new LinkedHashMap<>();
+    private final String rowsField;
+    private final Source<T> source;
+    private final RowWriter<T> rowWriter;
+
+    private RowListing(String rowsField, Source<T> source, RowWriter<T> rowWriter) {
+        this.rowsField = rowsField;
+        this.source = source;
+        this.rowWriter = rowWriter;
+    }
+
+    /**
+     * The rows as a top-level array
+     */
+    public static <T> RowListing<T> array(List<T> rows, RowWriter<T> rowWriter) {
+        return new RowListing<>(null, sink -> rows.forEach(sink), rowWriter);
+    }
+
+    /**
+     * An object whose rowsField holds the rows; add other fields with {@link #with}
+     */
+    public static <T> RowListing<T> object(String rowsField, List<T> rows, RowWriter<T> rowWriter) {
+        return new RowListing<>(rowsField, sink -> rows.forEach(sink), rowWriter);
+    }
+
+    /**
+     * Same as above with rows pulled from the source while the response is written
+     */
+    public static <T> RowListing<T> object(String rowsField, Source<T> source, RowWriter<T> rowWriter) {
+        return new RowListing<>(rowsField, source, rowWriter);
+    }
+
+    /**
+     * Adds a scalar field, written before the rows in insertion order
+     */
+    public RowListing<T> with(String name, Object value) {
+        fields.put(name, value);
+        return this;
+    }
+
+    Map<String, Object> getFields() {
+        return fields;
+    }
+
+    String getRowsField() {
+        return rowsField;
+    }
+
+    Source<T> getSource() {
+        return source;
+    }
+
+    RowWriter<T> getRowWriter() {
+        return rowWriter;
+    }
+}
@@ -0,0 +1,82 @@
+package com.oracle.provider;
+
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.ext.MessageBodyWriter;
+import jakarta.ws.rs.ext.Provider;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Writes {@link RowListing} entities as JSON or, when the client asks for it, CBOR.
+ *
+ * Rows go through their pre-built {@link RowWriter} straight into a buffered
+ * stream, so there is no reflection and no intermediate map. Batch consumers
+ * should send "Accept: application/cbor, application/json;q=0.5" so that error
+ * responses, which are plain maps, still come back as JSON.
+ */
+@Provider
+@Produces({MediaType.APPLICATION_JSON, RowListingWriter.APPLICATION_CBOR})
+public class RowListingWriter implements MessageBodyWriter<RowListing<?>> {
+
+    public static final String APPLICATION_CBOR = "application/cbor";
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    @Override
+    public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return RowListing.class.isAssignableFrom(type);
+    }
+
+    @Override
+    public void writeTo(RowListing<?> listing, Class<?> type, Type genericType, Annotation[] annotations,
+                        MediaType mediaType, MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream)
+            throws IOException, WebApplicationException {
+        RowEncoder encoder = "cbor".equalsIgnoreCase(mediaType.getSubtype())
+                ? new CborRowEncoder(new BufferedOutputStream(entityStream, BUFFER_SIZE))
+                : new JsonRowEncoder(new BufferedWriter(
+                        new OutputStreamWriter(entityStream, StandardCharsets.UTF_8), BUFFER_SIZE));
+        try {
+            write(listing, encoder);
+        } catch (UncheckedIOException e) {
+            // Raised from inside the row source, e.g. the client went away mid-listing
+            throw e.getCause();
+        }
+        encoder.flush();
+    }
+
+    private <T> void write(RowListing<T> listing, RowEncoder out) throws IOException {
+        String rowsField = listing.getRowsField();
+        if (rowsField != null) {
+            out.beginObject();
+            for (Map.Entry<String, Object> field : listing.getFields().entrySet()) {
+                out.field(field.getKey(), field.getValue());
+            }
+            out.name(rowsField);
+        }
+        out.beginArray();
+        RowWriter<T> rowWriter = listing.getRowWriter();
+        listing.getSource().forEach(row -> {
+            try {
+                rowWriter.write(row, out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        out.endArray();
+        if (rowsField != null) {
+            out.endObject();
+        }
+    }
+}
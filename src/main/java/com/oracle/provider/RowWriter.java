@@ -0,0 +1,13 @@
+package com.oracle.provider;
+
+import java.io.IOException;
+
+/**
+ * Writes one row as an object of named fields. Implementations call the getters
+ * directly, so serialisation needs no reflection.
+ */
+@FunctionalInterface
+public interface RowWriter<T> {
+
+    void write(T row, RowEncoder out) throws IOException;
+}
@@ -0,0 +1,95 @@
+package com.oracle.provider;
+
+import com.oracle.beans.Transaction;
+import com.oracle.beans.dto.AccountRequestSummary;
+import com.oracle.beans.dto.AccountSummary;
+import com.oracle.beans.dto.CustomerSummary;
+import com.oracle.beans.dto.TransactionSummary;
+
+/**
+ * Field writers for the row types returned in bulk. Field names match what the
+ * JSON provider produced for the same types, so clients see the same documents;
+ * lazy associations are left out.
+ */
+public final class RowWriters {
+
+    private RowWriters() {
+    }
+
+    public static final RowWriter<Transaction> TRANSACTION = (t, out) -> {
+        out.beginObject();
+        out.field("transactionId", t.getTransactionId());
+        out.field("transactionRefNo", t.getTransactionRefNo());
+        out.field("fromAccountNumber", t.getFromAccountNumber());
+        out.field("toAccountNumber", t.getToAccountNumber());
+        out.field("transactionType", t.getTransactionType());
+        out.field("amount", t.getAmount());
+        out.field("transferMethod", t.getTransferMethod());
+        out.field("status", t.getStatus());
+        out.field("description", t.getDescription());
+        out.field("remarks", t.getRemarks());
+        out.field("openingBalance", t.getOpeningBalance());
+        out.field("closingBalance", t.getClosingBalance());
+        out.field("transactionDate", t.getTransactionDate());
+        out.field("valueDate", t.getValueDate());
+        out.field("processedBy", t.getProcessedBy());
+        out.endObject();
+    };
+
+    public static final RowWriter<TransactionSummary> TRANSACTION_SUMMARY = (t, out) -> {
+        out.beginObject();
+        out.field("transactionId", t.transactionId());
+        out.field("transactionRefNo", t.transactionRefNo());
+        out.field("fromAccountNumber", t.fromAccountNumber());
+        out.field("toAccountNumber", t.toAccountNumber());
+        out.field("transactionType", t.transactionType());
+        out.field("amount", t.amount());
+        out.field("transferMethod", t.transferMethod());
+        out.field("status", t.status());
+        out.field("description", t.description());
+        out.field("transactionDate", t.transactionDate());
+        out.field("valueDate", t.valueDate());
+        out.endObject();
+    };
+
+    public static final RowWriter<AccountSummary> ACCOUNT_SUMMARY = (a, out) -> {
+        out.beginObject();
+        out.field("accountNumber", a.accountNumber());
+        out.field("customerId", a.customerId());
+        out.field("accountType", a.accountType());
+        out.field("balance", a.balance());
+        out.field("isActive", a.isActive());
+        out.field("openedDate", a.openedDate());
+        out.field("lastTransactionDate", a.lastTransactionDate());
+        out.endObject();
+    };
+
+    public static final RowWriter<CustomerSummary> CUSTOMER_SUMMARY = (c, out) -> {
+        out.beginObject();
+        out.field("customerId", c.customerId());
+        out.field("serviceReferenceNo", c.serviceReferenceNo());
+        out.field("fullName", c.fullName());
+        out.field("email", c.email());
+        out.field("mobileNumber", c.mobileNumber());
+        out.field("status", c.status());
+        out.field("createdAt", c.createdAt());
+        out.endObject();
+    };
+
+    public static final RowWriter<AccountRequestSummary> ACCOUNT_REQUEST_SUMMARY = (r, out) -> {
+        out.beginObject();
+        out.field("requestId", r.requestId());
+        out.field("serviceReferenceNo", r.serviceReferenceNo());
+        out.field("fullName", r.fullName());
+        out.field("email", r.email());
+        out.field("mobileNumber", r.mobileNumber());
+        out.field("accountType", r.accountType());
+        out.field("initialDeposit", r.initialDeposit());
+        out.field("status", r.status());
+        out.field("submittedAt", r.submittedAt());
+        out.field("processedBy", r.processedBy());
+        out.field("processedAt", r.processedAt());
+        out.field("rejectionReason", r.rejectionReason());
+        out.endObject();
+    };
+}
@@ -3,7 +3,8 @@ package com.oracle.util;
 public class PasswordHashGenerator {
     public static void main(String[] args) {
         String plainPassword = "admin123"; // your desired password
-        String hashedPassword = com.oracle.util.PasswordUtil.hashPassword(plainPassword);
+        int iterations = Integer.getInteger("banking.password.pbkdf2.iterations", 600000);
+        String hashedPassword = new com.oracle.business.util.Pbkdf2PasswordHasher("sha256", iterations).hash(plainPassword);
         System.out.println("Hashed password: " + hashedPassword);
     }
 }
@@ -0,0 +1,12 @@
+-- Sequences behind IdentifierServiceImpl. Each value reserves a block of
+-- banking.identifier.blockSize serials, so the sequences must start at 1 and
+-- step by 1; the block size is applied by the application, not here.
+--
+-- New identifiers differ in length from the random ones issued before
+-- (13-digit account numbers against 12, 11 digits after CUST against 14 or
+-- more), so both sequences can start at 1 on a database that already has
+-- legacy rows.
+
+CREATE SEQUENCE ACCOUNT_NUMBER_SEQ START WITH 1 INCREMENT BY 1 NOCYCLE;
+
+CREATE SEQUENCE CUSTOMER_ID_SEQ START WITH 1 INCREMENT BY 1 NOCYCLE;
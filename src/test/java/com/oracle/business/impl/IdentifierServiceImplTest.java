@@ -0,0 +1,53 @@
+package com.oracle.business.impl;
+
+import com.oracle.dao.SequenceDAO;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IdentifierServiceImplTest {
+
+    @Test
+    void accountNumbersCannotCollideWithLegacyOnes() {
+        IdentifierServiceImpl identifiers = new IdentifierServiceImpl(sequenceFrom(1));
+
+        String accountNumber = identifiers.nextAccountNumber();
+
+        // Legacy numbers were 1234 and 8 random digits
+        assertEquals(13, accountNumber.length());
+        assertTrue(accountNumber.startsWith("1234"));
+        assertTrue(identifiers.isValid(accountNumber));
+    }
+
+    @Test
+    void customerIdsCannotCollideWithLegacyOnes() {
+        IdentifierServiceImpl identifiers = new IdentifierServiceImpl(sequenceFrom(1));
+
+        String customerId = identifiers.nextCustomerId();
+
+        // Legacy ids were CUST, the current millis and up to 3 random digits
+        assertEquals(15, customerId.length());
+        assertTrue(identifiers.isValid(customerId));
+        assertNotEquals(customerId, identifiers.nextCustomerId());
+    }
+
+    @Test
+    void anExhaustedRangeFailsInsteadOfWidening() {
+        // The block after this sequence value starts at serial 10^8
+        long pastEnd = 100_000_000L / Integer.getInteger("banking.identifier.blockSize", 100) + 1;
+        IdentifierServiceImpl identifiers = new IdentifierServiceImpl(sequenceFrom(pastEnd));
+
+        assertThrows(IllegalStateException.class, identifiers::nextAccountNumber);
+    }
+
+    private static SequenceDAO sequenceFrom(long first) {
+        AtomicLong next = new AtomicLong(first);
+        return sequenceName -> next.getAndIncrement();
+    }
+}
@@ -0,0 +1,219 @@
+package com.oracle.business.util;
+
+import com.oracle.beans.BankAccount;
+import com.oracle.beans.Transaction;
+import com.oracle.dao.BankAccountDAO;
+import com.oracle.dao.TransactionDAO;
+import com.oracle.dao.TransferDAO;
+import com.oracle.dao.util.TransactionIdGenerator;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BalanceLedgerTest {
+
+    @TempDir
+    Path journalDirectory;
+
+    private final Map<String, BigDecimal> written = new ConcurrentHashMap<>();
+    private final List<Transaction> writtenEntries = new ArrayList<>();
+    private final AtomicInteger loads = new AtomicInteger();
+    private BalanceLedger ledger;
+
+    @AfterEach
+    void shutdown() {
+        System.clearProperty("banking.ledger.maxBalances");
+        if (ledger != null) {
+            ledger.shutdown();
+        }
+    }
+
+    @Test
+    void concurrentMovementsOnDifferentStripesAreAllFlushed() throws Exception {
+        ledger = newLedger();
+        int threads = 16;
+        int creditsPerThread = 2000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                String account = "ACC" + t;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < creditsPerThread; i++) {
+                        assertTrue(ledger.credit(account, BigDecimal.ONE, credit(account)));
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertTrue(ledger.flush());
+        assertEquals(threads * creditsPerThread, writtenEntries.size());
+        assertEquals(threads, written.size());
+        for (int t = 0; t < threads; t++) {
+            assertEquals(new BigDecimal(100 + creditsPerThread), written.get("ACC" + t));
+        }
+    }
+
+    @Test
+    void cleanBalancesAreEvictedAfterAFlush() throws Exception {
+        System.setProperty("banking.ledger.maxBalances", "100");
+        ledger = newLedger();
+        for (int i = 0; i < 200; i++) {
+            ledger.getBalance("ACC" + i);
+        }
+        ledger.credit("ACC0", BigDecimal.ONE, credit("ACC0"));
+        assertEquals(200, loads.get());
+
+        assertTrue(ledger.flush());
+        assertEquals(new BigDecimal(101), written.get("ACC0"));
+
+        // Evicted balances come back from the database, which now has them
+        for (int i = 0; i < 200; i++) {
+            ledger.getBalance("ACC" + i);
+        }
+        assertTrue(loads.get() > 200);
+    }
+
+    @Test
+    void concurrentWithdrawalsCannotTakeASavingsAccountBelowItsMinimum() throws Exception {
+        ledger = newLedger();
+        written.put("SAV", new BigDecimal(10000));
+        int threads = 16;
+        AtomicInteger accepted = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                boolean transfer = t % 2 == 0;
+                String destination = "ACC" + t;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    BigDecimal amount = new BigDecimal(5000);
+                    // Each one alone would pass: 10000 - 5000 keeps the 1000 minimum
+                    boolean applied = transfer
+                            ? ledger.transfer("SAV", destination, amount, debit("SAV"), credit(destination))
+                            : ledger.debit("SAV", amount, debit("SAV"));
+                    if (applied) {
+                        accepted.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(1, accepted.get());
+        assertEquals(new BigDecimal(5000), ledger.getBalance("SAV"));
+    }
+
+    @Test
+    void movementsOnADeactivatedAccountAreRefused() throws Exception {
+        ledger = newLedger();
+        assertTrue(ledger.credit("ACC0", BigDecimal.ONE, credit("ACC0")));
+
+        ledger.setActive("ACC0", false);
+        assertFalse(ledger.credit("ACC0", BigDecimal.ONE, credit("ACC0")));
+        assertFalse(ledger.transfer("ACC1", "ACC0", BigDecimal.ONE, debit("ACC1"), credit("ACC0")));
+        assertEquals(new BigDecimal(101), ledger.getBalance("ACC0"));
+
+        ledger.setActive("ACC0", true);
+        assertTrue(ledger.credit("ACC0", BigDecimal.ONE, credit("ACC0")));
+    }
+
+    private BalanceLedger newLedger() throws Exception {
+        return new BalanceLedger(bankAccounts(), transfers(), transactions(), journalDirectory, 3_600_000L);
+    }
+
+    private static Transaction credit(String account) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId(TransactionIdGenerator.getInstance().nextTransactionId());
+        transaction.setTransactionRefNo("REF" + transaction.getTransactionId());
+        transaction.setToAccountNumber(account);
+        transaction.setTransactionType("CREDIT");
+        transaction.setAmount(BigDecimal.ONE);
+        return transaction;
+    }
+
+    private static Transaction debit(String account) {
+        Transaction transaction = credit(null);
+        transaction.setFromAccountNumber(account);
+        transaction.setTransactionType("DEBIT");
+        return transaction;
+    }
+
+    // Every account is an active savings account that starts at 100, or at what the last flush wrote for it
+    private BankAccountDAO bankAccounts() {
+        return stub(BankAccountDAO.class, (name, args) -> {
+            if (name.equals("findAccountByNumber")) {
+                loads.incrementAndGet();
+                BankAccount account = new BankAccount();
+                account.setAccountNumber((String) args[0]);
+                account.setBalance(written.getOrDefault((String) args[0], new BigDecimal(100)));
+                account.setAccountType("SAVINGS");
+                account.setIsActive("Y");
+                return account;
+            }
+            throw new UnsupportedOperationException(name);
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private TransferDAO transfers() {
+        return stub(TransferDAO.class, (name, args) -> {
+            if (name.equals("applyLedgerBatch")) {
+                written.putAll((Map<String, BigDecimal>) args[0]);
+                writtenEntries.addAll((List<Transaction>) args[1]);
+                return true;
+            }
+            throw new UnsupportedOperationException(name);
+        });
+    }
+
+    private TransactionDAO transactions() {
+        return stub(TransactionDAO.class, (name, args) -> {
+            throw new UnsupportedOperationException(name);
+        });
+    }
+
+    private interface Handler {
+        Object handle(String name, Object[] args);
+    }
+
+    private static <T> T stub(Class<T> type, Handler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type},
+                (proxy, method, args) -> handler.handle(method.getName(), args)));
+    }
+}
@@ -0,0 +1,127 @@
+package com.oracle.business.util;
+
+import com.oracle.dao.CustomerLoginDAO;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoginThrottleTest {
+
+    private final List<Set<String>> resets = new ArrayList<>();
+    private final List<Map<String, Integer>> increments = new ArrayList<>();
+    private boolean failWrites;
+    private LoginThrottle throttle;
+
+    @AfterEach
+    void shutdown() {
+        System.clearProperty("banking.login.maxEntries");
+        if (throttle != null) {
+            throttle.shutdown();
+        }
+    }
+
+    @Test
+    void failuresAreWrittenAsIncrements() {
+        throttle = newThrottle();
+        throttle.known("C1", 1);
+        throttle.recordFailure("C1", null);
+        throttle.recordFailure("C1", null);
+        throttle.flush();
+        throttle.recordFailure("C1", null);
+        throttle.flush();
+
+        assertEquals(List.of(Map.of("C1", 2), Map.of("C1", 1)), increments);
+        assertEquals(List.of(Set.of(), Set.of()), resets);
+    }
+
+    @Test
+    void aSuccessZeroesTheStoredCountBeforeLaterFailures() {
+        throttle = newThrottle();
+        throttle.recordFailure("C2", null);
+        throttle.recordSuccess("C2");
+        throttle.recordFailure("C2", null);
+        throttle.flush();
+
+        assertEquals(List.of(Set.of("C2")), resets);
+        assertEquals(List.of(Map.of("C2", 1)), increments);
+    }
+
+    @Test
+    void aFailedWriteIsRetriedWithoutLosingFailures() {
+        throttle = newThrottle();
+        failWrites = true;
+        throttle.recordFailure("C3", null);
+        throttle.flush();
+        failWrites = false;
+        throttle.recordFailure("C3", null);
+        throttle.flush();
+
+        assertEquals(Map.of("C3", 2), increments.get(increments.size() - 1));
+    }
+
+    @Test
+    void evictionKeepsUnwrittenFailures() {
+        // One counter per shard
+        System.setProperty("banking.login.maxEntries", "64");
+        throttle = newThrottle();
+        for (int i = 0; i < 500; i++) {
+            throttle.recordFailure("C" + i, null);
+        }
+        throttle.flush();
+
+        Map<String, Integer> written = increments.get(0);
+        assertEquals(500, written.size());
+        for (int i = 0; i < 500; i++) {
+            assertEquals(1, written.get("C" + i));
+        }
+    }
+
+    @Test
+    void evictionKeepsBlockedAddresses() {
+        System.setProperty("banking.login.maxEntries", "64");
+        throttle = newThrottle();
+        for (int i = 0; i < 20; i++) {
+            throttle.recordFailure(null, "10.0.0.1");
+        }
+        assertFalse(throttle.check(null, "10.0.0.1").allowed());
+
+        for (int i = 0; i < 2000; i++) {
+            assertTrue(throttle.check(null, "10.1." + (i / 256) + "." + (i % 256)).allowed());
+        }
+
+        assertFalse(throttle.check(null, "10.0.0.1").allowed());
+    }
+
+    private LoginThrottle newThrottle() {
+        CustomerLoginDAO dao = (CustomerLoginDAO) Proxy.newProxyInstance(CustomerLoginDAO.class.getClassLoader(),
+                new Class<?>[] {CustomerLoginDAO.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("addFailedLoginAttempts")) {
+                        if (failWrites) {
+                            return false;
+                        }
+                        @SuppressWarnings("unchecked")
+                        Collection<String> zeroed = (Collection<String>) args[0];
+                        @SuppressWarnings("unchecked")
+                        Map<String, Integer> added = (Map<String, Integer>) args[1];
+                        resets.add(new HashSet<>(zeroed));
+                        increments.add(new HashMap<>(added));
+                        return true;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        return new LoginThrottle(dao, 5, 30, 3_600_000L);
+    }
+}
@@ -0,0 +1,82 @@
+package com.oracle.business.util;
+
+import com.oracle.dao.TransactionDAO;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class OutflowCountersTest {
+
+    private static final BigDecimal DAILY = new BigDecimal("100000");
+    private static final BigDecimal MONTHLY = new BigDecimal("500000");
+
+    @Test
+    void concurrentReservationsNeverExceedTheLimit() throws Exception {
+        OutflowCounters counters = new OutflowCounters(noOutflows());
+        LocalDate today = LocalDate.now();
+        BigDecimal amount = new BigDecimal("1000");
+        ExecutorService executor = Executors.newFixedThreadPool(64);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 500; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return counters.reserve("A1", amount, today, DAILY, MONTHLY) != null;
+                }));
+            }
+            start.countDown();
+            int reserved = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get()) {
+                    reserved++;
+                }
+            }
+            assertEquals(100, reserved);
+            assertEquals(0, DAILY.compareTo(counters.getDailyTotal("A1", today)));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void releaseGivesTheAmountBack() {
+        OutflowCounters counters = new OutflowCounters(noOutflows());
+        LocalDate today = LocalDate.now();
+
+        OutflowCounters.Reservation first = counters.reserve("A1", new BigDecimal("60000"), today, DAILY, MONTHLY);
+        assertNotNull(first);
+        assertNull(counters.reserve("A1", new BigDecimal("60000"), today, DAILY, MONTHLY));
+
+        counters.release(first);
+        assertEquals(0, BigDecimal.ZERO.compareTo(counters.getDailyTotal("A1", today)));
+        assertEquals(0, BigDecimal.ZERO.compareTo(counters.getMonthlyTotal("A1", YearMonth.from(today))));
+        assertNotNull(counters.reserve("A1", new BigDecimal("60000"), today, DAILY, MONTHLY));
+    }
+
+    // A TransactionDAO with no outflows to seed the counters from
+    private static TransactionDAO noOutflows() {
+        return (TransactionDAO) Proxy.newProxyInstance(TransactionDAO.class.getClassLoader(),
+                new Class<?>[] {TransactionDAO.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("sumOutflowsByAccount")) {
+                        return Map.of();
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,80 @@
+package com.oracle.business.util;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Logins per core at each PBKDF2 cost: hashes per second on one thread, and per
+ * core with every core hashing at once, as in a login burst. Use it to pick
+ * banking.password.pbkdf2.iterations for the hardware at hand.
+ *
+ * Run with mvn -Pbenchmark test; -Dbenchmark.hashMillis sets how long each
+ * setting is timed (default 1000 ms).
+ */
+class PasswordHashingBenchmark {
+
+    private static final Logger logger = Logger.getLogger(PasswordHashingBenchmark.class.getName());
+
+    private static final long HASH_MILLIS = Long.getLong("benchmark.hashMillis", 1000L);
+    private static final int CORES = Runtime.getRuntime().availableProcessors();
+
+    @ParameterizedTest
+    @CsvSource({
+            "sha256, 100000", "sha256, 300000", "sha256, 600000", "sha256, 1000000",
+            "sha512, 100000", "sha512, 300000", "sha512, 600000", "sha512, 1000000"})
+    void hashesPerSecondPerCore(String digest, int iterations) throws Exception {
+        Pbkdf2PasswordHasher hasher = new Pbkdf2PasswordHasher(digest, iterations);
+        assertTrue(hasher.verify("benchmark", hasher.hash("benchmark")));
+        // Untimed round: loads the provider and compiles the hot loop
+        hashesPerSecond(hasher);
+
+        double oneThread = hashesPerSecond(hasher);
+
+        ExecutorService executor = Executors.newFixedThreadPool(CORES);
+        CountDownLatch start = new CountDownLatch(1);
+        double allCores = 0;
+        try {
+            List<Future<Double>> futures = new ArrayList<>();
+            for (int t = 0; t < CORES; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return hashesPerSecond(hasher);
+                }));
+            }
+            start.countDown();
+            for (Future<Double> future : futures) {
+                allCores += future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        logger.info(String.format("pbkdf2-%s at %d iterations: %.1f hashes/s on one thread, "
+                        + "%.1f hashes/s per core with all %d cores busy (%.1f ms per login)",
+                digest, iterations, oneThread, allCores / CORES, CORES, 1000.0 / oneThread));
+        assertTrue(oneThread > 0);
+    }
+
+    // Hashes until the time is up, at least three times
+    private static double hashesPerSecond(Pbkdf2PasswordHasher hasher) {
+        int hashes = 0;
+        long begin = System.nanoTime();
+        long elapsed;
+        do {
+            hasher.hash("benchmark");
+            hashes++;
+            elapsed = System.nanoTime() - begin;
+        } while (hashes < 3 || elapsed < HASH_MILLIS * 1_000_000L);
+        return hashes * 1e9 / elapsed;
+    }
+}
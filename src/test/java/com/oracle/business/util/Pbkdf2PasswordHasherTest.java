@@ -0,0 +1,38 @@
+package com.oracle.business.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class Pbkdf2PasswordHasherTest {
+
+    private final Pbkdf2PasswordHasher hasher = new Pbkdf2PasswordHasher("sha256", 1000);
+
+    @Test
+    void verifiesItsOwnHashes() {
+        String hash = hasher.hash("s3cret!");
+
+        assertTrue(hasher.verify("s3cret!", hash));
+        assertFalse(hasher.verify("wrong", hash));
+        assertFalse(hasher.needsRehash(hash));
+    }
+
+    @Test
+    void aStoredIterationCountPastTheLimitIsRejectedWithoutHashing() {
+        String[] fields = hasher.hash("s3cret!").split("\\$");
+        String costly = "$" + fields[1] + "$i=2000000000$" + fields[3] + "$" + fields[4];
+
+        assertThrows(IllegalArgumentException.class, () -> hasher.verify("s3cret!", costly));
+        assertTrue(hasher.needsRehash(costly));
+    }
+
+    @Test
+    void anOversizedKeyIsRejected() {
+        String[] fields = hasher.hash("s3cret!").split("\\$");
+        String oversized = "$" + fields[1] + "$" + fields[2] + "$" + fields[3] + "$" + "A".repeat(4096);
+
+        assertThrows(IllegalArgumentException.class, () -> hasher.verify("s3cret!", oversized));
+    }
+}
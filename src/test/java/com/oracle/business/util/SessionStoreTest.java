@@ -0,0 +1,105 @@
+package com.oracle.business.util;
+
+import com.oracle.beans.Session;
+import com.oracle.dao.SessionDAO;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SessionStoreTest {
+
+    // The sessions table: id to active flag
+    private final Map<String, Boolean> table = new HashMap<>();
+    private final Map<String, LocalDateTime> flushed = new HashMap<>();
+    private final ExpiryScheduler expiry = new ExpiryScheduler();
+    private final SessionStore store = new SessionStore(sessionDAO(), expiry, 3_600_000L, 3_600_000L);
+
+    @AfterEach
+    void shutdown() {
+        store.shutdown();
+        expiry.shutdown();
+    }
+
+    @Test
+    void aSessionEndedElsewhereIsDroppedOnFlush() {
+        assertTrue(store.create(new Session("S1", "C1", "CUSTOMER")));
+        assertTrue(store.create(new Session("S2", "C1", "CUSTOMER")));
+        assertTrue(store.touch("S1"));
+        assertTrue(store.touch("S2"));
+        table.put("S2", false);
+
+        store.flush();
+
+        assertTrue(flushed.containsKey("S1"));
+        assertFalse(flushed.containsKey("S2"));
+        assertNotNull(store.get("S1"));
+        assertNull(store.get("S2"));
+        assertFalse(store.touch("S2"));
+        assertEquals(1, store.activeCount());
+    }
+
+    @Test
+    void recheckDropsSessionsNoLongerActiveInTheTable() {
+        assertTrue(store.create(new Session("S3", "C3", "CUSTOMER")));
+        assertTrue(store.create(new Session("S4", "C3", "CUSTOMER")));
+        table.remove("S4");
+
+        store.recheck();
+
+        assertNotNull(store.get("S3"));
+        assertNull(store.get("S4"));
+        assertEquals(1, store.activeCount());
+    }
+
+    private SessionDAO sessionDAO() {
+        return (SessionDAO) Proxy.newProxyInstance(SessionDAO.class.getClassLoader(),
+                new Class<?>[] {SessionDAO.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "saveSession":
+                            Session session = (Session) args[0];
+                            table.put(session.getSessionId(), "Y".equals(session.getIsActive()));
+                            return true;
+                        case "getSession":
+                            return null;
+                        case "updateLastActivity": {
+                            @SuppressWarnings("unchecked")
+                            Map<String, LocalDateTime> batch = (Map<String, LocalDateTime>) args[0];
+                            Set<String> missing = new HashSet<>();
+                            batch.forEach((id, lastActivity) -> {
+                                if (Boolean.TRUE.equals(table.get(id))) {
+                                    flushed.put(id, lastActivity);
+                                } else {
+                                    missing.add(id);
+                                }
+                            });
+                            return missing;
+                        }
+                        case "findActiveSessionIds": {
+                            Set<String> active = new HashSet<>();
+                            for (Object id : (Collection<?>) args[0]) {
+                                if (Boolean.TRUE.equals(table.get(id))) {
+                                    active.add((String) id);
+                                }
+                            }
+                            return active;
+                        }
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+}
@@ -0,0 +1,61 @@
+package com.oracle.dao.impl;
+
+import com.oracle.beans.CustomerLogin;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CustomerLoginJPAImplTest {
+
+    private final CustomerLoginJPAImpl logins = new CustomerLoginJPAImpl();
+
+    @BeforeAll
+    static void createLogins() {
+        TestDatabase.createAccountTables();
+        TestDatabase.createCustomerLoginTable();
+        TestDatabase.execute(
+                login("CL-DUE-1", "Y", "DATEADD('MINUTE', -5, CURRENT_TIMESTAMP)"),
+                login("CL-DUE-2", "Y", "DATEADD('SECOND', -1, CURRENT_TIMESTAMP)"),
+                login("CL-LATER-1", "Y", "DATEADD('MINUTE', 30, CURRENT_TIMESTAMP)"),
+                login("CL-OPEN-1", "N", "NULL"),
+                login("CL-NODE-1", "N", "NULL"));
+    }
+
+    @Test
+    void unlocksExactlyTheAccountsThatWereDue() {
+        assertEquals(Set.of("CL-DUE-1", "CL-DUE-2"), new HashSet<>(logins.unlockExpiredAccounts()));
+
+        for (String customerId : new String[] {"CL-DUE-1", "CL-DUE-2"}) {
+            CustomerLogin login = logins.findByCustomerId(customerId);
+            assertEquals("N", login.getIsLocked());
+            assertNull(login.getLockedUntil());
+            assertEquals(0, login.getFailedLoginAttempts());
+        }
+        assertEquals("Y", logins.findByCustomerId("CL-LATER-1").getIsLocked());
+        assertEquals(Set.of(), new HashSet<>(logins.unlockExpiredAccounts()));
+    }
+
+    @Test
+    void aLockWrittenByAnotherNodeIsSeenAtOnce() {
+        assertEquals("N", logins.findByCustomerId("CL-NODE-1").getIsLocked());
+        assertEquals("N", logins.findByUserId("CL-NODE-1").getIsLocked());
+
+        // Another node writes the row without going through this factory
+        TestDatabase.execute("UPDATE customer_login SET is_locked = 'Y' WHERE customer_id = 'CL-NODE-1'");
+
+        assertEquals("Y", logins.findByCustomerId("CL-NODE-1").getIsLocked());
+        assertEquals("Y", logins.findByUserId("CL-NODE-1").getIsLocked());
+    }
+
+    private static String login(String customerId, String locked, String lockedUntil) {
+        return "INSERT INTO customer_login (customer_id, user_id, login_password, transaction_password, "
+                + "failed_login_attempts, is_locked, locked_until) VALUES ('" + customerId + "', '"
+                + customerId + "', 'x', 'x', 5, '" + locked + "', " + lockedUntil + ")";
+    }
+}
@@ -0,0 +1,138 @@
+package com.oracle.dao.impl;
+
+import com.oracle.beans.Transaction;
+import com.oracle.dao.util.JPAUtil;
+import com.oracle.dao.util.TransactionIdGenerator;
+
+import jakarta.persistence.EntityManager;
+
+import org.eclipse.persistence.jpa.JpaHelper;
+import org.eclipse.persistence.sessions.SessionEvent;
+import org.eclipse.persistence.sessions.SessionEventAdapter;
+import org.eclipse.persistence.sessions.SessionEventListener;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Database statements per login and per transfer, with the shared cache emptied
+ * before every operation (as without the cache) and with it kept warm. A login
+ * is the DAO calls of CustomerLoginServiceImpl.authenticate plus the customer
+ * lookup that follows it; a transfer is the accounts check and the locked
+ * transfer of BankingServiceImpl.transferFunds.
+ *
+ * Run with mvn -Pbenchmark test; the counts are logged.
+ */
+class QueryCountBenchmark {
+
+    private static final Logger logger = Logger.getLogger(QueryCountBenchmark.class.getName());
+
+    private static final int ROUNDS = 20;
+    private static final AtomicInteger statements = new AtomicInteger();
+    private static final SessionEventListener counter = new SessionEventAdapter() {
+        @Override
+        public void preExecuteCall(SessionEvent event) {
+            statements.incrementAndGet();
+        }
+    };
+
+    private final CustomerLoginJPAImpl logins = new CustomerLoginJPAImpl();
+    private final CustomerJPAImpl customers = new CustomerJPAImpl();
+    private final BankAccountJPAImpl accounts = new BankAccountJPAImpl();
+    private final TransferJPAImpl transfers = new TransferJPAImpl();
+
+    @BeforeAll
+    static void createRows() {
+        TestDatabase.createTransactionsTable();
+        TestDatabase.createAccountTables();
+        TestDatabase.createCustomerLoginTable();
+        TestDatabase.execute(
+                "INSERT INTO customers (customer_id, full_name, email, mobile_number, date_of_birth, "
+                + "aadhar_number, residential_address, status) VALUES ('QC-CUST-1', 'Query Count', "
+                + "'qc@example.com', '9000000000', DATE '1990-01-01', '123412341234', 'Address', 'ACTIVE')",
+                "INSERT INTO customer_login (customer_id, user_id, login_password, transaction_password, "
+                + "failed_login_attempts, is_locked) VALUES ('QC-CUST-1', 'qc-user', 'x', 'x', 0, 'N')");
+        EntityManager em = JPAUtil.getEntityManager();
+        try {
+            em.getTransaction().begin();
+            em.persist(TransferJPAImplTest.account("QC-SRC-1", "SAVINGS", "1000000.00", "Y"));
+            em.persist(TransferJPAImplTest.account("QC-DST-1", "SAVINGS", "0.00", "Y"));
+            em.getTransaction().commit();
+        } finally {
+            em.close();
+        }
+        JpaHelper.getServerSession(JPAUtil.getEntityManagerFactory()).getEventManager().addListener(counter);
+    }
+
+    @AfterAll
+    static void removeCounter() {
+        JpaHelper.getServerSession(JPAUtil.getEntityManagerFactory()).getEventManager().removeListener(counter);
+    }
+
+    @Test
+    void statementsPerLogin() {
+        double cold = perOperation(true, this::login);
+        double warm = perOperation(false, this::login);
+        logger.info(String.format("Statements per login: %.1f with an empty cache, %.1f with a warm one", cold, warm));
+        assertTrue(warm < cold);
+    }
+
+    @Test
+    void statementsPerTransfer() {
+        double cold = perOperation(true, this::transfer);
+        double warm = perOperation(false, this::transfer);
+        logger.info(String.format("Statements per transfer: %.1f with an empty cache, %.1f with a warm one", cold, warm));
+        // Accounts and transactions are not cached, so a transfer costs the same either way
+        assertEquals(cold, warm);
+    }
+
+    private void login() {
+        assertNotNull(logins.findByCustomerId("QC-CUST-1"));
+        assertTrue(logins.updateLastLogin("QC-CUST-1", LocalDateTime.now()));
+        assertNotNull(customers.findCustomerById("QC-CUST-1"));
+    }
+
+    private void transfer() {
+        List<?> found = accounts.findAccountsByNumbers(List.of("QC-SRC-1", "QC-DST-1"));
+        assertEquals(2, found.size());
+        assertTrue(transfers.executeTransfer("QC-SRC-1", "QC-DST-1", BigDecimal.ONE,
+                leg("DEBIT"), leg("CREDIT")));
+    }
+
+    private static double perOperation(boolean evictFirst, Runnable operation) {
+        // One untimed run so that both figures start from the same state
+        operation.run();
+        int total = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            if (evictFirst) {
+                JPAUtil.getEntityManagerFactory().getCache().evictAll();
+            }
+            statements.set(0);
+            operation.run();
+            total += statements.get();
+        }
+        return (double) total / ROUNDS;
+    }
+
+    private static Transaction leg(String type) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId(TransactionIdGenerator.getInstance().nextTransactionId());
+        transaction.setTransactionRefNo("QC" + transaction.getTransactionId());
+        transaction.setFromAccountNumber("QC-SRC-1");
+        transaction.setToAccountNumber("QC-DST-1");
+        transaction.setTransactionType(type);
+        transaction.setTransferMethod("IMPS");
+        transaction.setAmount(BigDecimal.ONE);
+        return transaction;
+    }
+}
@@ -0,0 +1,66 @@
+package com.oracle.dao.impl;
+
+import com.oracle.beans.Session;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class SessionJPAImplTest {
+
+    private final SessionJPAImpl sessions = new SessionJPAImpl();
+
+    @BeforeAll
+    static void createTable() {
+        TestDatabase.createSessionsTable();
+    }
+
+    @Test
+    void lastActivityIsOnlyWrittenToActiveRows() {
+        sessions.saveSession(new Session("S-LIVE-1", "C1", "CUSTOMER"));
+        Session ended = new Session("S-ENDED-1", "C1", "CUSTOMER");
+        ended.setIsActive("N");
+        sessions.saveSession(ended);
+        LocalDateTime later = LocalDateTime.now().plusMinutes(5).truncatedTo(ChronoUnit.SECONDS);
+
+        Set<String> missing = sessions.updateLastActivity(Map.of(
+                "S-LIVE-1", later, "S-ENDED-1", later, "S-GONE-1", later));
+
+        assertEquals(Set.of("S-ENDED-1", "S-GONE-1"), missing);
+        assertEquals(later, sessions.getSession("S-LIVE-1").getLastActivity());
+        assertEquals("N", sessions.getSession("S-ENDED-1").getIsActive());
+        assertNull(sessions.getSession("S-GONE-1"));
+    }
+
+    @Test
+    void anEndedSessionIsNotBroughtBack() {
+        Session session = new Session("S-LIVE-2", "C2", "CUSTOMER");
+        sessions.saveSession(session);
+        sessions.deactivateSessions(List.of("S-LIVE-2"));
+
+        assertFalse(sessions.updateSession(session));
+        assertEquals("N", sessions.getSession("S-LIVE-2").getIsActive());
+
+        sessions.deleteSession("S-LIVE-2");
+        assertFalse(sessions.updateSession(session));
+        assertNull(sessions.getSession("S-LIVE-2"));
+    }
+
+    @Test
+    void findsTheIdsThatAreStillActive() {
+        sessions.saveSession(new Session("S-LIVE-3", "C3", "CUSTOMER"));
+        sessions.saveSession(new Session("S-LIVE-4", "C3", "CUSTOMER"));
+        sessions.deactivateSessions(List.of("S-LIVE-4"));
+
+        assertEquals(Set.of("S-LIVE-3"), sessions.findActiveSessionIds(List.of("S-LIVE-3", "S-LIVE-4", "S-GONE-3")));
+    }
+}
@@ -0,0 +1,102 @@
+package com.oracle.dao.impl;
+
+import com.oracle.dao.util.JPAUtil;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Tables for the DAO tests, created in the in-memory H2 database the test JVM
+ * points the persistence unit at (see the surefire configuration in the pom).
+ * Only the columns the entities map are created, without foreign keys, so that a
+ * test can insert just the rows it needs.
+ */
+public final class TestDatabase {
+
+    private TestDatabase() {
+    }
+
+    public static void createTransactionsTable() {
+        execute("CREATE TABLE IF NOT EXISTS transactions ("
+                + "transaction_id VARCHAR(25) PRIMARY KEY, "
+                + "transaction_ref_no VARCHAR(30) NOT NULL UNIQUE, "
+                + "from_account_number VARCHAR(20), "
+                + "to_account_number VARCHAR(20), "
+                + "transaction_type VARCHAR(15) NOT NULL, "
+                + "amount NUMBER(15,2) NOT NULL, "
+                + "transfer_method VARCHAR(10), "
+                + "status VARCHAR(15), "
+                + "description VARCHAR(200), "
+                + "remarks VARCHAR(300), "
+                + "opening_balance NUMBER(15,2), "
+                + "closing_balance NUMBER(15,2), "
+                + "transaction_date TIMESTAMP, "
+                + "value_date DATE, "
+                + "processed_by VARCHAR(50))");
+    }
+
+    public static void createAccountTables() {
+        execute("CREATE TABLE IF NOT EXISTS customers ("
+                + "customer_id VARCHAR(20) PRIMARY KEY, "
+                + "service_reference_no VARCHAR(20), "
+                + "full_name VARCHAR(100) NOT NULL, "
+                + "email VARCHAR(100) NOT NULL, "
+                + "mobile_number VARCHAR(15) NOT NULL, "
+                + "date_of_birth DATE NOT NULL, "
+                + "aadhar_number VARCHAR(12) NOT NULL, "
+                + "residential_address VARCHAR(500) NOT NULL, "
+                + "permanent_address VARCHAR(500), "
+                + "occupation VARCHAR(100), "
+                + "annual_income NUMBER(12,2), "
+                + "status VARCHAR(15), "
+                + "created_at TIMESTAMP, "
+                + "created_by VARCHAR(20))",
+                "CREATE TABLE IF NOT EXISTS bank_accounts ("
+                + "account_number VARCHAR(20) PRIMARY KEY, "
+                + "customer_id VARCHAR(20) NOT NULL, "
+                + "account_type VARCHAR(20) NOT NULL, "
+                + "balance NUMBER(15,2), "
+                + "is_active VARCHAR(1), "
+                + "opened_date TIMESTAMP, "
+                + "last_transaction_date TIMESTAMP)");
+    }
+
+    public static void createSessionsTable() {
+        execute("CREATE TABLE IF NOT EXISTS sessions ("
+                + "session_id VARCHAR(50) PRIMARY KEY, "
+                + "customerId VARCHAR(20) NOT NULL, "
+                + "user_type VARCHAR(20) NOT NULL, "
+                + "login_time TIMESTAMP NOT NULL, "
+                + "last_activity TIMESTAMP NOT NULL, "
+                + "is_active VARCHAR(1) NOT NULL, "
+                + "ip_address VARCHAR(50), "
+                + "user_agent VARCHAR(255))");
+    }
+
+    public static void createCustomerLoginTable() {
+        execute("CREATE TABLE IF NOT EXISTS customer_login ("
+                + "customer_id VARCHAR(20) PRIMARY KEY, "
+                + "user_id VARCHAR(50) UNIQUE, "
+                + "login_password VARCHAR(255) NOT NULL, "
+                + "transaction_password VARCHAR(255) NOT NULL, "
+                + "internet_banking_enabled VARCHAR(1), "
+                + "registration_date TIMESTAMP, "
+                + "failed_login_attempts NUMBER(3), "
+                + "is_locked VARCHAR(1), "
+                + "locked_until TIMESTAMP, "
+                + "last_login TIMESTAMP, "
+                + "password_changed_at TIMESTAMP)");
+    }
+
+    public static void execute(String... statements) {
+        EntityManager em = JPAUtil.getEntityManager();
+        try {
+            em.getTransaction().begin();
+            for (String sql : statements) {
+                em.createNativeQuery(sql).executeUpdate();
+            }
+            em.getTransaction().commit();
+        } finally {
+            em.close();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.oracle.dao.impl;
+
+import com.oracle.beans.Transaction;
+import com.oracle.dao.util.JPAUtil;
+
+import jakarta.persistence.EntityManager;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Runs the aggregate queries through EclipseLink against H2, so that a JPQL
+ * attribute that does not exist on the entity fails here and not in production.
+ */
+class TransactionJPAImplTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2026, 3, 10, 0, 0);
+
+    private final TransactionJPAImpl dao = new TransactionJPAImpl();
+
+    @BeforeAll
+    static void createTransactions() {
+        TestDatabase.createTransactionsTable();
+        EntityManager em = JPAUtil.getEntityManager();
+        try {
+            em.getTransaction().begin();
+            em.persist(row("T1", "A1", "B1", "DEBIT", "100.00", "NEFT", "COMPLETED", DAY.plusHours(9)));
+            em.persist(row("T2", "A1", "B1", "CREDIT", "100.00", "NEFT", "COMPLETED", DAY.plusHours(9)));
+            em.persist(row("T3", "A1", "B2", "TRANSFER", "50.00", "IMPS", "SUCCESS", DAY.plusHours(12)));
+            em.persist(row("T4", "A1", "B2", "DEBIT", "999.00", "IMPS", "FAILED", DAY.plusHours(13)));
+            em.persist(row("T5", "A2", "B1", "DEBIT", "70.00", "RTGS", "COMPLETED", DAY.plusHours(15)));
+            em.persist(row("T6", "A1", "B1", "DEBIT", "30.00", "NEFT", "COMPLETED", DAY.plusDays(1).plusHours(1)));
+            em.getTransaction().commit();
+        } finally {
+            em.close();
+        }
+    }
+
+    @Test
+    void sumOutflowsCountsCompletedDebitsAndTransfersOnly() {
+        assertEquals(new BigDecimal("150.00"), dao.sumOutflows("A1", DAY, DAY.plusDays(1)));
+        assertEquals(new BigDecimal("180.00"), dao.sumOutflows("A1", DAY, DAY.plusDays(2)));
+    }
+
+    @Test
+    void sumOutflowsByAccountGroupsByFromAccount() {
+        Map<String, BigDecimal> totals = dao.sumOutflowsByAccount(DAY, DAY.plusDays(1));
+
+        assertEquals(2, totals.size());
+        assertEquals(new BigDecimal("150.00"), totals.get("A1"));
+        assertEquals(new BigDecimal("70.00"), totals.get("A2"));
+    }
+
+    @Test
+    void sumAmountByMethodFiltersOnType() {
+        Map<String, BigDecimal> totals = dao.sumAmountByMethod("A1", List.of("DEBIT"), null, List.of("COMPLETED"),
+                DAY, DAY.plusDays(2));
+
+        assertEquals(new BigDecimal("130.00"), totals.get("NEFT"));
+        assertNull(totals.get("IMPS"));
+    }
+
+    @Test
+    void sumAmountByDayBucketsByCalendarDay() {
+        Map<LocalDate, BigDecimal> totals = dao.sumAmountByDay("A1", List.of("DEBIT", "TRANSFER"), null,
+                List.of("COMPLETED", "SUCCESS"), DAY, DAY.plusDays(2));
+
+        assertEquals(new BigDecimal("150.00"), totals.get(DAY.toLocalDate()));
+        assertEquals(new BigDecimal("30.00"), totals.get(DAY.toLocalDate().plusDays(1)));
+    }
+
+    private static Transaction row(String id, String from, String to, String type, String amount, String method,
+                                   String status, LocalDateTime date) {
+        Transaction t = new Transaction();
+        t.setTransactionId(id);
+        t.setTransactionRefNo("REF-" + id);
+        t.setFromAccountNumber(from);
+        t.setToAccountNumber(to);
+        t.setTransactionType(type);
+        t.setAmount(new BigDecimal(amount));
+        t.setTransferMethod(method);
+        t.setStatus(status);
+        t.setTransactionDate(date);
+        t.setValueDate(date.toLocalDate());
+        return t;
+    }
+}
@@ -0,0 +1,149 @@
+package com.oracle.dao.impl;
+
+import com.oracle.beans.Transaction;
+import com.oracle.dao.util.JPAUtil;
+import com.oracle.dao.util.TransactionIdGenerator;
+
+import jakarta.persistence.EntityManager;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Throughput of TransferJPAImpl when 64 threads transfer between 1, 10 or 1000
+ * hot accounts. With one hot account every transfer moves money between it and
+ * the thread's own account; otherwise between two hot accounts, in both
+ * directions, so that opposite lock orders would deadlock without the canonical
+ * order. Every committed transfer is checked against the balances afterwards,
+ * so a lost update fails the run.
+ *
+ * Run with mvn -Pbenchmark test. The numbers are for H2 and only comparable
+ * with each other; -Dbenchmark.transfersPerThread sets the run length.
+ */
+class TransferContentionBenchmark {
+
+    private static final Logger logger = Logger.getLogger(TransferContentionBenchmark.class.getName());
+
+    private static final int THREADS = 64;
+    private static final int TRANSFERS_PER_THREAD = Integer.getInteger("benchmark.transfersPerThread", 50);
+    private static final BigDecimal OPENING_BALANCE = new BigDecimal("1000000.00");
+    private static final BigDecimal AMOUNT = new BigDecimal("1.00");
+
+    private final TransferJPAImpl transfers = new TransferJPAImpl();
+
+    @BeforeAll
+    static void createTables() {
+        TestDatabase.createTransactionsTable();
+        TestDatabase.createAccountTables();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 1000})
+    void transfersOnHotAccounts(int hotAccounts) throws Exception {
+        String prefix = "BM" + hotAccounts + "-";
+        List<String> accounts = openAccounts(prefix, hotAccounts);
+        Map<String, BigDecimal> expected = new ConcurrentHashMap<>();
+        AtomicInteger committed = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        long started;
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                String own = accounts.get(hotAccounts + t);
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < TRANSFERS_PER_THREAD; i++) {
+                        String hot = accounts.get(random.nextInt(hotAccounts));
+                        String other = own;
+                        if (hotAccounts > 1) {
+                            do {
+                                other = accounts.get(random.nextInt(hotAccounts));
+                            } while (other.equals(hot));
+                        }
+                        String from = random.nextBoolean() ? hot : other;
+                        String to = from.equals(hot) ? other : hot;
+                        if (transfers.executeTransfer(from, to, AMOUNT, leg("DEBIT", from, to), leg("CREDIT", from, to))) {
+                            expected.merge(from, AMOUNT.negate(), BigDecimal::add);
+                            expected.merge(to, AMOUNT, BigDecimal::add);
+                            committed.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            started = System.nanoTime();
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        long elapsedMillis = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+
+        int attempted = THREADS * TRANSFERS_PER_THREAD;
+        logger.info(String.format("%d threads, %d hot account(s): %d of %d transfers committed in %d ms, %.0f/s",
+                THREADS, hotAccounts, committed.get(), attempted, elapsedMillis,
+                committed.get() * 1000.0 / elapsedMillis));
+
+        assertTrue(committed.get() > 0);
+        for (String account : accounts) {
+            assertEquals(OPENING_BALANCE.add(expected.getOrDefault(account, BigDecimal.ZERO)),
+                    TransferJPAImplTest.balance(account), account);
+        }
+    }
+
+    // The hot accounts first, then one account per thread
+    private static List<String> openAccounts(String prefix, int hotAccounts) {
+        List<String> accounts = new ArrayList<>();
+        for (int i = 0; i < hotAccounts; i++) {
+            accounts.add(prefix + "H" + i);
+        }
+        for (int t = 0; t < THREADS; t++) {
+            accounts.add(prefix + "T" + t);
+        }
+        EntityManager em = JPAUtil.getEntityManager();
+        try {
+            em.getTransaction().begin();
+            for (String account : accounts) {
+                em.persist(TransferJPAImplTest.account(account, "SAVINGS", OPENING_BALANCE.toPlainString(), "Y"));
+            }
+            em.getTransaction().commit();
+        } finally {
+            em.close();
+        }
+        return accounts;
+    }
+
+    private static Transaction leg(String type, String from, String to) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId(TransactionIdGenerator.getInstance().nextTransactionId());
+        transaction.setTransactionRefNo("BM" + transaction.getTransactionId());
+        transaction.setFromAccountNumber(from);
+        transaction.setToAccountNumber(to);
+        transaction.setTransactionType(type);
+        transaction.setTransferMethod("IMPS");
+        transaction.setAmount(AMOUNT);
+        return transaction;
+    }
+}
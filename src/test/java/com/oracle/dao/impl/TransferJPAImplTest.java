@@ -0,0 +1,117 @@
+package com.oracle.dao.impl;
+
+import com.oracle.beans.BankAccount;
+import com.oracle.beans.Transaction;
+import com.oracle.dao.util.JPAUtil;
+import com.oracle.dao.util.TransactionIdGenerator;
+
+import jakarta.persistence.EntityManager;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TransferJPAImplTest {
+
+    private final TransferJPAImpl transfers = new TransferJPAImpl();
+    private final TransactionJPAImpl transactions = new TransactionJPAImpl();
+
+    @BeforeAll
+    static void createAccounts() {
+        TestDatabase.createTransactionsTable();
+        TestDatabase.createAccountTables();
+        EntityManager em = JPAUtil.getEntityManager();
+        try {
+            em.getTransaction().begin();
+            em.persist(account("TR-SRC-1", "SAVINGS", "5000.00", "Y"));
+            em.persist(account("TR-DST-1", "SAVINGS", "0.00", "Y"));
+            em.persist(account("TR-SRC-2", "SAVINGS", "1500.00", "Y"));
+            em.persist(account("TR-DST-2", "SAVINGS", "0.00", "N"));
+            em.persist(account("TR-SRC-3", "CURRENT", "6000.00", "Y"));
+            em.persist(account("TR-DST-3", "SAVINGS", "0.00", "Y"));
+            em.getTransaction().commit();
+        } finally {
+            em.close();
+        }
+    }
+
+    @Test
+    void legsSharingOneReferenceAreBothCommitted() {
+        Transaction debit = leg("DEBIT", "REF-SHARED-1", "TR-SRC-1", "TR-DST-1");
+        Transaction credit = leg("CREDIT", "REF-SHARED-1", "TR-SRC-1", "TR-DST-1");
+
+        assertTrue(transfers.executeTransfer("TR-SRC-1", "TR-DST-1", new BigDecimal("100.00"), debit, credit));
+
+        assertNotNull(transactions.findByTransactionRefNo("REF-SHARED-1-D"));
+        assertNotNull(transactions.findByTransactionRefNo("REF-SHARED-1-C"));
+        assertEquals(new BigDecimal("100.00"), balance("TR-DST-1"));
+    }
+
+    @Test
+    void aDestinationDeactivatedSinceTheCheckIsRefused() {
+        assertFalse(transfers.executeTransfer("TR-SRC-1", "TR-DST-2", new BigDecimal("100.00"),
+                leg("DEBIT", "REF-INACTIVE-D", "TR-SRC-1", "TR-DST-2"),
+                leg("CREDIT", "REF-INACTIVE-C", "TR-SRC-1", "TR-DST-2")));
+
+        assertEquals(new BigDecimal("0.00"), balance("TR-DST-2"));
+        assertNull(transactions.findByTransactionRefNo("REF-INACTIVE-D"));
+    }
+
+    @Test
+    void theMinimumBalanceIsKeptOnTheLockedRow() {
+        // 1500 - 600 would leave a savings account under its 1000 minimum
+        assertFalse(transfers.executeTransfer("TR-SRC-2", "TR-DST-3", new BigDecimal("600.00"),
+                leg("DEBIT", "REF-MIN-SAV-D", "TR-SRC-2", "TR-DST-3"),
+                leg("CREDIT", "REF-MIN-SAV-C", "TR-SRC-2", "TR-DST-3")));
+        assertEquals(new BigDecimal("1500.00"), balance("TR-SRC-2"));
+
+        // 6000 - 1500 would leave a current account under its 5000 minimum; 1000 does not
+        assertFalse(transfers.executeTransfer("TR-SRC-3", "TR-DST-3", new BigDecimal("1500.00"),
+                leg("DEBIT", "REF-MIN-CUR-D", "TR-SRC-3", "TR-DST-3"),
+                leg("CREDIT", "REF-MIN-CUR-C", "TR-SRC-3", "TR-DST-3")));
+        assertTrue(transfers.executeTransfer("TR-SRC-3", "TR-DST-3", new BigDecimal("1000.00"),
+                leg("DEBIT", "REF-MIN-CUR-D2", "TR-SRC-3", "TR-DST-3"),
+                leg("CREDIT", "REF-MIN-CUR-C2", "TR-SRC-3", "TR-DST-3")));
+        assertEquals(new BigDecimal("5000.00"), balance("TR-SRC-3"));
+    }
+
+    static BankAccount account(String number, String type, String balance, String active) {
+        BankAccount account = new BankAccount();
+        account.setAccountNumber(number);
+        account.setCustomerId("CUST-" + number);
+        account.setAccountType(type);
+        account.setBalance(new BigDecimal(balance));
+        account.setIsActive(active);
+        account.setOpenedDate(LocalDateTime.now());
+        return account;
+    }
+
+    Transaction leg(String type, String reference, String from, String to) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId(TransactionIdGenerator.getInstance().nextTransactionId());
+        transaction.setTransactionRefNo(reference);
+        transaction.setFromAccountNumber(from);
+        transaction.setToAccountNumber(to);
+        transaction.setTransactionType(type);
+        transaction.setTransferMethod("IMPS");
+        transaction.setAmount(new BigDecimal("100.00"));
+        return transaction;
+    }
+
+    static BigDecimal balance(String accountNumber) {
+        EntityManager em = JPAUtil.getEntityManager();
+        try {
+            return em.find(BankAccount.class, accountNumber).getBalance();
+        } finally {
+            em.close();
+        }
+    }
+}
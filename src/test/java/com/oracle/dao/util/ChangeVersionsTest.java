@@ -0,0 +1,32 @@
+package com.oracle.dao.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class ChangeVersionsTest {
+
+    // The default bucket is ten seconds
+    private static final long BUCKET_START = 1_700_000_000_000L;
+
+    @Test
+    void aTagHoldsWithinItsBucketWhileNothingIsWritten() {
+        assertEquals(ChangeVersions.tag(ChangeVersions.ADMINS, BUCKET_START),
+                ChangeVersions.tag(ChangeVersions.ADMINS, BUCKET_START + 9_999));
+    }
+
+    @Test
+    void aTagStopsMatchingWhenItsBucketEnds() {
+        // A write made by another node bumps nothing here; the tag must still change
+        assertNotEquals(ChangeVersions.tag(ChangeVersions.ADMINS, BUCKET_START),
+                ChangeVersions.tag(ChangeVersions.ADMINS, BUCKET_START + 10_000));
+    }
+
+    @Test
+    void aLocalWriteChangesTheTagAtOnce() {
+        String before = ChangeVersions.tag(ChangeVersions.CUSTOMERS, BUCKET_START);
+        ChangeVersions.bump(ChangeVersions.CUSTOMERS);
+        assertNotEquals(before, ChangeVersions.tag(ChangeVersions.CUSTOMERS, BUCKET_START));
+    }
+}
@@ -0,0 +1,35 @@
+package com.oracle.dao.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class LocalCacheTest {
+
+    @Test
+    void loadsOutsideATransactionAreStored() {
+        LocalCache<String, String> cache = new LocalCache<>("test-outside", 10, 1, TimeUnit.MINUTES);
+
+        assertEquals("row", cache.get("k", k -> "row"));
+        assertEquals("row", cache.getIfPresent("k"));
+    }
+
+    @Test
+    void loadsInsideATransactionalUnitAreNotStored() {
+        LocalCache<String, String> cache = new LocalCache<>("test-inside", 10, 1, TimeUnit.MINUTES);
+        UnitOfWork unit = UnitOfWork.begin(() -> {
+            throw new AssertionError("no EntityManager needed");
+        }, true);
+        try {
+            // The loader may have read a row this unit wrote and will roll back
+            assertEquals("uncommitted", cache.get("k", k -> "uncommitted"));
+        } finally {
+            unit.end(false);
+        }
+        assertNull(cache.getIfPresent("k"));
+        assertEquals("committed", cache.get("k", k -> "committed"));
+    }
+}
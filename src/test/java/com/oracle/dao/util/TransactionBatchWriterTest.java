@@ -0,0 +1,88 @@
+package com.oracle.dao.util;
+
+import com.oracle.beans.Transaction;
+import com.oracle.dao.impl.TestDatabase;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TransactionBatchWriterTest {
+
+    @BeforeAll
+    static void createTable() {
+        TestDatabase.createTransactionsTable();
+    }
+
+    @Test
+    void everySubmissionRacingShutdownCompletes() throws Exception {
+        for (int round = 0; round < 3; round++) {
+            TransactionBatchWriter writer = new TransactionBatchWriter();
+            Queue<CompletableFuture<Boolean>> results = new ConcurrentLinkedQueue<>();
+            ExecutorService submitters = Executors.newFixedThreadPool(8);
+            CountDownLatch started = new CountDownLatch(8);
+            try {
+                for (int t = 0; t < 8; t++) {
+                    submitters.submit(() -> {
+                        started.countDown();
+                        // Keep submitting through the shutdown until the writer turns rows away
+                        for (int i = 0; i < 5000; i++) {
+                            CompletableFuture<Boolean> result = writer.submit(row());
+                            results.add(result);
+                            if (result.isCompletedExceptionally()) {
+                                return;
+                            }
+                        }
+                    });
+                }
+                started.await();
+                writer.shutdown();
+            } finally {
+                submitters.shutdown();
+                assertTrue(submitters.awaitTermination(30, TimeUnit.SECONDS));
+            }
+
+            for (CompletableFuture<Boolean> result : results) {
+                // Written or rejected, never left pending
+                try {
+                    assertTrue(result.get(5, TimeUnit.SECONDS));
+                } catch (ExecutionException e) {
+                    assertInstanceOf(RejectedExecutionException.class, e.getCause());
+                }
+            }
+        }
+    }
+
+    @Test
+    void submissionsAfterShutdownAreRejected() {
+        TransactionBatchWriter writer = new TransactionBatchWriter();
+        writer.shutdown();
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> writer.submit(row()).get(1, TimeUnit.SECONDS));
+        assertInstanceOf(RejectedExecutionException.class, e.getCause());
+    }
+
+    private static Transaction row() {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId(TransactionIdGenerator.getInstance().nextTransactionId());
+        transaction.setTransactionRefNo("BW" + transaction.getTransactionId());
+        transaction.setToAccountNumber("BW-ACC-1");
+        transaction.setTransactionType("CREDIT");
+        transaction.setAmount(BigDecimal.ONE);
+        return transaction;
+    }
+}
@@ -0,0 +1,85 @@
+package com.oracle.dao.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TransactionIdGeneratorTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void concurrentCallersNeverGetTheSameId() throws Exception {
+        TransactionIdGenerator generator = new TransactionIdGenerator(7, directory.resolve("txn-id.hwm"));
+        int threads = 16;
+        int idsPerThread = 50_000;
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    long previous = Long.MIN_VALUE;
+                    for (int i = 0; i < idsPerThread; i++) {
+                        long id = generator.nextId();
+                        // Each caller sees its own ids rise
+                        assertTrue(id > previous);
+                        previous = id;
+                        ids.add(id);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(threads * idsPerThread, ids.size());
+    }
+
+    @Test
+    void aRestartDoesNotRepeatIdsWhenTheClockWentBack() throws Exception {
+        Path stateFile = directory.resolve("txn-id.hwm");
+        // A lease an hour ahead: the last run issued ids from a clock that is now behind
+        long leased = System.currentTimeMillis() + 3_600_000L;
+        Files.writeString(stateFile, Long.toString(leased));
+
+        long first = new TransactionIdGenerator(7, stateFile).nextId();
+
+        long epoch = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+        assertTrue((first >>> 22) + epoch > leased);
+        // And the new lease was stored before the id was handed out
+        assertTrue(Long.parseLong(Files.readString(stateFile)) > (first >>> 22) + epoch);
+    }
+
+    @Test
+    void theLeaseIsStoredOnFirstUse() throws Exception {
+        Path stateFile = directory.resolve("fresh.hwm");
+        TransactionIdGenerator generator = new TransactionIdGenerator(3, stateFile);
+        long id = generator.nextId();
+
+        long epoch = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+        assertTrue(Long.parseLong(Files.readString(stateFile)) > (id >>> 22) + epoch);
+        assertTrue(new TransactionIdGenerator(3, stateFile).nextId() > id);
+    }
+}
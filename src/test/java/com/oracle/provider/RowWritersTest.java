@@ -0,0 +1,43 @@
+package com.oracle.provider;
+
+import com.oracle.beans.Transaction;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RowWritersTest {
+
+    @Test
+    void dateTimesKeepTheirSecondsWhenTheyAreZero() throws Exception {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId("TXN-1");
+        transaction.setTransactionDate(LocalDateTime.of(2024, 5, 1, 10, 15));
+        transaction.setValueDate(LocalDate.of(2024, 5, 1));
+
+        String json = write(transaction);
+
+        assertTrue(json.contains("\"transactionDate\":\"2024-05-01T10:15:00\""), json);
+        assertTrue(json.contains("\"valueDate\":\"2024-05-01\""), json);
+    }
+
+    @Test
+    void fractionsOfASecondAreKept() throws Exception {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionDate(LocalDateTime.of(2024, 5, 1, 10, 15, 0, 250_000_000));
+
+        assertTrue(write(transaction).contains("\"transactionDate\":\"2024-05-01T10:15:00.25\""));
+    }
+
+    private static String write(Transaction transaction) throws Exception {
+        StringWriter out = new StringWriter();
+        JsonRowEncoder encoder = new JsonRowEncoder(out);
+        RowWriters.TRANSACTION.write(transaction, encoder);
+        encoder.flush();
+        return out.toString();
+    }
+}